@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.util.Random;
+
+/**
+ * Input distributions for the sort benchmarks.
+ *
+ * @author kirsty
+ */
+public enum Distribution {
+
+    /* uniformly random keys */
+    RANDOM {
+        @Override
+        void fill(int[] a, Random rand) {
+            for (int i = 0; i < a.length; i++) {
+                a[i] = rand.nextInt();
+            }
+        }
+    },
+
+    /* already in ascending order */
+    SORTED {
+        @Override
+        void fill(int[] a, Random rand) {
+            for (int i = 0; i < a.length; i++) {
+                a[i] = i;
+            }
+        }
+    },
+
+    /* in descending order */
+    REVERSED {
+        @Override
+        void fill(int[] a, Random rand) {
+            for (int i = 0; i < a.length; i++) {
+                a[i] = a.length - i;
+            }
+        }
+    },
+
+    /* ascending, with one percent of the keys swapped at random */
+    NEARLY_SORTED {
+        @Override
+        void fill(int[] a, Random rand) {
+            SORTED.fill(a, rand);
+            for (int i = 0; i < a.length / 100; i++) {
+                int j = rand.nextInt(a.length);
+                int k = rand.nextInt(a.length);
+                int t = a[j];
+                a[j] = a[k];
+                a[k] = t;
+            }
+        }
+    },
+
+    /* only a handful of distinct keys */
+    MANY_DUPLICATES {
+        @Override
+        void fill(int[] a, Random rand) {
+            for (int i = 0; i < a.length; i++) {
+                a[i] = rand.nextInt(16);
+            }
+        }
+    };
+
+    /**
+     * Fill the array with keys from this distribution.
+     *
+     * @param a the array to fill.
+     * @param rand the source of randomness.
+     */
+    abstract void fill(int[] a, Random rand);
+
+    /**
+     * Create keys from this distribution; the same size
+     * always gives the same keys.
+     *
+     * @param size the number of keys.
+     * @return the keys.
+     */
+    int[] create(int size) {
+        int[] a = new int[size];
+        fill(a, new Random(size));
+        return a;
+    }
+
+    /**
+     * Box keys from this distribution.
+     *
+     * @param size the number of keys.
+     * @return the boxed keys.
+     */
+    Integer[] createBoxed(int size) {
+        int[] a = create(size);
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = a[i];
+        }
+        return boxed;
+    }
+}
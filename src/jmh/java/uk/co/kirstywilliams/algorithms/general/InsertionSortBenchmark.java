@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks insertion sort on boxed and primitive
+ * arrays, alongside the hybrid sort. Sizes stay
+ * small because insertion sort is quadratic.
+ *
+ * @author kirsty
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InsertionSortBenchmark {
+
+    @Param({"16", "256", "4096"})
+    int size;
+
+    @Param
+    Distribution distribution;
+
+    int[] keys;
+    Integer[] boxedKeys;
+
+    @Setup
+    public void setup() {
+        keys = distribution.create(size);
+        boxedKeys = distribution.createBoxed(size);
+    }
+
+    @Benchmark
+    public Integer[] insertionSortBoxed() {
+        Integer[] a = boxedKeys.clone();
+        Sort.insertionSort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] insertionSortInt() {
+        int[] a = keys.clone();
+        Sort.insertionSort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] hybridSortInt() {
+        int[] a = keys.clone();
+        Sort.sort(a);
+        return a;
+    }
+}
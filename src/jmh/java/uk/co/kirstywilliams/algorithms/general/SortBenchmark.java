@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the O(n log n) and radix sorts against
+ * each other and against {@link Arrays#sort(int[])}.
+ * Each benchmark sorts a fresh copy of the input, so
+ * the copy is part of every score.
+ *
+ * Run with -prof gc to see the allocation rate.
+ *
+ * @author kirsty
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param
+    Distribution distribution;
+
+    int[] keys;
+    Integer[] boxedKeys;
+    RadixSort radix;
+
+    @Setup
+    public void setup() {
+        keys = distribution.create(size);
+        boxedKeys = distribution.createBoxed(size);
+        radix = new RadixSort();
+    }
+
+    @Benchmark
+    public int[] hybridSortInt() {
+        int[] a = keys.clone();
+        Sort.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] hybridSortBoxed() {
+        Integer[] a = boxedKeys.clone();
+        Sort.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] parallelSortInt() {
+        int[] a = keys.clone();
+        Sort.parallelSort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] radixSortInt() {
+        int[] a = keys.clone();
+        radix.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] jdkSortInt() {
+        int[] a = keys.clone();
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] jdkSortBoxed() {
+        Integer[] a = boxedKeys.clone();
+        Arrays.sort(a);
+        return a;
+    }
+}
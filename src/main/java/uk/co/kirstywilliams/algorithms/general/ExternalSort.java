@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An external merge sort for files of fixed width
+ * records that are too large to sort in memory.
+ *
+ * Each record carries a signed 64 bit big-endian
+ * key at a fixed offset. The input is memory mapped
+ * one chunk at a time; the keys of a chunk are
+ * sorted in place (paired with their record index)
+ * and the records are written out in that order as
+ * a sorted run. The runs are then memory mapped
+ * and k-way merged through a binary heap of run
+ * indices.
+ * Records are only ever copied as bytes, so no
+ * object is created per record.
+ *
+ * The sort is stable. Each chunk must fit in a
+ * single mapping (at most 2GB).
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/External_sorting">https://en.wikipedia.org/wiki/External_sorting</a>
+ *
+ * @author kirsty
+ */
+public class ExternalSort {
+
+    /* default number of records sorted in memory at once */
+    public static final int DEFAULT_CHUNK_RECORDS = 1 << 20;
+    /* size of the buffer used to write the merged output */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    /* the width of each record in bytes */
+    private final int recordSize;
+    /* the offset of the key within each record */
+    private final int keyOffset;
+    /* the number of records sorted in memory at once */
+    private final int chunkRecords;
+    /* where sorted runs are written (null for the default temp directory) */
+    private final Path tempDirectory;
+
+    /**
+     * Instantiates an external sort with the default
+     * chunk size, spilling runs to the default temporary
+     * directory.
+     *
+     * @param recordSize the width of each record in bytes.
+     * @param keyOffset the offset of the long key within each record.
+     */
+    public ExternalSort(int recordSize, int keyOffset) {
+        this(recordSize, keyOffset, DEFAULT_CHUNK_RECORDS, null);
+    }
+
+    /**
+     * Instantiates an external sort.
+     *
+     * @param recordSize the width of each record in bytes.
+     * @param keyOffset the offset of the long key within each record.
+     * @param chunkRecords the number of records sorted in memory at once.
+     * @param tempDirectory where sorted runs are written, or null for the default.
+     */
+    public ExternalSort(int recordSize, int keyOffset, int chunkRecords, Path tempDirectory) {
+        if (keyOffset < 0 || recordSize < keyOffset + Long.BYTES) {
+            throw new IllegalArgumentException("the key must lie within the record");
+        }
+        if (chunkRecords < 1 || (long) chunkRecords * recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("a chunk must hold at least one record and fit in one mapping");
+        }
+
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.chunkRecords = chunkRecords;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sort the records of the input file into the output
+     * file. The input and output must be different files.
+     *
+     * @param input the file to sort.
+     * @param output the file to write the sorted records to.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public void sort(Path input, Path output) throws IOException {
+        final List<Path> runs = new ArrayList<>();
+        final ByteBuffer out = ByteBuffer.allocateDirect(
+                Math.max(recordSize, OUTPUT_BUFFER_SIZE - OUTPUT_BUFFER_SIZE % recordSize));
+        try {
+            try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+                final long size = in.size();
+                if (size % recordSize != 0) {
+                    throw new IOException("file size is not a whole number of records: " + input);
+                }
+
+                final long numRecords = size / recordSize;
+                final int n = (int) Math.min(chunkRecords, numRecords);
+                final long[] keys = new long[n];
+                final int[] perm = new int[n];
+                if (numRecords <= chunkRecords) {
+                    // a single chunk needs no merge
+                    sortChunk(in, 0, n, keys, perm, out, output);
+                    return;
+                }
+
+                for (long first = 0; first < numRecords; first += chunkRecords) {
+                    final Path run = (tempDirectory == null)
+                            ? Files.createTempFile("run", ".sort")
+                            : Files.createTempFile(tempDirectory, "run", ".sort");
+                    runs.add(run);
+                    sortChunk(in, first, (int) Math.min(chunkRecords, numRecords - first), keys, perm, out, run);
+                }
+            }
+
+            merge(runs, out, output);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Sort one chunk of the input and write it out as a run.
+     *
+     * @param in the input channel.
+     * @param first the index of the first record of the chunk.
+     * @param n the number of records in the chunk.
+     * @param keys scratch space for the keys of the chunk.
+     * @param perm scratch space for the record order.
+     * @param out the output buffer.
+     * @param run the file to write the sorted run to.
+     * @throws IOException if the chunk cannot be read or written.
+     */
+    private void sortChunk(FileChannel in, long first, int n, long[] keys, int[] perm,
+                           ByteBuffer out, Path run) throws IOException {
+        final MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY,
+                first * recordSize, (long) n * recordSize);
+
+        for (int i = 0; i < n; i++) {
+            keys[i] = chunk.getLong(i * recordSize + keyOffset);
+            perm[i] = i;
+        }
+
+        HybridSort.sort(keys, perm, 0, n);
+
+        // write the records out in key order
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < n; i++) {
+                if (out.remaining() < recordSize) {
+                    drain(out, channel);
+                }
+                final int start = perm[i] * recordSize;
+                chunk.limit(start + recordSize).position(start);
+                out.put(chunk);
+            }
+            drain(out, channel);
+        }
+    }
+
+    /**
+     * K-way merge the sorted runs into the output file.
+     *
+     * @param runs the sorted runs, in input order.
+     * @param out the output buffer.
+     * @param output the file to write to.
+     * @throws IOException if a run cannot be read or the output written.
+     */
+    private void merge(List<Path> runs, ByteBuffer out, Path output) throws IOException {
+        final int k = runs.size();
+        final MappedByteBuffer[] buffers = new MappedByteBuffer[k];
+        final int[] position = new int[k];
+        final long[] heads = new long[k];
+        final int[] heap = new int[k];
+        int heapSize = 0;
+
+        for (int r = 0; r < k; r++) {
+            try (FileChannel channel = FileChannel.open(runs.get(r), StandardOpenOption.READ)) {
+                buffers[r] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            heads[r] = buffers[r].getLong(keyOffset);
+            heap[heapSize] = r;
+            siftUp(heap, heapSize++, heads);
+        }
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (heapSize > 0) {
+                final int r = heap[0];
+                final MappedByteBuffer buffer = buffers[r];
+                final int start = position[r];
+
+                if (out.remaining() < recordSize) {
+                    drain(out, channel);
+                }
+                buffer.limit(start + recordSize).position(start);
+                out.put(buffer);
+                buffer.limit(buffer.capacity());
+
+                // advance the run, or drop it from the heap once exhausted
+                position[r] = start + recordSize;
+                if (position[r] < buffer.capacity()) {
+                    heads[r] = buffer.getLong(position[r] + keyOffset);
+                } else {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, 0, heapSize, heads);
+            }
+            drain(out, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /* run a orders before run b; ties go to the earlier run to keep the sort stable */
+    private static boolean less(int a, int b, long[] heads) {
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int i, long[] heads) {
+        final int r = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(r, heap[parent], heads)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = r;
+    }
+
+    private static void siftDown(int[] heap, int i, int size, long[] heads) {
+        if (size == 0) {
+            return;
+        }
+
+        final int r = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && less(heap[child + 1], heap[child], heads)) {
+                child++;
+            }
+            if (!less(heap[child], r, heads)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = r;
+    }
+}
@@ -0,0 +1,880 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.util.Comparator;
+
+/**
+ * An adaptive hybrid sort engine.
+ *
+ * Object arrays are sorted with a stable, run
+ * adaptive merge sort (in the style of TimSort):
+ * existing ascending and descending runs are
+ * detected, short runs are extended with binary
+ * insertion sort and the runs are then merged.
+ *
+ * Primitive arrays are sorted with introsort:
+ * quicksort with a three way partition, falling
+ * back to heap sort when the recursion gets too
+ * deep, with insertion sort finishing off small
+ * partitions. Input that is already sorted (or
+ * reversed) is detected up front.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Timsort">https://en.wikipedia.org/wiki/Timsort</a>
+ * @See <a href="https://en.wikipedia.org/wiki/Introsort">https://en.wikipedia.org/wiki/Introsort</a>
+ *
+ * @author kirsty
+ */
+public class HybridSort {
+
+    /* ranges shorter than this are sorted by binary insertion sort alone */
+    static final int MIN_MERGE = 32;
+    /* partitions no larger than this are finished by insertion sort */
+    static final int INSERTION_THRESHOLD = 24;
+    /* enough pending runs for any array of up to Integer.MAX_VALUE elements */
+    private static final int MAX_RUNS = 49;
+
+    /**
+     * Sort the array into ascending natural order.
+     * The sort is stable.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     */
+    public static <T extends Comparable<? super T>> void sort(T[] a) {
+        sort(a, 0, a.length, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Sort the array into the order given by the comparator.
+     * The sort is stable.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param c the comparator
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        sort(a, 0, a.length, c);
+    }
+
+    /**
+     * Sort the range [lo, hi) of the array into the order
+     * given by the comparator. The sort is stable.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     * @param c the comparator
+     */
+    static <T> void sort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int remaining = hi - lo;
+        if (remaining < 2) {
+            return;
+        }
+
+        if (remaining < MIN_MERGE) {
+            int runLen = countRunAndMakeAscending(a, lo, hi, c);
+            binaryInsertionSort(a, lo, hi, lo + runLen, c);
+            return;
+        }
+
+        final RunStack<T> runs = new RunStack<>(a, c);
+        final int minRun = minRunLength(remaining);
+        do {
+            int runLen = countRunAndMakeAscending(a, lo, hi, c);
+
+            // extend short runs to minRun
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(a, lo, lo + force, lo + runLen, c);
+                runLen = force;
+            }
+
+            runs.push(lo, runLen);
+            runs.mergeCollapse();
+
+            lo += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+
+        runs.mergeForceCollapse();
+    }
+
+    /**
+     * Sort the array into ascending numerical order.
+     *
+     * @param a the array to sort
+     */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sort the array into ascending numerical order.
+     *
+     * @param a the array to sort
+     */
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sort the array into the ascending order given by
+     * {@link Double#compare(double, double)}.
+     *
+     * @param a the array to sort
+     */
+    public static void sort(double[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sort the range [lo, hi) of an int array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void sort(int[] a, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+
+        // already sorted or strictly reversed input
+        int runHi = lo + 1;
+        if (a[runHi] < a[lo]) {
+            while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+            if (runHi == hi) {
+                reverse(a, lo, hi);
+                return;
+            }
+        } else {
+            while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+            if (runHi == hi) {
+                return;
+            }
+        }
+
+        introSort(a, lo, hi, depthLimit(hi - lo));
+    }
+
+    /**
+     * Sort the range [lo, hi) of a long array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void sort(long[] a, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+
+        // already sorted or strictly reversed input
+        int runHi = lo + 1;
+        if (a[runHi] < a[lo]) {
+            while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+            if (runHi == hi) {
+                reverse(a, lo, hi);
+                return;
+            }
+        } else {
+            while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+            if (runHi == hi) {
+                return;
+            }
+        }
+
+        introSort(a, lo, hi, depthLimit(hi - lo));
+    }
+
+    /**
+     * Sort the range [lo, hi) of a double array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void sort(double[] a, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+
+        // already sorted or strictly reversed input
+        int runHi = lo + 1;
+        if (Double.compare(a[runHi], a[lo]) < 0) {
+            while (runHi < hi && Double.compare(a[runHi], a[runHi - 1]) < 0) runHi++;
+            if (runHi == hi) {
+                reverse(a, lo, hi);
+                return;
+            }
+        } else {
+            while (runHi < hi && Double.compare(a[runHi], a[runHi - 1]) >= 0) runHi++;
+            if (runHi == hi) {
+                return;
+            }
+        }
+
+        introSort(a, lo, hi, depthLimit(hi - lo));
+    }
+
+    /**
+     * Sort the range [lo, hi) of the key array, moving the
+     * paired permutation entries with their keys. Equal keys
+     * are ordered by their permutation entry, so sorting an
+     * identity permutation gives a stable sort of the keys.
+     *
+     * @param keys the keys to sort
+     * @param perm the permutation to carry along
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void sort(long[] keys, int[] perm, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+
+        introSort(keys, perm, lo, hi, depthLimit(hi - lo));
+    }
+
+    /**
+     * Allowed recursion depth before introsort falls back to
+     * heap sort.
+     *
+     * @param n the number of elements
+     * @return twice the floor of log2(n)
+     */
+    private static int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * The minimum run length for merging; chosen so that
+     * the number of runs is a power of two, or slightly
+     * less than one.
+     *
+     * @param n the number of elements
+     * @return the minimum run length
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Find the length of the run starting at lo, reversing
+     * it if it is strictly descending.
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param lo the first index of the run
+     * @param hi the last index (exclusive)
+     * @param c the comparator
+     * @return the run length
+     */
+    private static <T> int countRunAndMakeAscending(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+
+        if (c.compare(a[runHi++], a[lo]) < 0) {
+            // strictly descending, so reversing keeps the sort stable
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) < 0) runHi++;
+            reverse(a, lo, runHi);
+        } else {
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) >= 0) runHi++;
+        }
+
+        return runHi - lo;
+    }
+
+    /**
+     * Binary insertion sort on [lo, hi), where [lo, start)
+     * is already sorted.
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     * @param start the first element not yet sorted
+     * @param c the comparator
+     */
+    private static <T> void binaryInsertionSort(T[] a, int lo, int hi, int start, Comparator<? super T> c) {
+        if (start == lo) {
+            start++;
+        }
+
+        for (; start < hi; start++) {
+            T pivot = a[start];
+
+            // find the insertion point after any equal elements
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(pivot, a[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    /**
+     * The stack of pending runs waiting to be merged, and
+     * the scratch space used to merge them.
+     *
+     * @param <T> the type parameter
+     */
+    private static final class RunStack<T> {
+
+        private final T[] a;
+        private final Comparator<? super T> c;
+        private final int[] runBase = new int[MAX_RUNS];
+        private final int[] runLen = new int[MAX_RUNS];
+        private int stackSize;
+        private Object[] tmp = new Object[0];
+
+        RunStack(T[] a, Comparator<? super T> c) {
+            this.a = a;
+            this.c = c;
+        }
+
+        void push(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * Merge adjacent runs until the run lengths shrink
+         * faster than the Fibonacci numbers, which keeps the
+         * stack shallow and the merges balanced.
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1])
+                        || (n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merge all remaining runs.
+         */
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merge runs i and i + 1.
+         *
+         * @param i the index of the first run on the stack
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            final int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // elements of run1 no greater than the head of run2 are in place
+            int k = upperBound(a[base2], base1, base1 + len1);
+            len1 -= k - base1;
+            base1 = k;
+            if (len1 == 0) {
+                return;
+            }
+
+            // elements of run2 no smaller than the tail of run1 are in place
+            len2 = lowerBound(a[base1 + len1 - 1], base2, base2 + len2) - base2;
+            if (len2 == 0) {
+                return;
+            }
+
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            final Object[] t = ensureCapacity(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+
+            int i = 0;
+            int j = base2;
+            int dest = base1;
+            final int end2 = base2 + len2;
+            while (i < len1 && j < end2) {
+                if (c.compare(a[j], (T) t[i]) < 0) {
+                    a[dest++] = a[j++];
+                } else {
+                    a[dest++] = (T) t[i++];
+                }
+            }
+            System.arraycopy(t, i, a, dest, len1 - i);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            final Object[] t = ensureCapacity(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+
+            int i = base1 + len1 - 1;
+            int j = len2 - 1;
+            int dest = base2 + len2 - 1;
+            while (i >= base1 && j >= 0) {
+                if (c.compare((T) t[j], a[i]) < 0) {
+                    a[dest--] = a[i--];
+                } else {
+                    a[dest--] = (T) t[j--];
+                }
+            }
+            System.arraycopy(t, 0, a, dest - j, j + 1);
+        }
+
+        private Object[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Math.max(minCapacity, Math.min(tmp.length * 2, a.length >>> 1));
+                tmp = new Object[newSize];
+            }
+            return tmp;
+        }
+
+        /* first index in [lo, hi) whose element is greater than key */
+        private int upperBound(T key, int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (c.compare(key, a[mid]) < 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        /* first index in [lo, hi) whose element is not less than key */
+        private int lowerBound(T key, int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (c.compare(a[mid], key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    private static void introSort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+
+            final int pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            // recurse into the smaller side, loop on the larger
+            if (lt - lo < hi - gt) {
+                introSort(a, lo, lt, depth);
+                lo = gt + 1;
+            } else {
+                introSort(a, gt + 1, hi, depth);
+                hi = lt;
+            }
+        }
+
+        Sort.insertionSort(a, lo, hi);
+    }
+
+    private static void introSort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+
+            final long pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                long v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            // recurse into the smaller side, loop on the larger
+            if (lt - lo < hi - gt) {
+                introSort(a, lo, lt, depth);
+                lo = gt + 1;
+            } else {
+                introSort(a, gt + 1, hi, depth);
+                hi = lt;
+            }
+        }
+
+        Sort.insertionSort(a, lo, hi);
+    }
+
+    private static void introSort(double[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+
+            final double pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                double v = a[i];
+                int cmp = Double.compare(v, pivot);
+                if (cmp < 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (cmp > 0) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            // recurse into the smaller side, loop on the larger
+            if (lt - lo < hi - gt) {
+                introSort(a, lo, lt, depth);
+                lo = gt + 1;
+            } else {
+                introSort(a, gt + 1, hi, depth);
+                hi = lt;
+            }
+        }
+
+        Sort.insertionSort(a, lo, hi);
+    }
+
+    private static void introSort(long[] keys, int[] perm, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(keys, perm, lo, hi);
+                return;
+            }
+
+            // median of three by (key, perm) order
+            int a = lo;
+            int p = (lo + hi) >>> 1;
+            if (less(keys, perm, p, a)) {
+                a = p;
+                p = lo;
+            }
+            if (less(keys, perm, hi - 1, p)) {
+                p = less(keys, perm, hi - 1, a) ? a : hi - 1;
+            }
+            final long pivotKey = keys[p];
+            final int pivotPerm = perm[p];
+
+            // three way partition; keys are unique once paired with perm
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                long k = keys[i];
+                int q = perm[i];
+                if (k < pivotKey || (k == pivotKey && q < pivotPerm)) {
+                    keys[i] = keys[lt];
+                    perm[i++] = perm[lt];
+                    keys[lt] = k;
+                    perm[lt++] = q;
+                } else if (k > pivotKey || q > pivotPerm) {
+                    keys[i] = keys[gt];
+                    perm[i] = perm[gt];
+                    keys[gt] = k;
+                    perm[gt--] = q;
+                } else {
+                    i++;
+                }
+            }
+
+            // recurse into the smaller side, loop on the larger
+            if (lt - lo < hi - gt) {
+                introSort(keys, perm, lo, lt, depth);
+                lo = gt + 1;
+            } else {
+                introSort(keys, perm, gt + 1, hi, depth);
+                hi = lt;
+            }
+        }
+
+        insertionSort(keys, perm, lo, hi);
+    }
+
+    /* (key, perm) ordering of the elements at i and j */
+    private static boolean less(long[] keys, int[] perm, int i, int j) {
+        return keys[i] < keys[j] || (keys[i] == keys[j] && perm[i] < perm[j]);
+    }
+
+    /* insertion sort of (key, perm) pairs on [lo, hi) */
+    private static void insertionSort(long[] keys, int[] perm, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long key = keys[i];
+            int p = perm[i];
+            int j;
+            for (j = i - 1; j >= lo; j--) {
+                if (keys[j] < key || (keys[j] == key && perm[j] < p)) break;
+                keys[j + 1] = keys[j];
+                perm[j + 1] = perm[j];
+            }
+            keys[j + 1] = key;
+            perm[j + 1] = p;
+        }
+    }
+
+    private static void heapSort(int[] a, int lo, int hi) {
+        final int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int t = a[lo];
+            a[lo] = a[lo + end];
+            a[lo + end] = t;
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int lo, int i, int n) {
+        final int v = a[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && a[lo + child + 1] > a[lo + child]) {
+                child++;
+            }
+            if (a[lo + child] <= v) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void heapSort(long[] a, int lo, int hi) {
+        final int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            long t = a[lo];
+            a[lo] = a[lo + end];
+            a[lo + end] = t;
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int lo, int i, int n) {
+        final long v = a[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && a[lo + child + 1] > a[lo + child]) {
+                child++;
+            }
+            if (a[lo + child] <= v) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void heapSort(double[] a, int lo, int hi) {
+        final int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            double t = a[lo];
+            a[lo] = a[lo + end];
+            a[lo + end] = t;
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int lo, int i, int n) {
+        final double v = a[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && Double.compare(a[lo + child + 1], a[lo + child]) > 0) {
+                child++;
+            }
+            if (Double.compare(a[lo + child], v) <= 0) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void heapSort(long[] keys, int[] perm, int lo, int hi) {
+        final int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(keys, perm, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            long k = keys[lo];
+            keys[lo] = keys[lo + end];
+            keys[lo + end] = k;
+            int p = perm[lo];
+            perm[lo] = perm[lo + end];
+            perm[lo + end] = p;
+            siftDown(keys, perm, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] perm, int lo, int i, int n) {
+        final long k = keys[lo + i];
+        final int p = perm[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            int c = lo + child;
+            if (child + 1 < n && less(keys, perm, c, c + 1)) {
+                child++;
+                c++;
+            }
+            if (keys[c] < k || (keys[c] == k && perm[c] < p)) {
+                break;
+            }
+            keys[lo + i] = keys[c];
+            perm[lo + i] = perm[c];
+            i = child;
+        }
+        keys[lo + i] = k;
+        perm[lo + i] = p;
+    }
+
+    private static int median(int a, int b, int c) {
+        if (a < b) {
+            return (b < c) ? b : Math.max(a, c);
+        }
+        return (a < c) ? a : Math.max(b, c);
+    }
+
+    private static long median(long a, long b, long c) {
+        if (a < b) {
+            return (b < c) ? b : Math.max(a, c);
+        }
+        return (a < c) ? a : Math.max(b, c);
+    }
+
+    private static double median(double a, double b, double c) {
+        if (Double.compare(a, b) < 0) {
+            if (Double.compare(b, c) < 0) return b;
+            return Double.compare(a, c) < 0 ? c : a;
+        }
+        if (Double.compare(a, c) < 0) return a;
+        return Double.compare(b, c) < 0 ? c : b;
+    }
+
+    private static <T> void reverse(T[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            T t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static void reverse(int[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            int t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static void reverse(long[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            long t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static void reverse(double[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            double t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A parallel fork-join merge sort.
+ *
+ * The array is split in half recursively until a
+ * partition is no larger than the sequential cutoff.
+ * Partitions are sorted sequentially with the hybrid
+ * sort (which finishes small ranges with insertion
+ * sort) and then merged back together in parallel,
+ * each merge being split around the median of the
+ * larger run. Sorted halves alternate between the
+ * array and a single workspace, so there is no
+ * copying between levels.
+ *
+ * The sort of object arrays is stable.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Merge_sort#Parallel_merge_sort">https://en.wikipedia.org/wiki/Merge_sort#Parallel_merge_sort</a>
+ *
+ * @author kirsty
+ */
+public class ParallelSort {
+
+    /* default partition size below which sorting is sequential */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 8192;
+
+    /* the pool tasks are run in */
+    private final ForkJoinPool pool;
+    /* partition size below which sorting is sequential */
+    private final int sequentialCutoff;
+
+    /**
+     * Instantiates a parallel sort that uses the common pool
+     * and the default sequential cutoff.
+     */
+    public ParallelSort() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Instantiates a parallel sort with its own pool of
+     * the specified parallelism.
+     *
+     * @param parallelism the number of worker threads.
+     * @param sequentialCutoff the partition size below which sorting is sequential.
+     */
+    public ParallelSort(int parallelism, int sequentialCutoff) {
+        this(new ForkJoinPool(parallelism), sequentialCutoff);
+    }
+
+    /**
+     * Instantiates a parallel sort that runs in the
+     * specified pool.
+     *
+     * @param pool the pool to run in.
+     * @param sequentialCutoff the partition size below which sorting is sequential.
+     */
+    public ParallelSort(ForkJoinPool pool, int sequentialCutoff) {
+        if (sequentialCutoff < 1) {
+            throw new IllegalArgumentException("sequential cutoff must be positive");
+        }
+
+        this.pool = pool;
+        this.sequentialCutoff = sequentialCutoff;
+    }
+
+    /**
+     * Sort the array into ascending natural order.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     */
+    public <T extends Comparable<? super T>> void sort(T[] a) {
+        sort(a, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Sort the array into the order given by the comparator.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param c the comparator
+     */
+    public <T> void sort(T[] a, Comparator<? super T> c) {
+        if (a.length <= sequentialCutoff) {
+            HybridSort.sort(a, 0, a.length, c);
+            return;
+        }
+
+        pool.invoke(new ObjectSorter<>(a, a.clone(), 0, a.length, false, c));
+    }
+
+    /**
+     * Sort the array into ascending numerical order.
+     *
+     * @param a the array to sort
+     */
+    public void sort(int[] a) {
+        if (a.length <= sequentialCutoff) {
+            HybridSort.sort(a, 0, a.length);
+            return;
+        }
+
+        pool.invoke(new IntSorter(a, new int[a.length], 0, a.length, false));
+    }
+
+    /**
+     * Sort the array into the ascending order given by
+     * {@link Double#compare(double, double)}.
+     *
+     * @param a the array to sort
+     */
+    public void sort(double[] a) {
+        if (a.length <= sequentialCutoff) {
+            HybridSort.sort(a, 0, a.length);
+            return;
+        }
+
+        pool.invoke(new DoubleSorter(a, new double[a.length], 0, a.length, false));
+    }
+
+    /**
+     * Get the parallelism of the pool.
+     *
+     * @return the number of worker threads.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Get the sequential cutoff.
+     *
+     * @return the partition size below which sorting is sequential.
+     */
+    public int getSequentialCutoff() {
+        return sequentialCutoff;
+    }
+
+    /**
+     * Shut down the pool. Has no effect on the common pool.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Sorts a[lo, hi), leaving the result in w if intoWorkspace
+     * is set and in a otherwise.
+     */
+    private final class ObjectSorter<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] a;
+        private final T[] w;
+        private final int lo;
+        private final int hi;
+        private final boolean intoWorkspace;
+        private final Comparator<? super T> c;
+
+        ObjectSorter(T[] a, T[] w, int lo, int hi, boolean intoWorkspace, Comparator<? super T> c) {
+            this.a = a;
+            this.w = w;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoWorkspace = intoWorkspace;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= sequentialCutoff) {
+                HybridSort.sort(a, lo, hi, c);
+                if (intoWorkspace) {
+                    System.arraycopy(a, lo, w, lo, hi - lo);
+                }
+                return;
+            }
+
+            // sort each half into the other buffer, then merge back
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new ObjectSorter<>(a, w, lo, mid, !intoWorkspace, c),
+                    new ObjectSorter<>(a, w, mid, hi, !intoWorkspace, c));
+
+            if (intoWorkspace) {
+                new ObjectMerger<>(a, lo, mid, mid, hi, w, lo, c).compute();
+            } else {
+                new ObjectMerger<>(w, lo, mid, mid, hi, a, lo, c).compute();
+            }
+        }
+    }
+
+    /**
+     * Stably merges src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at dst[d].
+     */
+    private final class ObjectMerger<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final T[] dst;
+        private final int d;
+        private final Comparator<? super T> c;
+
+        ObjectMerger(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dst, int d, Comparator<? super T> c) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.d = d;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            final int n1 = hi1 - lo1;
+            final int n2 = hi2 - lo2;
+
+            if (n1 + n2 <= Math.max(sequentialCutoff, 2)) {
+                int i = lo1;
+                int j = lo2;
+                int k = d;
+                while (i < hi1 && j < hi2) {
+                    dst[k++] = (c.compare(src[j], src[i]) < 0) ? src[j++] : src[i++];
+                }
+                System.arraycopy(src, i, dst, k, hi1 - i);
+                System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+                return;
+            }
+
+            // split the larger run at its middle and the other run
+            // around that element, keeping equal elements in order.
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                final T x = src[m1];
+                int lo = lo2;
+                int hi = hi2;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (c.compare(src[mid], x) < 0) lo = mid + 1; else hi = mid;
+                }
+                m2 = lo;
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                final T y = src[m2];
+                int lo = lo1;
+                int hi = hi1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (c.compare(y, src[mid]) < 0) hi = mid; else lo = mid + 1;
+                }
+                m1 = lo;
+            }
+
+            invokeAll(new ObjectMerger<>(src, lo1, m1, lo2, m2, dst, d, c),
+                    new ObjectMerger<>(src, m1, hi1, m2, hi2, dst, d + (m1 - lo1) + (m2 - lo2), c));
+        }
+    }
+
+    /**
+     * Sorts a[lo, hi), leaving the result in w if intoWorkspace
+     * is set and in a otherwise.
+     */
+    private final class IntSorter extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] w;
+        private final int lo;
+        private final int hi;
+        private final boolean intoWorkspace;
+
+        IntSorter(int[] a, int[] w, int lo, int hi, boolean intoWorkspace) {
+            this.a = a;
+            this.w = w;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoWorkspace = intoWorkspace;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= sequentialCutoff) {
+                HybridSort.sort(a, lo, hi);
+                if (intoWorkspace) {
+                    System.arraycopy(a, lo, w, lo, hi - lo);
+                }
+                return;
+            }
+
+            // sort each half into the other buffer, then merge back
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new IntSorter(a, w, lo, mid, !intoWorkspace),
+                    new IntSorter(a, w, mid, hi, !intoWorkspace));
+
+            if (intoWorkspace) {
+                new IntMerger(a, lo, mid, mid, hi, w, lo).compute();
+            } else {
+                new IntMerger(w, lo, mid, mid, hi, a, lo).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at dst[d].
+     */
+    private final class IntMerger extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dst;
+        private final int d;
+
+        IntMerger(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int d) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            final int n1 = hi1 - lo1;
+            final int n2 = hi2 - lo2;
+
+            if (n1 + n2 <= Math.max(sequentialCutoff, 2)) {
+                int i = lo1;
+                int j = lo2;
+                int k = d;
+                while (i < hi1 && j < hi2) {
+                    dst[k++] = (src[j] < src[i]) ? src[j++] : src[i++];
+                }
+                System.arraycopy(src, i, dst, k, hi1 - i);
+                System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+                return;
+            }
+
+            // split the larger run at its middle and the other run around it
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                final int x = src[m1];
+                int lo = lo2;
+                int hi = hi2;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (src[mid] < x) lo = mid + 1; else hi = mid;
+                }
+                m2 = lo;
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                final int y = src[m2];
+                int lo = lo1;
+                int hi = hi1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (y < src[mid]) hi = mid; else lo = mid + 1;
+                }
+                m1 = lo;
+            }
+
+            invokeAll(new IntMerger(src, lo1, m1, lo2, m2, dst, d),
+                    new IntMerger(src, m1, hi1, m2, hi2, dst, d + (m1 - lo1) + (m2 - lo2)));
+        }
+    }
+
+    /**
+     * Sorts a[lo, hi), leaving the result in w if intoWorkspace
+     * is set and in a otherwise.
+     */
+    private final class DoubleSorter extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] a;
+        private final double[] w;
+        private final int lo;
+        private final int hi;
+        private final boolean intoWorkspace;
+
+        DoubleSorter(double[] a, double[] w, int lo, int hi, boolean intoWorkspace) {
+            this.a = a;
+            this.w = w;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoWorkspace = intoWorkspace;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= sequentialCutoff) {
+                HybridSort.sort(a, lo, hi);
+                if (intoWorkspace) {
+                    System.arraycopy(a, lo, w, lo, hi - lo);
+                }
+                return;
+            }
+
+            // sort each half into the other buffer, then merge back
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new DoubleSorter(a, w, lo, mid, !intoWorkspace),
+                    new DoubleSorter(a, w, mid, hi, !intoWorkspace));
+
+            if (intoWorkspace) {
+                new DoubleMerger(a, lo, mid, mid, hi, w, lo).compute();
+            } else {
+                new DoubleMerger(w, lo, mid, mid, hi, a, lo).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at dst[d].
+     */
+    private final class DoubleMerger extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final double[] dst;
+        private final int d;
+
+        DoubleMerger(double[] src, int lo1, int hi1, int lo2, int hi2, double[] dst, int d) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            final int n1 = hi1 - lo1;
+            final int n2 = hi2 - lo2;
+
+            if (n1 + n2 <= Math.max(sequentialCutoff, 2)) {
+                int i = lo1;
+                int j = lo2;
+                int k = d;
+                while (i < hi1 && j < hi2) {
+                    dst[k++] = (Double.compare(src[j], src[i]) < 0) ? src[j++] : src[i++];
+                }
+                System.arraycopy(src, i, dst, k, hi1 - i);
+                System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+                return;
+            }
+
+            // split the larger run at its middle and the other run around it
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                final double x = src[m1];
+                int lo = lo2;
+                int hi = hi2;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (Double.compare(src[mid], x) < 0) lo = mid + 1; else hi = mid;
+                }
+                m2 = lo;
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                final double y = src[m2];
+                int lo = lo1;
+                int hi = hi1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (Double.compare(y, src[mid]) < 0) hi = mid; else lo = mid + 1;
+                }
+                m1 = lo;
+            }
+
+            invokeAll(new DoubleMerger(src, lo1, m1, lo2, m2, dst, d),
+                    new DoubleMerger(src, m1, hi1, m2, hi2, dst, d + (m1 - lo1) + (m2 - lo2)));
+        }
+    }
+}
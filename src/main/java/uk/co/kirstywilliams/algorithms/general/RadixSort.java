@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.util.Arrays;
+
+/**
+ * Radix sorts for integer keys and strings.
+ *
+ * Integer keys are sorted with a least significant
+ * digit (LSD) radix sort, one byte per pass. The
+ * counts for every pass are gathered in a single
+ * read of the input, and passes in which all keys
+ * share the same byte are skipped. An instance keeps
+ * its scratch buffers, so repeated sorts of similar
+ * sized arrays do not allocate.
+ *
+ * Strings are sorted with multikey (three way radix)
+ * quicksort, which partitions on one character at a
+ * time and never re-compares a common prefix.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Radix_sort">https://en.wikipedia.org/wiki/Radix_sort</a>
+ * @See <a href="https://en.wikipedia.org/wiki/Multi-key_quicksort">https://en.wikipedia.org/wiki/Multi-key_quicksort</a>
+ *
+ * @author kirsty
+ */
+public class RadixSort {
+
+    /* number of buckets per pass */
+    private static final int RADIX = 256;
+    /* arrays shorter than this are insertion sorted */
+    private static final int INSERTION_THRESHOLD = 64;
+    /* string ranges shorter than this are insertion sorted */
+    private static final int STRING_INSERTION_THRESHOLD = 16;
+
+    /* reusable scratch buffers */
+    private int[] intBuffer = new int[0];
+    private long[] longBuffer = new long[0];
+    private final int[] intCounts = new int[4 * RADIX];
+    private final int[] longCounts = new int[8 * RADIX];
+
+    /**
+     * Sort the array into ascending numerical order.
+     *
+     * @param a the array to sort
+     */
+    public void sort(int[] a) {
+        final int n = a.length;
+        if (n < INSERTION_THRESHOLD) {
+            Sort.insertionSort(a, 0, n);
+            return;
+        }
+
+        if (intBuffer.length < n) {
+            intBuffer = new int[n];
+        }
+
+        // histogram all four bytes in one pass; flipping the
+        // sign bit makes the top byte order signed values.
+        final int[] counts = intCounts;
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            int v = a[i] ^ Integer.MIN_VALUE;
+            counts[v & 0xFF]++;
+            counts[RADIX + ((v >>> 8) & 0xFF)]++;
+            counts[2 * RADIX + ((v >>> 16) & 0xFF)]++;
+            counts[3 * RADIX + (v >>> 24)]++;
+        }
+
+        int[] src = a;
+        int[] dst = intBuffer;
+        for (int pass = 0; pass < 4; pass++) {
+            final int base = pass * RADIX;
+            if (!toOffsets(counts, base, n)) {
+                continue;
+            }
+
+            final int shift = pass * 8;
+            for (int i = 0; i < n; i++) {
+                int v = src[i];
+                dst[counts[base + (((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF)]++] = v;
+            }
+
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, n);
+        }
+    }
+
+    /**
+     * Sort the array into ascending numerical order.
+     *
+     * @param a the array to sort
+     */
+    public void sort(long[] a) {
+        final int n = a.length;
+        if (n < INSERTION_THRESHOLD) {
+            Sort.insertionSort(a, 0, n);
+            return;
+        }
+
+        if (longBuffer.length < n) {
+            longBuffer = new long[n];
+        }
+
+        // histogram all eight bytes in one pass; flipping the
+        // sign bit makes the top byte order signed values.
+        final int[] counts = longCounts;
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            long v = a[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < 8; pass++) {
+                counts[pass * RADIX + (int) ((v >>> (pass * 8)) & 0xFF)]++;
+            }
+        }
+
+        long[] src = a;
+        long[] dst = longBuffer;
+        for (int pass = 0; pass < 8; pass++) {
+            final int base = pass * RADIX;
+            if (!toOffsets(counts, base, n)) {
+                continue;
+            }
+
+            final int shift = pass * 8;
+            for (int i = 0; i < n; i++) {
+                long v = src[i];
+                dst[counts[base + (int) (((v ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++] = v;
+            }
+
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, n);
+        }
+    }
+
+    /**
+     * Turn the counts for one pass into starting offsets.
+     *
+     * @param counts the counts for every pass
+     * @param base the first count of this pass
+     * @param n the number of keys
+     * @return false if every key has the same digit, so the pass can be skipped
+     */
+    private static boolean toOffsets(int[] counts, int base, int n) {
+        int offset = 0;
+        for (int d = base; d < base + RADIX; d++) {
+            int c = counts[d];
+            if (c == n) {
+                return false;
+            }
+            counts[d] = offset;
+            offset += c;
+        }
+        return true;
+    }
+
+    /**
+     * Sort the array of strings into ascending order,
+     * as given by {@link String#compareTo(String)}.
+     *
+     * @param a the array to sort
+     */
+    public static void sort(String[] a) {
+        sort(a, 0, a.length, 0);
+    }
+
+    /**
+     * Multikey quicksort of a[lo, hi), all of which share
+     * their first d characters.
+     */
+    private static void sort(String[] a, int lo, int hi, int d) {
+        while (hi - lo > STRING_INSERTION_THRESHOLD) {
+            final int pivot = charAt(a[(lo + hi) >>> 1], d);
+
+            // three way partition on the character at d
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int c = charAt(a[i], d);
+                if (c < pivot) {
+                    swap(a, lt++, i++);
+                } else if (c > pivot) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            sort(a, lo, lt, d);
+            sort(a, gt + 1, hi, d);
+
+            // the middle shares one more character, unless they all ended
+            if (pivot < 0) {
+                return;
+            }
+            lo = lt;
+            hi = gt + 1;
+            d++;
+        }
+
+        insertionSort(a, lo, hi, d);
+    }
+
+    /**
+     * Insertion sort of a[lo, hi), all of which share
+     * their first d characters.
+     */
+    private static void insertionSort(String[] a, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            String element = a[i];
+            int j;
+            for (j = i - 1; j >= lo; j--) {
+                if (compareFrom(a[j], element, d) <= 0) break;
+                a[j + 1] = a[j];
+            }
+            a[j + 1] = element;
+        }
+    }
+
+    /* compare two strings that share their first d characters */
+    private static int compareFrom(String s, String t, int d) {
+        final int n = Math.min(s.length(), t.length());
+        for (int i = d; i < n; i++) {
+            int diff = s.charAt(i) - t.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return s.length() - t.length();
+    }
+
+    /* the character at d, or -1 past the end of the string */
+    private static int charAt(String s, int d) {
+        return (d < s.length()) ? s.charAt(d) : -1;
+    }
+
+    private static void swap(String[] a, int i, int j) {
+        String t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+package uk.co.kirstywilliams.algorithms.general;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Selection of the k smallest elements without
+ * sorting the whole array.
+ *
+ * Introselect (quickselect with a three way
+ * partition, which switches to median of medians
+ * pivots if partitioning goes badly) rearranges an
+ * array in place so that the k-th smallest element
+ * is at index k, in O(n) time even in the worst
+ * case. A bounded max-heap finds the k smallest
+ * elements of an array without modifying it, in
+ * O(n log k) time and O(k) space.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Introselect">https://en.wikipedia.org/wiki/Introselect</a>
+ * @See <a href="https://en.wikipedia.org/wiki/Partial_sorting">https://en.wikipedia.org/wiki/Partial_sorting</a>
+ *
+ * @author kirsty
+ */
+public class Selection {
+
+    /* ranges no larger than this are finished by insertion sort */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Rearrange the array so that a[k] holds the element that
+     * would be there if the array were sorted, with no larger
+     * element before it and no smaller element after it.
+     *
+     * @param a the array
+     * @param k the index to select, from 0
+     * @return the k-th smallest element
+     */
+    public static int select(int[] a, int k) {
+        checkIndex(k, a.length);
+        return select(a, 0, a.length, k);
+    }
+
+    private static int select(int[] a, int lo, int hi, int k) {
+        int depth = depthLimit(hi - lo);
+        while (hi - lo > INSERTION_THRESHOLD) {
+            final int pivot = (depth-- > 0)
+                    ? median(a[lo], a[(lo + hi) >>> 1], a[hi - 1])
+                    : medianOfMedians(a, lo, hi);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                hi = lt;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return a[k];
+            }
+        }
+
+        Sort.insertionSort(a, lo, hi);
+        return a[k];
+    }
+
+    /**
+     * Rearrange the array so that a[k] holds the element that
+     * would be there if the array were sorted into the order of
+     * {@link Double#compare(double, double)}.
+     *
+     * @param a the array
+     * @param k the index to select, from 0
+     * @return the k-th smallest element
+     */
+    public static double select(double[] a, int k) {
+        checkIndex(k, a.length);
+        return select(a, 0, a.length, k);
+    }
+
+    private static double select(double[] a, int lo, int hi, int k) {
+        int depth = depthLimit(hi - lo);
+        while (hi - lo > INSERTION_THRESHOLD) {
+            final double pivot = (depth-- > 0)
+                    ? median(a[lo], a[(lo + hi) >>> 1], a[hi - 1])
+                    : medianOfMedians(a, lo, hi);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                double v = a[i];
+                int cmp = Double.compare(v, pivot);
+                if (cmp < 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (cmp > 0) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                hi = lt;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return a[k];
+            }
+        }
+
+        Sort.insertionSort(a, lo, hi);
+        return a[k];
+    }
+
+    /**
+     * Rearrange the array so that a[k] holds the element that
+     * would be there if the array were sorted into the order of
+     * the comparator.
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the index to select, from 0
+     * @param c the comparator
+     * @return the k-th smallest element
+     */
+    public static <T> T select(T[] a, int k, Comparator<? super T> c) {
+        checkIndex(k, a.length);
+        return select(a, 0, a.length, k, c);
+    }
+
+    private static <T> T select(T[] a, int lo, int hi, int k, Comparator<? super T> c) {
+        int depth = depthLimit(hi - lo);
+        while (hi - lo > INSERTION_THRESHOLD) {
+            final T pivot = (depth-- > 0)
+                    ? median(a[lo], a[(lo + hi) >>> 1], a[hi - 1], c)
+                    : medianOfMedians(a, lo, hi, c);
+
+            // three way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                T v = a[i];
+                int cmp = c.compare(v, pivot);
+                if (cmp < 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (cmp > 0) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                hi = lt;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return a[k];
+            }
+        }
+
+        HybridSort.sort(a, lo, hi, c);
+        return a[k];
+    }
+
+    /**
+     * Rearrange the array so that its first k elements are
+     * the k smallest, in ascending order. The order of the
+     * remaining elements is unspecified.
+     *
+     * @param a the array
+     * @param k the number of elements to sort
+     */
+    public static void partialSort(int[] a, int k) {
+        if (k <= 0) {
+            return;
+        }
+        if (k < a.length) {
+            select(a, k - 1);
+        }
+        HybridSort.sort(a, 0, Math.min(k, a.length));
+    }
+
+    /**
+     * Rearrange the array so that its first k elements are
+     * the k smallest, in ascending order. The order of the
+     * remaining elements is unspecified.
+     *
+     * @param a the array
+     * @param k the number of elements to sort
+     */
+    public static void partialSort(double[] a, int k) {
+        if (k <= 0) {
+            return;
+        }
+        if (k < a.length) {
+            select(a, k - 1);
+        }
+        HybridSort.sort(a, 0, Math.min(k, a.length));
+    }
+
+    /**
+     * Rearrange the array so that its first k elements are
+     * the k smallest, in the order of the comparator. The
+     * order of the remaining elements is unspecified.
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the number of elements to sort
+     * @param c the comparator
+     */
+    public static <T> void partialSort(T[] a, int k, Comparator<? super T> c) {
+        if (k <= 0) {
+            return;
+        }
+        if (k < a.length) {
+            select(a, k - 1, c);
+        }
+        HybridSort.sort(a, 0, Math.min(k, a.length), c);
+    }
+
+    /**
+     * Find the k smallest elements of the array, leaving
+     * the array unchanged.
+     *
+     * @param a the array
+     * @param k the number of elements to find
+     * @return the k smallest elements in ascending order
+     */
+    public static int[] smallest(int[] a, int k) {
+        k = Math.max(0, Math.min(k, a.length));
+
+        // max-heap of the k smallest seen so far
+        final int[] heap = Arrays.copyOf(a, k);
+        for (int i = (k >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < a.length; i++) {
+            if (k > 0 && a[i] < heap[0]) {
+                heap[0] = a[i];
+                siftDown(heap, 0, k);
+            }
+        }
+
+        // heap sort the survivors into ascending order
+        for (int end = k - 1; end > 0; end--) {
+            int t = heap[0];
+            heap[0] = heap[end];
+            heap[end] = t;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    /**
+     * Find the k smallest elements of the array, in the
+     * order of {@link Double#compare(double, double)},
+     * leaving the array unchanged.
+     *
+     * @param a the array
+     * @param k the number of elements to find
+     * @return the k smallest elements in ascending order
+     */
+    public static double[] smallest(double[] a, int k) {
+        k = Math.max(0, Math.min(k, a.length));
+
+        // max-heap of the k smallest seen so far
+        final double[] heap = Arrays.copyOf(a, k);
+        for (int i = (k >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < a.length; i++) {
+            if (k > 0 && Double.compare(a[i], heap[0]) < 0) {
+                heap[0] = a[i];
+                siftDown(heap, 0, k);
+            }
+        }
+
+        // heap sort the survivors into ascending order
+        for (int end = k - 1; end > 0; end--) {
+            double t = heap[0];
+            heap[0] = heap[end];
+            heap[end] = t;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    /**
+     * Find the k smallest elements of the array, in the
+     * order of the comparator, leaving the array unchanged.
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the number of elements to find
+     * @param c the comparator
+     * @return the k smallest elements in ascending order
+     */
+    public static <T> T[] smallest(T[] a, int k, Comparator<? super T> c) {
+        k = Math.max(0, Math.min(k, a.length));
+
+        // max-heap of the k smallest seen so far
+        final T[] heap = Arrays.copyOf(a, k);
+        for (int i = (k >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, k, c);
+        }
+        for (int i = k; i < a.length; i++) {
+            if (k > 0 && c.compare(a[i], heap[0]) < 0) {
+                heap[0] = a[i];
+                siftDown(heap, 0, k, c);
+            }
+        }
+
+        // heap sort the survivors into ascending order
+        for (int end = k - 1; end > 0; end--) {
+            T t = heap[0];
+            heap[0] = heap[end];
+            heap[end] = t;
+            siftDown(heap, 0, end, c);
+        }
+        return heap;
+    }
+
+    private static void checkIndex(int k, int length) {
+        if (k < 0 || k >= length) {
+            throw new IndexOutOfBoundsException("k = " + k + ", length = " + length);
+        }
+    }
+
+    private static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(n));
+    }
+
+    private static void siftDown(int[] heap, int i, int n) {
+        final int v = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= v) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+
+    private static void siftDown(double[] heap, int i, int n) {
+        final double v = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && Double.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (Double.compare(heap[child], v) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+
+    private static <T> void siftDown(T[] heap, int i, int n, Comparator<? super T> c) {
+        final T v = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && c.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (c.compare(heap[child], v) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+
+    /**
+     * Find a pivot that leaves at least 3/10 of the range
+     * on either side: sort groups of five, move their
+     * medians to the front of the range, and select the
+     * median of those.
+     */
+    static int medianOfMedians(int[] a, int lo, int hi) {
+        int end = lo;
+        for (int i = lo; i < hi; i += 5) {
+            final int groupEnd = Math.min(i + 5, hi);
+            Sort.insertionSort(a, i, groupEnd);
+            final int m = (i + groupEnd - 1) >>> 1;
+            final int t = a[end];
+            a[end++] = a[m];
+            a[m] = t;
+        }
+        return select(a, lo, end, (lo + end - 1) >>> 1);
+    }
+
+    private static double medianOfMedians(double[] a, int lo, int hi) {
+        int end = lo;
+        for (int i = lo; i < hi; i += 5) {
+            final int groupEnd = Math.min(i + 5, hi);
+            Sort.insertionSort(a, i, groupEnd);
+            final int m = (i + groupEnd - 1) >>> 1;
+            final double t = a[end];
+            a[end++] = a[m];
+            a[m] = t;
+        }
+        return select(a, lo, end, (lo + end - 1) >>> 1);
+    }
+
+    private static <T> T medianOfMedians(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int end = lo;
+        for (int i = lo; i < hi; i += 5) {
+            final int groupEnd = Math.min(i + 5, hi);
+            HybridSort.sort(a, i, groupEnd, c);
+            final int m = (i + groupEnd - 1) >>> 1;
+            final T t = a[end];
+            a[end++] = a[m];
+            a[m] = t;
+        }
+        return select(a, lo, end, (lo + end - 1) >>> 1, c);
+    }
+
+    private static int median(int a, int b, int c) {
+        if (a < b) {
+            return (b < c) ? b : Math.max(a, c);
+        }
+        return (a < c) ? a : Math.max(b, c);
+    }
+
+    private static double median(double a, double b, double c) {
+        if (Double.compare(a, b) < 0) {
+            if (Double.compare(b, c) < 0) return b;
+            return Double.compare(a, c) < 0 ? c : a;
+        }
+        if (Double.compare(a, c) < 0) return a;
+        return Double.compare(b, c) < 0 ? c : b;
+    }
+
+    private static <T> T median(T a, T b, T c, Comparator<? super T> cmp) {
+        if (cmp.compare(a, b) < 0) {
+            if (cmp.compare(b, c) < 0) return b;
+            return cmp.compare(a, c) < 0 ? c : a;
+        }
+        if (cmp.compare(a, c) < 0) return a;
+        return cmp.compare(b, c) < 0 ? c : b;
+    }
+}
@@ -3,15 +3,30 @@
  */
 package uk.co.kirstywilliams.algorithms.general;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
 /**
  * A collection of static sort
  * algorithms.
  *
  * Algorithms covered:
  * - Insertion sort
+ * - Insertion sort on primitive arrays
+ * - Hybrid sort (run adaptive merge sort / introsort)
+ * - Parallel merge sort
+ * - Radix sort (LSD for integers, multikey quicksort for strings)
+ * - External merge sort of fixed width records in a file
+ * - Selection and partial sort of the k smallest elements
+ * - Sort by extracted primitive key
  */
 public class Sort {
 
+    /* parallel sort on the common pool with the default cutoff */
+    private static final ParallelSort PARALLEL_SORT = new ParallelSort();
 
     /**
      * Insertion sort.
@@ -35,4 +50,461 @@ public class Sort {
             a[j + 1] = element;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Insertion sort on a primitive int array.
+     * Sorts in place without boxing.
+     *
+     * @param a the array to sort
+     */
+    public static void insertionSort(int[] a) {
+        insertionSort(a, 0, a.length);
+    }
+
+    /**
+     * Insertion sort on a primitive long array.
+     * Sorts in place without boxing.
+     *
+     * @param a the array to sort
+     */
+    public static void insertionSort(long[] a) {
+        insertionSort(a, 0, a.length);
+    }
+
+    /**
+     * Insertion sort on a primitive double array.
+     * Sorts in place without boxing, using the
+     * ordering of {@link Double#compare(double, double)}
+     * (-0.0 before 0.0, NaN last).
+     *
+     * @param a the array to sort
+     */
+    public static void insertionSort(double[] a) {
+        insertionSort(a, 0, a.length);
+    }
+
+    /**
+     * Hybrid sort.
+     * Detects runs that are already in order, extends
+     * short runs with binary insertion sort and merges
+     * them, so sorted input takes linear time and any
+     * input takes O(n log n). The sort is stable.
+     *
+     * @See HybridSort
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     */
+    public static <T extends Comparable<? super T>> void sort(T[] a) {
+        HybridSort.sort(a);
+    }
+
+    /**
+     * Hybrid sort using the specified comparator.
+     * The sort is stable.
+     *
+     * @See HybridSort
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param c the comparator
+     */
+    public static <T> void sort(T[] a, Comparator<? super T> c) {
+        HybridSort.sort(a, c);
+    }
+
+    /**
+     * Hybrid sort on a primitive int array.
+     * Introsort with an insertion sort leaf; sorts
+     * in place without allocating.
+     *
+     * @See HybridSort
+     *
+     * @param a the array to sort
+     */
+    public static void sort(int[] a) {
+        HybridSort.sort(a);
+    }
+
+    /**
+     * Hybrid sort on a primitive long array.
+     * Introsort with an insertion sort leaf; sorts
+     * in place without allocating.
+     *
+     * @See HybridSort
+     *
+     * @param a the array to sort
+     */
+    public static void sort(long[] a) {
+        HybridSort.sort(a);
+    }
+
+    /**
+     * Hybrid sort on a primitive double array, using
+     * the ordering of {@link Double#compare(double, double)}.
+     * Introsort with an insertion sort leaf; sorts
+     * in place without allocating.
+     *
+     * @See HybridSort
+     *
+     * @param a the array to sort
+     */
+    public static void sort(double[] a) {
+        HybridSort.sort(a);
+    }
+
+    /**
+     * Parallel sort.
+     * Sorts partitions of the array concurrently on the
+     * common fork-join pool and merges them in parallel.
+     * The sort is stable. Use {@link ParallelSort} directly
+     * to choose the parallelism and sequential cutoff.
+     *
+     * @See ParallelSort
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     */
+    public static <T extends Comparable<? super T>> void parallelSort(T[] a) {
+        PARALLEL_SORT.sort(a);
+    }
+
+    /**
+     * Parallel sort using the specified comparator.
+     * The sort is stable.
+     *
+     * @See ParallelSort
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param c the comparator
+     */
+    public static <T> void parallelSort(T[] a, Comparator<? super T> c) {
+        PARALLEL_SORT.sort(a, c);
+    }
+
+    /**
+     * Parallel sort on a primitive int array.
+     *
+     * @See ParallelSort
+     *
+     * @param a the array to sort
+     */
+    public static void parallelSort(int[] a) {
+        PARALLEL_SORT.sort(a);
+    }
+
+    /**
+     * Parallel sort on a primitive double array, using
+     * the ordering of {@link Double#compare(double, double)}.
+     *
+     * @See ParallelSort
+     *
+     * @param a the array to sort
+     */
+    public static void parallelSort(double[] a) {
+        PARALLEL_SORT.sort(a);
+    }
+
+    /**
+     * LSD radix sort on a primitive int array.
+     * Use a {@link RadixSort} instance directly to
+     * reuse its scratch buffer between sorts.
+     *
+     * @See RadixSort
+     *
+     * @param a the array to sort
+     */
+    public static void radixSort(int[] a) {
+        new RadixSort().sort(a);
+    }
+
+    /**
+     * LSD radix sort on a primitive long array.
+     * Use a {@link RadixSort} instance directly to
+     * reuse its scratch buffer between sorts.
+     *
+     * @See RadixSort
+     *
+     * @param a the array to sort
+     */
+    public static void radixSort(long[] a) {
+        new RadixSort().sort(a);
+    }
+
+    /**
+     * Multikey quicksort on a String array.
+     *
+     * @See RadixSort
+     *
+     * @param a the array to sort
+     */
+    public static void radixSort(String[] a) {
+        RadixSort.sort(a);
+    }
+
+    /**
+     * External merge sort.
+     * Sorts a file of fixed width records, each holding a
+     * big-endian long key at the specified offset, by
+     * sorting chunks in memory and merging the sorted runs.
+     *
+     * @See ExternalSort
+     *
+     * @param input the file to sort
+     * @param output the file to write the sorted records to
+     * @param recordSize the width of each record in bytes
+     * @param keyOffset the offset of the key within each record
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void externalSort(Path input, Path output, int recordSize, int keyOffset) throws IOException {
+        new ExternalSort(recordSize, keyOffset).sort(input, output);
+    }
+
+    /**
+     * Introselect.
+     * Rearranges the array so that a[k] holds the k-th
+     * smallest element, with no larger element before it
+     * and no smaller element after it, in O(n) time.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the index to select, from 0
+     * @return the k-th smallest element
+     */
+    public static int select(int[] a, int k) {
+        return Selection.select(a, k);
+    }
+
+    /**
+     * Introselect on a primitive double array, using the
+     * ordering of {@link Double#compare(double, double)}.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the index to select, from 0
+     * @return the k-th smallest element
+     */
+    public static double select(double[] a, int k) {
+        return Selection.select(a, k);
+    }
+
+    /**
+     * Introselect on an object array.
+     *
+     * @See Selection
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the index to select, from 0
+     * @return the k-th smallest element
+     */
+    public static <T extends Comparable<? super T>> T select(T[] a, int k) {
+        return Selection.select(a, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Partial sort.
+     * Rearranges the array so that its first k elements
+     * are the k smallest, in ascending order.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the number of elements to sort
+     */
+    public static void partialSort(int[] a, int k) {
+        Selection.partialSort(a, k);
+    }
+
+    /**
+     * Partial sort on a primitive double array.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the number of elements to sort
+     */
+    public static void partialSort(double[] a, int k) {
+        Selection.partialSort(a, k);
+    }
+
+    /**
+     * Partial sort on an object array.
+     *
+     * @See Selection
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the number of elements to sort
+     */
+    public static <T extends Comparable<? super T>> void partialSort(T[] a, int k) {
+        Selection.partialSort(a, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Top-k.
+     * Finds the k smallest elements with a bounded heap,
+     * in O(n log k) time, leaving the array unchanged.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the number of elements to find
+     * @return the k smallest elements in ascending order
+     */
+    public static int[] smallest(int[] a, int k) {
+        return Selection.smallest(a, k);
+    }
+
+    /**
+     * Top-k on a primitive double array.
+     *
+     * @See Selection
+     *
+     * @param a the array
+     * @param k the number of elements to find
+     * @return the k smallest elements in ascending order
+     */
+    public static double[] smallest(double[] a, int k) {
+        return Selection.smallest(a, k);
+    }
+
+    /**
+     * Top-k on an object array.
+     *
+     * @See Selection
+     *
+     * @param <T> the type parameter
+     * @param a the array
+     * @param k the number of elements to find
+     * @return the k smallest elements in ascending order
+     */
+    public static <T extends Comparable<? super T>> T[] smallest(T[] a, int k) {
+        return Selection.smallest(a, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Sort the array by an int key extracted from
+     * each element. Each key is extracted exactly
+     * once, so no comparator is called during the
+     * sort. The sort is stable.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param key the key extractor
+     */
+    public static <T> void sortByInt(T[] a, ToIntFunction<? super T> key) {
+        // pack (key, index) into a long so the index
+        // breaks ties and the sort stays stable.
+        final long[] packed = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            packed[i] = ((long) key.applyAsInt(a[i]) << 32) | i;
+        }
+
+        HybridSort.sort(packed, 0, packed.length);
+
+        final T[] copy = a.clone();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = copy[(int) packed[i]];
+        }
+    }
+
+    /**
+     * Sort the array by a double key extracted from
+     * each element. Each key is extracted exactly
+     * once, so no comparator is called during the
+     * sort. The sort is stable and uses the ordering
+     * of {@link Double#compare(double, double)}.
+     *
+     * @param <T> the type parameter
+     * @param a the array to sort
+     * @param key the key extractor
+     */
+    public static <T> void sortByDouble(T[] a, ToDoubleFunction<? super T> key) {
+        final long[] keys = new long[a.length];
+        final int[] perm = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = sortableBits(key.applyAsDouble(a[i]));
+            perm[i] = i;
+        }
+
+        HybridSort.sort(keys, perm, 0, keys.length);
+
+        final T[] copy = a.clone();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = copy[perm[i]];
+        }
+    }
+
+    /**
+     * Map a double onto a long whose signed ordering
+     * matches {@link Double#compare(double, double)}.
+     *
+     * @param d the double value
+     * @return the sortable bits
+     */
+    static long sortableBits(double d) {
+        final long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Insertion sort on the range [lo, hi) of an int array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int element = a[i];
+            int j;
+            for (j = i - 1; j >= lo; j--) {
+                if (a[j] <= element) break;
+                a[j + 1] = a[j];
+            }
+            a[j + 1] = element;
+        }
+    }
+
+    /**
+     * Insertion sort on the range [lo, hi) of a long array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void insertionSort(long[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long element = a[i];
+            int j;
+            for (j = i - 1; j >= lo; j--) {
+                if (a[j] <= element) break;
+                a[j + 1] = a[j];
+            }
+            a[j + 1] = element;
+        }
+    }
+
+    /**
+     * Insertion sort on the range [lo, hi) of a double array.
+     *
+     * @param a the array to sort
+     * @param lo the first index (inclusive)
+     * @param hi the last index (exclusive)
+     */
+    static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            double element = a[i];
+            int j;
+            for (j = i - 1; j >= lo; j--) {
+                if (Double.compare(a[j], element) <= 0) break;
+                a[j + 1] = a[j];
+            }
+            a[j + 1] = element;
+        }
+    }
+}
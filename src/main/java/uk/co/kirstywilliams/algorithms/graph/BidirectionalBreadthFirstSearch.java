@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A point-to-point breadth first search that searches
+ * forwards from the source and backwards from the
+ * target (along reversed edges) until the two meet.
+ *
+ * Each step expands a whole level of whichever side has
+ * the smaller frontier. When a level first touches the
+ * other side, the shortest path through any node of the
+ * level is the shortest path overall. On graphs where
+ * the number of nodes within d hops grows quickly, two
+ * searches of depth d / 2 explore far fewer nodes than
+ * one of depth d.
+ *
+ * Visited marks are epoch stamps, as in the
+ * {@link IndexedBreadthFirstSearch}, so repeated
+ * queries do not allocate.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Bidirectional_search">https://en.wikipedia.org/wiki/Bidirectional_search</a>
+ *
+ * @author kirsty
+ */
+public class BidirectionalBreadthFirstSearch {
+
+    /* the graph being searched */
+    private final IIndexedGraph graph;
+    /* the search from the source, along edges */
+    private final Side forward;
+    /* the search from the target, against edges */
+    private final Side backward;
+    /* the current epoch */
+    private int epoch;
+    /* the node where the searches met, or -1 */
+    private int meeting = -1;
+    /* the hop count of the last query, or -1 */
+    private int distance = -1;
+
+    /**
+     * Instantiates a search over the specified graph,
+     * building its transpose for the backward search.
+     *
+     * @param graph the graph to search.
+     */
+    public BidirectionalBreadthFirstSearch(final CompactGraph graph) {
+        this(graph, graph.transpose());
+    }
+
+    /**
+     * Instantiates a search over the specified graph. For
+     * an undirected graph the graph is its own transpose.
+     *
+     * @param graph the graph to search.
+     * @param transpose the graph with every edge reversed.
+     */
+    public BidirectionalBreadthFirstSearch(final IIndexedGraph graph, final IIndexedGraph transpose) {
+        if (graph.getNumNodes() != transpose.getNumNodes()) {
+            throw new IllegalArgumentException("the transpose must have the same nodes as the graph");
+        }
+
+        this.graph = graph;
+        this.forward = new Side(graph);
+        this.backward = new Side(transpose);
+    }
+
+    /**
+     * Find a shortest path between two nodes.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return the nodes of the path from source to target, or null if there is none.
+     */
+    public final List<INode> findPath(final INode source, final INode target) {
+        final int s = graph.getIndex(source);
+        final int t = graph.getIndex(target);
+        if (s < 0 || t < 0) {
+            throw new IllegalArgumentException("source and target must be in the graph");
+        }
+
+        final int[] path = path(s, t);
+        if (path == null) {
+            return null;
+        }
+
+        final List<INode> nodes = new ArrayList<>(path.length);
+        for (int n : path) {
+            nodes.add(graph.getNode(n));
+        }
+        return nodes;
+    }
+
+    /**
+     * Find a shortest path between two nodes.
+     *
+     * @param source the source node index.
+     * @param target the target node index.
+     * @return the node indices of the path from source to target, or null if there is none.
+     */
+    public final int[] path(final int source, final int target) {
+        if (distance(source, target) < 0) {
+            return null;
+        }
+
+        final int[] path = new int[distance + 1];
+        int i = forward.depth[meeting];
+        for (int n = meeting; n >= 0; n = forward.parent[n]) {
+            path[i--] = n;
+        }
+        i = forward.depth[meeting];
+        for (int n = backward.parent[meeting]; n >= 0; n = backward.parent[n]) {
+            path[++i] = n;
+        }
+        return path;
+    }
+
+    /**
+     * Get the number of hops on a shortest path between
+     * two nodes.
+     *
+     * @param source the source node index.
+     * @param target the target node index.
+     * @return the hop count, or -1 if the target is not reachable.
+     */
+    public final int distance(final int source, final int target) {
+        nextEpoch();
+        forward.start(source, epoch);
+        backward.start(target, epoch);
+
+        meeting = -1;
+        distance = -1;
+        if (source == target) {
+            meeting = source;
+            distance = 0;
+            return 0;
+        }
+
+        while (!forward.isDone() && !backward.isDone()) {
+            final boolean expandForward = forward.frontierSize() <= backward.frontierSize();
+            final Side side = expandForward ? forward : backward;
+            final Side other = expandForward ? backward : forward;
+
+            final int met = side.expandLevel(other, epoch);
+            if (met >= 0) {
+                meeting = met;
+                distance = forward.depth[met] + backward.depth[met];
+                return distance;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the number of nodes visited by both searches
+     * in the last query.
+     *
+     * @return the number of nodes explored.
+     */
+    public final int getNumExplored() {
+        return forward.tail + backward.tail;
+    }
+
+    /**
+     * Start a new epoch, clearing the stamps if the epoch
+     * counter wraps around.
+     */
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(forward.stamp, 0);
+            Arrays.fill(backward.stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * One direction of the search.
+     */
+    private static final class Side {
+
+        /* the adjacency followed by this side */
+        final IIndexedGraph adjacency;
+        /* the nodes reached, level by level */
+        final int[] queue;
+        /* the epoch in which each node was last reached */
+        final int[] stamp;
+        /* the depth of each node reached */
+        final int[] depth;
+        /* the node each node was reached from, or -1 */
+        final int[] parent;
+        /* the start of the current level in the queue */
+        int head;
+        /* the end of the current level in the queue */
+        int tail;
+
+        Side(final IIndexedGraph adjacency) {
+            final int numNodes = adjacency.getNumNodes();
+            this.adjacency = adjacency;
+            this.queue = new int[numNodes];
+            this.stamp = new int[numNodes];
+            this.depth = new int[numNodes];
+            this.parent = new int[numNodes];
+        }
+
+        void start(final int n, final int epoch) {
+            queue[0] = n;
+            stamp[n] = epoch;
+            depth[n] = 0;
+            parent[n] = -1;
+            head = 0;
+            tail = 1;
+        }
+
+        boolean isDone() {
+            return head == tail;
+        }
+
+        int frontierSize() {
+            return tail - head;
+        }
+
+        /**
+         * Expand the current level.
+         *
+         * @param other the search from the other end.
+         * @param epoch the current epoch.
+         * @return the node on the shortest path found between the sides, or -1.
+         */
+        int expandLevel(final Side other, final int epoch) {
+            final int levelEnd = tail;
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+
+            for (int i = head; i < levelEnd; i++) {
+                final int n = queue[i];
+                final int successorDepth = depth[n] + 1;
+                final int degree = adjacency.getDegree(n);
+                for (int j = 0; j < degree; j++) {
+                    final int m = adjacency.getNeighbour(n, j);
+                    if (stamp[m] == epoch) {
+                        continue;
+                    }
+
+                    stamp[m] = epoch;
+                    depth[m] = successorDepth;
+                    parent[m] = n;
+                    queue[tail++] = m;
+
+                    if (other.stamp[m] == epoch && successorDepth + other.depth[m] < bestDistance) {
+                        best = m;
+                        bestDistance = successorDepth + other.depth[m];
+                    }
+                }
+            }
+
+            head = levelEnd;
+            return best;
+        }
+    }
+}
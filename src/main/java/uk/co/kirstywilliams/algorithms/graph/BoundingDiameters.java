@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import gnu.trove.set.hash.THashSet;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.Arrays;
+
+/**
+ * Exact eccentricities, diameter, radius, center and
+ * periphery of an undirected graph, without a breadth
+ * first search from every node.
+ *
+ * Every node keeps a lower and an upper bound on its
+ * eccentricity. A search from v, of eccentricity e(v),
+ * bounds every node w it reaches at distance d:
+ * max(d, e(v) - d) &lt;= e(w) &lt;= e(v) + d. Nodes whose
+ * bounds meet are done. The next search starts from
+ * the undecided node with the largest upper bound or
+ * the smallest lower bound, in turn, as these tighten
+ * the bounds of the others most (Takes and Kosters,
+ * "Computing the Eccentricity Distribution of Large
+ * Graphs").
+ *
+ * Eccentricities are taken within each node's connected
+ * component, as by {@link INode#getEccentricity()}. The
+ * graph must be undirected, i.e. every edge must have
+ * a reverse edge. Indices that hold no node are
+ * skipped, and have eccentricity -1.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Distance_(graph_theory)">https://en.wikipedia.org/wiki/Distance_(graph_theory)</a>
+ *
+ * @author kirsty
+ */
+public class BoundingDiameters {
+
+    /* the graph */
+    private final IIndexedGraph graph;
+    /* the search reused for every node */
+    private final IndexedBreadthFirstSearch bfs;
+    /* the lower bound on each node's eccentricity */
+    private final int[] lower;
+    /* the upper bound on each node's eccentricity */
+    private final int[] upper;
+    /* the number of searches run */
+    private int numSearches;
+    /* whether the eccentricities have been computed */
+    private boolean computed;
+
+    /**
+     * Instantiates a diameter computation over the
+     * specified undirected graph.
+     *
+     * @param graph the graph.
+     */
+    public BoundingDiameters(final IIndexedGraph graph) {
+        this.graph = graph;
+        this.bfs = new IndexedBreadthFirstSearch(graph);
+        this.lower = new int[graph.getNumNodes()];
+        this.upper = new int[graph.getNumNodes()];
+    }
+
+    /**
+     * Compute the eccentricity of every node, if not
+     * already done.
+     */
+    public final void compute() {
+        if (computed) {
+            return;
+        }
+
+        final int numNodes = graph.getNumNodes();
+        Arrays.fill(lower, 0);
+        Arrays.fill(upper, Integer.MAX_VALUE);
+
+        // the undecided nodes are candidates[0, numCandidates)
+        final int[] candidates = new int[numNodes];
+        final int[] position = new int[numNodes];
+        int numCandidates = 0;
+        for (int n = 0; n < numNodes; n++) {
+            if (graph.hasNode(n)) {
+                candidates[numCandidates] = n;
+                position[n] = numCandidates++;
+            } else {
+                lower[n] = -1;
+                upper[n] = -1;
+                position[n] = numNodes;
+            }
+        }
+
+        boolean pickHigh = true;
+        while (numCandidates > 0) {
+            final int v = pick(candidates, numCandidates, pickHigh);
+            pickHigh = !pickHigh;
+
+            final int reached = bfs.search(v);
+            final int ecc = bfs.getMaxDepth();
+            numSearches++;
+
+            for (int i = 0; i < reached; i++) {
+                final int w = bfs.getReached(i);
+                final int d = bfs.getDepth(w);
+                lower[w] = Math.max(lower[w], Math.max(d, ecc - d));
+                upper[w] = Math.min(upper[w], ecc + d);
+
+                // drop the node from the candidates once decided
+                final int p = position[w];
+                if (lower[w] == upper[w] && p < numCandidates) {
+                    final int last = candidates[--numCandidates];
+                    candidates[p] = last;
+                    position[last] = p;
+                    candidates[numCandidates] = w;
+                    position[w] = numCandidates;
+                }
+            }
+        }
+
+        computed = true;
+    }
+
+    /**
+     * Pick the next node to search from: the candidate with
+     * the largest upper bound, or the smallest lower bound,
+     * preferring nodes of higher degree.
+     *
+     * @param candidates the undecided nodes.
+     * @param numCandidates the number of undecided nodes.
+     * @param pickHigh whether to pick by largest upper bound.
+     * @return the node index.
+     */
+    private int pick(final int[] candidates, final int numCandidates, final boolean pickHigh) {
+        int best = candidates[0];
+        for (int i = 1; i < numCandidates; i++) {
+            final int n = candidates[i];
+            final int cmp = pickHigh
+                    ? Integer.compare(upper[n], upper[best])
+                    : Integer.compare(lower[best], lower[n]);
+            if (cmp > 0 || (cmp == 0 && graph.getDegree(n) > graph.getDegree(best))) {
+                best = n;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the eccentricity of a node, i.e. the max distance
+     * between it and any node it can reach.
+     *
+     * @param n the node index.
+     * @return the eccentricity, or -1 if there is no node at the index.
+     */
+    public final int getEccentricity(final int n) {
+        compute();
+        return lower[n];
+    }
+
+    /**
+     * Get the diameter, i.e. the largest eccentricity.
+     *
+     * @return the diameter.
+     */
+    public final int getDiameter() {
+        compute();
+        int diameter = 0;
+        for (int e : lower) {
+            diameter = Math.max(diameter, e);
+        }
+        return diameter;
+    }
+
+    /**
+     * Get the radius, i.e. the smallest eccentricity.
+     *
+     * @return the radius.
+     */
+    public final int getRadius() {
+        compute();
+        int radius = Integer.MAX_VALUE;
+        for (int e : lower) {
+            if (e >= 0) {
+                radius = Math.min(radius, e);
+            }
+        }
+        return radius;
+    }
+
+    /**
+     * Get the center, i.e. the nodes whose eccentricity
+     * is the radius.
+     *
+     * @return the center nodes.
+     */
+    public final THashSet<INode> getCenter() {
+        return nodesWithEccentricity(getRadius());
+    }
+
+    /**
+     * Get the periphery, i.e. the nodes whose eccentricity
+     * is the diameter.
+     *
+     * @return the periphery nodes.
+     */
+    public final THashSet<INode> getPeriphery() {
+        return nodesWithEccentricity(getDiameter());
+    }
+
+    /**
+     * Get the number of breadth first searches the
+     * computation took.
+     *
+     * @return the number of searches.
+     */
+    public final int getNumSearches() {
+        compute();
+        return numSearches;
+    }
+
+    private THashSet<INode> nodesWithEccentricity(final int e) {
+        final THashSet<INode> nodes = new THashSet<>();
+        for (int n = 0; n < lower.length; n++) {
+            if (lower[n] == e) {
+                nodes.add(graph.getNode(n));
+            }
+        }
+        return nodes;
+    }
+}
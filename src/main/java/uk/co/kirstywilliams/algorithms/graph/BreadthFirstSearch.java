@@ -23,10 +23,22 @@ import java.util.Queue;
  */
 public class BreadthFirstSearch {
 
+    /* a search for each thread, reused by eccentricityOf */
+    private static final ThreadLocal<BreadthFirstSearch> SEARCH = ThreadLocal.withInitial(BreadthFirstSearch::new);
+
     private TObjectIntMap<INode> depth;
     private int maxDepth = Integer.MIN_VALUE;
     private EachNode eachNode = new EachNode();
 
+    /* the most nodes a search may reach and still have its tables cleared for reuse */
+    private static final int REUSE_LIMIT = 4096;
+
+    /* the queue and depths kept between getEccentricity calls */
+    private ArrayDeque<INode> reusedQueue = new ArrayDeque<>();
+    private TObjectIntHashMap<INode> reusedDepth = new TObjectIntHashMap<>(10, 0.5f, Integer.MIN_VALUE);
+    /* always empty; getEccentricity marks nodes by their depth alone */
+    private final THashSet<INode> noneVisited = new THashSet<>(1);
+
     /**
      * Object Procedure for each node.
      */
@@ -132,6 +144,79 @@ public class BreadthFirstSearch {
         return visited;
     }
 
+    /**
+     * Find the eccentricity of the source node, i.e. the max
+     * distance between it and any node it can reach. The
+     * queue and depth map are kept between calls, so repeated
+     * searches of small components do not allocate. Clearing
+     * a hash table costs its whole capacity, so tables grown
+     * by a search of more than REUSE_LIMIT nodes are dropped
+     * rather than cleared. The map from {@link #getDepth()}
+     * is reused by the next call.
+     *
+     * @param source the source node.
+     * @return the eccentricity, 0 if the source has no neighbours.
+     */
+    public final int getEccentricity(final INode source) {
+        setMaxDepth(0);
+        if (source.getDegree() == 0) {
+            return 0;
+        }
+
+        release();
+        depth = reusedDepth;
+
+        reusedQueue.add(source);
+        depth.put(source, 0);
+
+        eachNode.depthLimit = Integer.MAX_VALUE;
+        eachNode.queue = reusedQueue;
+        eachNode.visited = noneVisited;
+        while (!reusedQueue.isEmpty()) {
+            eachNode.n = reusedQueue.poll();
+            eachNode.n.eachNeighbour(eachNode);
+        }
+
+        // drop the reference to the last node
+        eachNode.n = null;
+        return getMaxDepth();
+    }
+
+    /**
+     * Find the eccentricity of the source node with a search
+     * kept for the calling thread, so repeated calls do not
+     * allocate a new search. The search is emptied after
+     * each call, so a thread keeps no nodes and only small
+     * tables.
+     *
+     * @param source the source node.
+     * @return the eccentricity, 0 if the source has no neighbours.
+     */
+    public static int eccentricityOf(final INode source) {
+        final BreadthFirstSearch bfs = SEARCH.get();
+        final int eccentricity = bfs.getEccentricity(source);
+
+        // a thread's search must not keep nodes alive, or large tables
+        bfs.release();
+        return eccentricity;
+    }
+
+    /**
+     * Empty the tables kept for getEccentricity, clearing
+     * them if the last search reached at most REUSE_LIMIT
+     * nodes and replacing them otherwise, so the cost is
+     * bounded whatever size of search came before.
+     */
+    private void release() {
+        if (reusedDepth.size() > REUSE_LIMIT) {
+            reusedQueue = new ArrayDeque<>();
+            reusedDepth = new TObjectIntHashMap<>(10, 0.5f, Integer.MIN_VALUE);
+        } else {
+            reusedQueue.clear();
+            reusedDepth.clear();
+        }
+    }
+
     /**
      * Gets an empty tree with only the source node.
      *
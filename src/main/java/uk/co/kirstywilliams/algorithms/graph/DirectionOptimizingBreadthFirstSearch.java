@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.hash.THashSet;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * A breadth first search that switches between top-down
+ * and bottom-up steps.
+ *
+ * A top-down step checks every neighbour of every node
+ * in the frontier. On low diameter graphs the middle
+ * levels hold most of the graph, and most of those
+ * checks find a node that is already visited. A
+ * bottom-up step instead has every unvisited node look
+ * through its in-neighbours for one in the frontier
+ * (kept as a bitset), stopping at the first it finds.
+ *
+ * The search goes bottom-up when the edges out of the
+ * frontier outnumber the edges out of the unvisited
+ * nodes by more than 1 / ALPHA, and back to top-down
+ * when the frontier shrinks below 1 / BETA of the nodes.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Breadth-first_search">https://en.wikipedia.org/wiki/Breadth-first_search</a>
+ * @See <a href="http://www.scottbeamer.net/pubs/beamer-sc2012.pdf">http://www.scottbeamer.net/pubs/beamer-sc2012.pdf</a>
+ *
+ * @author kirsty
+ */
+public class DirectionOptimizingBreadthFirstSearch {
+
+    /* go bottom-up once frontier edges exceed unvisited edges / ALPHA */
+    private static final int ALPHA = 14;
+    /* go top-down once the frontier is smaller than nodes / BETA */
+    private static final int BETA = 24;
+
+    /* the graph being searched */
+    private final IIndexedGraph graph;
+    /* the graph with every edge reversed */
+    private final IIndexedGraph transpose;
+    /* the total out degree of all nodes */
+    private final long numEdges;
+    /* the nodes reached, level by level */
+    private final int[] queue;
+    /* the depth of each visited node */
+    private final int[] depth;
+    /* visited nodes, one bit per node */
+    private final long[] visited;
+    /* the current level, one bit per node */
+    private final long[] frontier;
+    /* the number of nodes reached */
+    private int numReached;
+    /* the depth of the deepest node reached */
+    private int maxDepth = Integer.MIN_VALUE;
+    /* the depth map, built when first asked for */
+    private TObjectIntMap<INode> depthMap;
+
+    /**
+     * Instantiates a search over the specified graph,
+     * building its transpose for the bottom-up steps.
+     *
+     * @param graph the graph to search.
+     */
+    public DirectionOptimizingBreadthFirstSearch(final CompactGraph graph) {
+        this(graph, graph.transpose());
+    }
+
+    /**
+     * Instantiates a search over the specified graph. For
+     * an undirected graph the graph is its own transpose.
+     *
+     * @param graph the graph to search.
+     * @param transpose the graph with every edge reversed.
+     */
+    public DirectionOptimizingBreadthFirstSearch(final IIndexedGraph graph, final IIndexedGraph transpose) {
+        if (graph.getNumNodes() != transpose.getNumNodes()) {
+            throw new IllegalArgumentException("the transpose must have the same nodes as the graph");
+        }
+
+        this.graph = graph;
+        this.transpose = transpose;
+
+        final int numNodes = graph.getNumNodes();
+        long edges = 0;
+        for (int n = 0; n < numNodes; n++) {
+            edges += graph.getDegree(n);
+        }
+        this.numEdges = edges;
+
+        this.queue = new int[numNodes];
+        this.depth = new int[numNodes];
+        this.visited = new long[(numNodes + 63) >>> 6];
+        this.frontier = new long[visited.length];
+    }
+
+    /**
+     * Find all reachable nodes from the source node.
+     *
+     * @param source the source node.
+     * @return set of all reachable nodes.
+     */
+    public final THashSet<INode> findAll(final INode source) {
+        final int s = graph.getIndex(source);
+        if (s < 0) {
+            throw new IllegalArgumentException("source node is not in the graph");
+        }
+
+        final int reached = search(s);
+
+        final THashSet<INode> reachable = new THashSet<>(reached);
+        for (int i = 0; i < reached; i++) {
+            reachable.add(graph.getNode(queue[i]));
+        }
+
+        return reachable;
+    }
+
+    /**
+     * Search all nodes reachable from the source.
+     *
+     * @param source the source node index.
+     * @return the number of nodes reached.
+     * @throws IllegalArgumentException if the source is not a node of the graph.
+     */
+    public final int search(final int source) {
+        if (source < 0 || source >= graph.getNumNodes() || !graph.hasNode(source)) {
+            throw new IllegalArgumentException("source " + source + " is not a node of the graph");
+        }
+
+        final int numNodes = graph.getNumNodes();
+        Arrays.fill(visited, 0L);
+        depthMap = null;
+
+        queue[0] = source;
+        depth[source] = 0;
+        visited[source >>> 6] |= 1L << source;
+
+        // the current level is queue[levelStart, levelEnd)
+        int levelStart = 0;
+        int levelEnd = 1;
+        int level = 0;
+        long frontierEdges = graph.getDegree(source);
+        long unvisitedEdges = numEdges - frontierEdges;
+        boolean bottomUp = false;
+
+        while (levelStart < levelEnd) {
+            final int frontierSize = levelEnd - levelStart;
+            if (bottomUp) {
+                bottomUp = frontierSize >= numNodes / BETA;
+            } else {
+                bottomUp = frontierEdges > unvisitedEdges / ALPHA;
+            }
+
+            final int tail = bottomUp
+                    ? bottomUpStep(levelStart, levelEnd, level + 1)
+                    : topDownStep(levelStart, levelEnd, level + 1);
+
+            frontierEdges = 0;
+            for (int i = levelEnd; i < tail; i++) {
+                frontierEdges += graph.getDegree(queue[i]);
+            }
+            unvisitedEdges -= frontierEdges;
+
+            levelStart = levelEnd;
+            levelEnd = tail;
+            level++;
+        }
+
+        numReached = levelEnd;
+        maxDepth = depth[queue[levelEnd - 1]];
+        return levelEnd;
+    }
+
+    /**
+     * Visit the unvisited out-neighbours of the frontier.
+     *
+     * @param levelStart the start of the frontier in the queue.
+     * @param levelEnd the end of the frontier in the queue.
+     * @param nextDepth the depth of the next level.
+     * @return the end of the next level in the queue.
+     */
+    private int topDownStep(final int levelStart, final int levelEnd, final int nextDepth) {
+        int tail = levelEnd;
+        for (int i = levelStart; i < levelEnd; i++) {
+            final int n = queue[i];
+            final int degree = graph.getDegree(n);
+            for (int j = 0; j < degree; j++) {
+                final int m = graph.getNeighbour(n, j);
+                final long bit = 1L << m;
+                if ((visited[m >>> 6] & bit) == 0) {
+                    visited[m >>> 6] |= bit;
+                    depth[m] = nextDepth;
+                    queue[tail++] = m;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Visit every unvisited node with an in-neighbour
+     * in the frontier.
+     *
+     * @param levelStart the start of the frontier in the queue.
+     * @param levelEnd the end of the frontier in the queue.
+     * @param nextDepth the depth of the next level.
+     * @return the end of the next level in the queue.
+     */
+    private int bottomUpStep(final int levelStart, final int levelEnd, final int nextDepth) {
+        Arrays.fill(frontier, 0L);
+        for (int i = levelStart; i < levelEnd; i++) {
+            final int n = queue[i];
+            frontier[n >>> 6] |= 1L << n;
+        }
+
+        final int numNodes = graph.getNumNodes();
+        int tail = levelEnd;
+        for (int w = 0; w < visited.length; w++) {
+            // the unvisited nodes in this word
+            long unvisited = ~visited[w];
+            if (w == visited.length - 1 && (numNodes & 63) != 0) {
+                unvisited &= (1L << numNodes) - 1;
+            }
+
+            while (unvisited != 0) {
+                final int m = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                unvisited &= unvisited - 1;
+
+                final int degree = transpose.getDegree(m);
+                for (int j = 0; j < degree; j++) {
+                    final int n = transpose.getNeighbour(m, j);
+                    if ((frontier[n >>> 6] & (1L << n)) != 0) {
+                        visited[w] |= 1L << m;
+                        depth[m] = nextDepth;
+                        queue[tail++] = m;
+                        break;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Gets the tree depth, i.e. the depth of every node
+     * reached by the last search.
+     *
+     * @return the depth.
+     */
+    public final TObjectIntMap<INode> getDepth() {
+        if (depthMap == null) {
+            depthMap = new TObjectIntHashMap<>(Math.max(numReached, 1), 0.5f, Integer.MIN_VALUE);
+            for (int i = 0; i < numReached; i++) {
+                depthMap.put(graph.getNode(queue[i]), depth[queue[i]]);
+            }
+        }
+        return depthMap;
+    }
+
+    /**
+     * Gets the depth of a particular node in the tree.
+     *
+     * @param n the node index.
+     * @return the depth, or -1 if the node was not reached.
+     */
+    public final int getDepth(final int n) {
+        return (visited[n >>> 6] & (1L << n)) != 0 ? depth[n] : -1;
+    }
+
+    /**
+     * Gets the maximum depth.
+     *
+     * @return the maximum depth.
+     */
+    public final int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the number of nodes reached by the last search.
+     *
+     * @return the number of nodes reached.
+     */
+    public final int getNumReached() {
+        return numReached;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import gnu.trove.set.hash.THashSet;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.Arrays;
+
+/**
+ * A reusable breadth first search over a graph with
+ * dense int node indices.
+ *
+ * All state lives in int arrays sized to the graph
+ * and kept between searches. Rather than clearing the
+ * visited marks before each search, every search takes
+ * a new epoch number and a node counts as visited only
+ * if its stamp equals the current epoch. Once warmed
+ * up, repeated searches allocate nothing.
+ *
+ * Each node is queued at most once per search, so the
+ * queue never wraps; it also records the order in
+ * which nodes were reached.
+ *
+ * With a depth limit, the max depth is the depth of the
+ * deepest node reached, never more than the limit, whereas
+ * {@link BreadthFirstSearch} reports the limit + 1 when
+ * there are nodes beyond it.
+ *
+ * @author kirsty
+ */
+public class IndexedBreadthFirstSearch {
+
+    /* the graph being searched */
+    private final IIndexedGraph graph;
+    /* the nodes reached, in the order they were reached */
+    private int[] queue = new int[0];
+    /* the epoch in which each node was last reached */
+    private int[] stamp = new int[0];
+    /* the depth of each node reached in the current epoch */
+    private int[] depth = new int[0];
+    /* the current epoch */
+    private int epoch;
+    /* the number of nodes reached */
+    private int numReached;
+    /* the depth of the deepest node reached */
+    private int maxDepth;
+
+    /**
+     * Instantiates a search over the specified graph.
+     *
+     * @param graph the graph to search.
+     */
+    public IndexedBreadthFirstSearch(final IIndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Search all nodes reachable from the source.
+     *
+     * @param source the source node index.
+     * @return the number of nodes reached.
+     */
+    public final int search(final int source) {
+        return search(source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Search all nodes reachable from the source within
+     * the depth limit.
+     *
+     * @param source the source node index.
+     * @param depthLimit the depth limit.
+     * @return the number of nodes reached.
+     * @throws IllegalArgumentException if the source is not a node of the graph.
+     */
+    public final int search(final int source, final int depthLimit) {
+        if (source < 0 || source >= graph.getNumNodes() || !graph.hasNode(source)) {
+            throw new IllegalArgumentException("source " + source + " is not a node of the graph");
+        }
+
+        nextEpoch();
+
+        final int[] queue = this.queue;
+        final int[] stamp = this.stamp;
+        final int[] depth = this.depth;
+        final int epoch = this.epoch;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        stamp[source] = epoch;
+        depth[source] = 0;
+
+        while (head < tail) {
+            final int n = queue[head++];
+            final int successorDepth = depth[n] + 1;
+            if (successorDepth > depthLimit) {
+                continue;
+            }
+
+            final int degree = graph.getDegree(n);
+            for (int i = 0; i < degree; i++) {
+                final int m = graph.getNeighbour(n, i);
+                if (stamp[m] != epoch) {
+                    stamp[m] = epoch;
+                    depth[m] = successorDepth;
+                    queue[tail++] = m;
+                }
+            }
+        }
+
+        numReached = tail;
+        maxDepth = depth[queue[tail - 1]];
+        return tail;
+    }
+
+    /**
+     * Find all nodes reachable from the source node.
+     *
+     * @param source the source node.
+     * @return set of all reachable nodes.
+     */
+    public final THashSet<INode> findAll(final INode source) {
+        return findAll(source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find all nodes reachable from the source node within
+     * the depth limit.
+     *
+     * @param source the source node.
+     * @param depthLimit the depth limit.
+     * @return set of all reachable nodes.
+     */
+    public final THashSet<INode> findAll(final INode source, final int depthLimit) {
+        final int s = graph.getIndex(source);
+        if (s < 0) {
+            throw new IllegalArgumentException("source node is not in the graph");
+        }
+
+        final int reached = search(s, depthLimit);
+
+        final THashSet<INode> visited = new THashSet<>(reached);
+        for (int i = 0; i < reached; i++) {
+            visited.add(graph.getNode(queue[i]));
+        }
+
+        return visited;
+    }
+
+    /**
+     * Get the eccentricity of a node, i.e. the max distance
+     * between it and any node it can reach.
+     *
+     * @param n the node index.
+     * @return the eccentricity.
+     */
+    public final int getEccentricity(final int n) {
+        search(n);
+        return maxDepth;
+    }
+
+    /**
+     * Check whether a node was reached by the last search.
+     *
+     * @param n the node index.
+     * @return whether the node was reached.
+     */
+    public final boolean isReached(final int n) {
+        return n < stamp.length && stamp[n] == epoch;
+    }
+
+    /**
+     * Gets the depth of a node in the last search.
+     *
+     * @param n the node index.
+     * @return the depth, or -1 if the node was not reached.
+     */
+    public final int getDepth(final int n) {
+        return isReached(n) ? depth[n] : -1;
+    }
+
+    /**
+     * Gets the maximum depth of the last search, i.e. the
+     * depth of the deepest node reached, which is at most
+     * its depth limit.
+     *
+     * @return the maximum depth.
+     */
+    public final int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the number of nodes reached by the last search.
+     *
+     * @return the number of nodes reached.
+     */
+    public final int getNumReached() {
+        return numReached;
+    }
+
+    /**
+     * Gets a node reached by the last search, in the order
+     * nodes were reached (so by non-decreasing depth).
+     *
+     * @param i the position, from 0 to the number reached - 1.
+     * @return the node index.
+     */
+    public final int getReached(final int i) {
+        return queue[i];
+    }
+
+    /**
+     * Start a new epoch, growing the arrays if the graph
+     * has grown and clearing the stamps if the epoch
+     * counter wraps around.
+     */
+    private void nextEpoch() {
+        final int numNodes = graph.getNumNodes();
+        if (stamp.length < numNodes) {
+            queue = new int[numNodes];
+            stamp = Arrays.copyOf(stamp, numNodes);
+            depth = new int[numNodes];
+        }
+
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * A multi-source breadth first search (MS-BFS) that
+ * searches from a batch of sources at once.
+ *
+ * Each node has a mask with one bit per source in the
+ * batch, for the sources that have seen it and for
+ * those whose frontier it is in. Expanding a node pushes
+ * its whole frontier mask to each neighbour with a single
+ * OR, so sources whose searches overlap share the work
+ * of scanning each adjacency list. A batch holds 64
+ * sources per long word of mask.
+ *
+ * For every source the search records the eccentricity,
+ * the sum of the depths of the nodes reached and the
+ * number of nodes reached, from which closeness follows.
+ *
+ * @See <a href="http://www.vldb.org/pvldb/vol8/p449-then.pdf">http://www.vldb.org/pvldb/vol8/p449-then.pdf</a>
+ * @See <a href="https://en.wikipedia.org/wiki/Closeness_centrality">https://en.wikipedia.org/wiki/Closeness_centrality</a>
+ *
+ * @author kirsty
+ */
+public class MultiSourceBreadthFirstSearch {
+
+    /* the graph being searched */
+    private final IIndexedGraph graph;
+    /* the number of long words in each node's mask */
+    private final int words;
+    /* the sources that have seen each node */
+    private final long[] seen;
+    /* the sources whose frontier holds each node */
+    private final long[] frontier;
+    /* the sources whose next level holds each node */
+    private final long[] next;
+    /* the eccentricity of each source */
+    private final int[] eccentricity;
+    /* the sum of the depths of the nodes reached from each source */
+    private final long[] depthSum;
+    /* the number of nodes reached from each source */
+    private final int[] numReached;
+
+    /**
+     * Instantiates a search over the specified graph with
+     * 64 sources per batch.
+     *
+     * @param graph the graph to search.
+     */
+    public MultiSourceBreadthFirstSearch(final IIndexedGraph graph) {
+        this(graph, 1);
+    }
+
+    /**
+     * Instantiates a search over the specified graph with
+     * 64 * words sources per batch.
+     *
+     * @param graph the graph to search.
+     * @param words the number of long words in each node's mask.
+     */
+    public MultiSourceBreadthFirstSearch(final IIndexedGraph graph, final int words) {
+        if (words < 1) {
+            throw new IllegalArgumentException("words must be positive");
+        }
+
+        this.graph = graph;
+        this.words = words;
+
+        final int numNodes = graph.getNumNodes();
+        this.seen = new long[numNodes * words];
+        this.frontier = new long[numNodes * words];
+        this.next = new long[numNodes * words];
+        this.eccentricity = new int[numNodes];
+        this.depthSum = new long[numNodes];
+        this.numReached = new int[numNodes];
+    }
+
+    /**
+     * Get the number of sources searched at once.
+     *
+     * @return the batch size.
+     */
+    public final int getBatchSize() {
+        return 64 * words;
+    }
+
+    /**
+     * Search from every node of the graph, one batch
+     * at a time, skipping indices that hold no node.
+     */
+    public final void searchAll() {
+        final int numNodes = graph.getNumNodes();
+        final int[] sources = new int[getBatchSize()];
+        int length = 0;
+        for (int n = 0; n < numNodes; n++) {
+            if (graph.hasNode(n)) {
+                sources[length++] = n;
+            }
+            if (length == sources.length) {
+                search(sources, 0, length);
+                length = 0;
+            }
+        }
+        if (length > 0) {
+            search(sources, 0, length);
+        }
+    }
+
+    /**
+     * Search from a batch of distinct sources.
+     *
+     * @param sources the source node indices.
+     * @param offset the first source in the array.
+     * @param length the number of sources, at most the batch size.
+     */
+    public final void search(final int[] sources, final int offset, final int length) {
+        if (length > getBatchSize()) {
+            throw new IllegalArgumentException("at most " + getBatchSize() + " sources per batch");
+        }
+
+        final int numNodes = graph.getNumNodes();
+        final int words = this.words;
+        long[] frontier = this.frontier;
+        long[] next = this.next;
+        Arrays.fill(seen, 0L);
+        Arrays.fill(frontier, 0L);
+        Arrays.fill(next, 0L);
+
+        for (int b = 0; b < length; b++) {
+            final int s = sources[offset + b];
+            final long bit = 1L << b;
+            seen[s * words + (b >>> 6)] |= bit;
+            frontier[s * words + (b >>> 6)] |= bit;
+            eccentricity[s] = 0;
+            depthSum[s] = 0;
+            numReached[s] = 1;
+        }
+
+        boolean active = length > 0;
+        for (int level = 1; active; level++) {
+            // push every frontier mask to the neighbours
+            for (int n = 0; n < numNodes; n++) {
+                final int base = n * words;
+                final int degree = graph.getDegree(n);
+                for (int w = 0; w < words; w++) {
+                    final long mask = frontier[base + w];
+                    if (mask == 0) {
+                        continue;
+                    }
+                    for (int i = 0; i < degree; i++) {
+                        next[graph.getNeighbour(n, i) * words + w] |= mask;
+                    }
+                }
+            }
+
+            // keep only the sources new to each node, and record them
+            active = false;
+            for (int n = 0; n < numNodes; n++) {
+                final int base = n * words;
+                for (int w = 0; w < words; w++) {
+                    long fresh = next[base + w] & ~seen[base + w];
+                    next[base + w] = fresh;
+                    if (fresh == 0) {
+                        continue;
+                    }
+
+                    seen[base + w] |= fresh;
+                    active = true;
+                    do {
+                        final int s = sources[offset + (w << 6) + Long.numberOfTrailingZeros(fresh)];
+                        eccentricity[s] = level;
+                        depthSum[s] += level;
+                        numReached[s]++;
+                        fresh &= fresh - 1;
+                    } while (fresh != 0);
+                }
+            }
+
+            final long[] t = frontier;
+            frontier = next;
+            next = t;
+            Arrays.fill(next, 0L);
+        }
+    }
+
+    /**
+     * Get the eccentricity of a searched source, i.e. the
+     * max distance between it and any node it can reach.
+     *
+     * @param n the source node index.
+     * @return the eccentricity.
+     */
+    public final int getEccentricity(final int n) {
+        return eccentricity[n];
+    }
+
+    /**
+     * Get the sum of the depths of the nodes reached from
+     * a searched source.
+     *
+     * @param n the source node index.
+     * @return the depth sum.
+     */
+    public final long getDepthSum(final int n) {
+        return depthSum[n];
+    }
+
+    /**
+     * Get the number of nodes reached from a searched
+     * source, including the source itself.
+     *
+     * @param n the source node index.
+     * @return the number of nodes reached.
+     */
+    public final int getNumReached(final int n) {
+        return numReached[n];
+    }
+
+    /**
+     * Get the closeness of a searched source, i.e. the
+     * number of other nodes it reaches divided by the sum
+     * of their distances (so only its own component counts).
+     *
+     * @param n the source node index.
+     * @return the closeness, or 0 if it reaches no other node.
+     */
+    public final double getCloseness(final int n) {
+        return depthSum[n] == 0 ? 0.0 : (numReached[n] - 1) / (double) depthSum[n];
+    }
+}
@@ -5,6 +5,8 @@
 package uk.co.kirstywilliams.algorithms.graph;
 
 import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
 import uk.co.kirstywilliams.algorithms.graph.utils.PathMatrix;
 import uk.co.kirstywilliams.algorithms.graph.utils.INode;
 
@@ -23,6 +25,11 @@ import java.util.Set;
  * at which time we return to p0 to close
  * off the tour.
  *
+ * The distances may be given as a path matrix, or as
+ * hop counts taken from an indexed graph, e.g. a
+ * {@link uk.co.kirstywilliams.algorithms.graph.utils.GraphSnapshot}
+ * pinned while the graph goes on changing.
+ *
  * @author kirsty
  */
 public class NearestNeighbourTSP {
@@ -55,6 +62,76 @@ public class NearestNeighbourTSP {
         this.hubMap = hubMap;
     }
 
+    /**
+     * Instantiates the nearest neighbour algorithm over
+     * the specified hubs of an indexed graph, with the
+     * distance between two hubs being the number of edges
+     * on a shortest path. Hub i of the route is hubs[i].
+     *
+     * The hubs must all reach each other: if none of the
+     * unvisited hubs can be reached from the current one,
+     * {@link #execute()} throws an IllegalStateException.
+     *
+     * @param graph the graph, e.g. a snapshot.
+     * @param hubs the node indices of the hubs.
+     * @param sourceHub the source hub, an index into hubs.
+     * @throws IllegalArgumentException if a hub is not a node
+     *         of the graph or is given twice, or the source hub
+     *         is not an index into hubs.
+     */
+    public NearestNeighbourTSP(final IIndexedGraph graph,
+                               final int[] hubs,
+                               final Integer sourceHub) {
+        this(hopMatrix(graph, checkHubs(graph, hubs, sourceHub)), hubMap(graph, hubs), sourceHub);
+    }
+
+    /**
+     * Check that the hubs are distinct nodes of the graph
+     * and the source hub is one of them.
+     *
+     * @return the hubs.
+     */
+    private static int[] checkHubs(final IIndexedGraph graph, final int[] hubs, final Integer sourceHub) {
+        final Set<Integer> seen = new HashSet<>(hubs.length * 2);
+        for (int hub : hubs) {
+            if (hub < 0 || hub >= graph.getNumNodes() || !graph.hasNode(hub)) {
+                throw new IllegalArgumentException("hub " + hub + " is not a node of the graph");
+            }
+            if (!seen.add(hub)) {
+                throw new IllegalArgumentException("hub " + hub + " is given more than once");
+            }
+        }
+        if (null == sourceHub || sourceHub < 0 || sourceHub >= hubs.length) {
+            throw new IllegalArgumentException("source hub " + sourceHub + " is not an index into the hubs");
+        }
+        return hubs;
+    }
+
+    /**
+     * Make the matrix of hop counts between hubs, with
+     * Integer.MAX_VALUE between hubs that cannot reach
+     * each other, which is never taken as a step.
+     */
+    private static PathMatrix hopMatrix(final IIndexedGraph graph, final int[] hubs) {
+        final PathMatrix matrix = new PathMatrix(hubs.length);
+        final IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+        for (int i = 0; i < hubs.length; i++) {
+            bfs.search(hubs[i]);
+            for (int j = 0; j < hubs.length; j++) {
+                matrix.setCost(i, j, bfs.isReached(hubs[j]) ? bfs.getDepth(hubs[j]) : Integer.MAX_VALUE);
+            }
+        }
+        return matrix;
+    }
+
+    private static BiMap<Integer, INode> hubMap(final IIndexedGraph graph, final int[] hubs) {
+        final BiMap<Integer, INode> hubMap = HashBiMap.create(hubs.length);
+        for (int i = 0; i < hubs.length; i++) {
+            hubMap.put(i, graph.getNode(hubs[i]));
+        }
+        return hubMap;
+    }
+
     /**
      * Execute the algorithm.
      *
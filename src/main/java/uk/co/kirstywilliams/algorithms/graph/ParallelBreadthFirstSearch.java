@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.hash.THashSet;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A parallel level-synchronous breadth first search.
+ *
+ * Each level of the search is split into ranges of
+ * frontier nodes which are expanded in parallel in a
+ * fork-join pool. A node is claimed by whichever thread
+ * first swaps its stamp to the current epoch, so every
+ * node is visited exactly once. Each thread gathers the
+ * nodes it claims in its own buffer and appends them to
+ * the next level with a single atomic add, so threads
+ * never contend on the shared queue per node.
+ *
+ * Levels no larger than the sequential cutoff are
+ * expanded in the calling thread.
+ *
+ * A search finds the same nodes and depths as
+ * {@link BreadthFirstSearch#findAll(INode, int, int)}, but
+ * with a depth limit the max depth differs: it is the
+ * depth of the deepest node reached, never more than the
+ * limit, whereas BreadthFirstSearch reports the limit + 1
+ * when there are nodes beyond it.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Parallel_breadth-first_search">https://en.wikipedia.org/wiki/Parallel_breadth-first_search</a>
+ *
+ * @author kirsty
+ */
+public class ParallelBreadthFirstSearch {
+
+    /* default number of frontier nodes expanded by one task */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1024;
+    /* initial size of each thread's next level buffer */
+    private static final int BUFFER_SIZE = 1024;
+
+    /* the graph being searched */
+    private final IIndexedGraph graph;
+    /* the pool tasks are run in */
+    private final ForkJoinPool pool;
+    /* number of frontier nodes expanded by one task */
+    private final int sequentialCutoff;
+    /* the nodes reached, level by level */
+    private final int[] queue;
+    /* the depth of each node reached in the current epoch */
+    private final int[] depth;
+    /* the epoch in which each node was claimed */
+    private final AtomicIntegerArray stamp;
+    /* the end of the next level in the queue */
+    private final AtomicInteger tail = new AtomicInteger();
+    /* each thread's next level buffer */
+    private final ThreadLocal<int[]> buffers = new ThreadLocal<>();
+    /* the current epoch */
+    private int epoch;
+    /* the number of nodes reached */
+    private int numReached;
+    /* the depth of the deepest node reached */
+    private int maxDepth = Integer.MIN_VALUE;
+
+    /**
+     * Instantiates a search over the specified graph that
+     * uses the common pool and the default sequential cutoff.
+     *
+     * @param graph the graph to search.
+     */
+    public ParallelBreadthFirstSearch(final IIndexedGraph graph) {
+        this(graph, ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Instantiates a search over the specified graph with
+     * its own pool of the specified parallelism.
+     *
+     * @param graph the graph to search.
+     * @param parallelism the number of worker threads.
+     * @param sequentialCutoff the number of frontier nodes expanded by one task.
+     */
+    public ParallelBreadthFirstSearch(final IIndexedGraph graph, final int parallelism, final int sequentialCutoff) {
+        this(graph, new ForkJoinPool(parallelism), sequentialCutoff);
+    }
+
+    /**
+     * Instantiates a search over the specified graph that
+     * runs in the specified pool.
+     *
+     * @param graph the graph to search.
+     * @param pool the pool to run in.
+     * @param sequentialCutoff the number of frontier nodes expanded by one task.
+     */
+    public ParallelBreadthFirstSearch(final IIndexedGraph graph, final ForkJoinPool pool, final int sequentialCutoff) {
+        if (sequentialCutoff < 1) {
+            throw new IllegalArgumentException("sequential cutoff must be positive");
+        }
+
+        this.graph = graph;
+        this.pool = pool;
+        this.sequentialCutoff = sequentialCutoff;
+
+        final int numNodes = graph.getNumNodes();
+        this.queue = new int[numNodes];
+        this.depth = new int[numNodes];
+        this.stamp = new AtomicIntegerArray(numNodes);
+    }
+
+    /**
+     * Find all reachable nodes from the source node.
+     *
+     * @param source the source node.
+     * @return set of all reachable nodes.
+     */
+    public final THashSet<INode> findAll(final INode source) {
+        return findAll(source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find all reachable nodes from the source node within
+     * the depth limit.
+     *
+     * @param source the source node.
+     * @param depthLimit the depth limit.
+     * @return set of all reachable nodes.
+     */
+    public final THashSet<INode> findAll(final INode source, final int depthLimit) {
+        final int s = graph.getIndex(source);
+        if (s < 0) {
+            throw new IllegalArgumentException("source node is not in the graph");
+        }
+
+        final int reached = search(s, depthLimit);
+
+        final THashSet<INode> visited = new THashSet<>(reached);
+        for (int i = 0; i < reached; i++) {
+            visited.add(graph.getNode(queue[i]));
+        }
+
+        return visited;
+    }
+
+    /**
+     * Search all nodes reachable from the source.
+     *
+     * @param source the source node index.
+     * @return the number of nodes reached.
+     */
+    public final int search(final int source) {
+        return search(source, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Search all nodes reachable from the source within
+     * the depth limit.
+     *
+     * @param source the source node index.
+     * @param depthLimit the depth limit.
+     * @return the number of nodes reached.
+     * @throws IllegalArgumentException if the source is not a node of the graph.
+     */
+    public final int search(final int source, final int depthLimit) {
+        if (source < 0 || source >= graph.getNumNodes() || !graph.hasNode(source)) {
+            throw new IllegalArgumentException("source " + source + " is not a node of the graph");
+        }
+
+        nextEpoch();
+
+        queue[0] = source;
+        depth[source] = 0;
+        stamp.set(source, epoch);
+
+        // the current level is queue[levelStart, levelEnd)
+        int levelStart = 0;
+        int levelEnd = 1;
+        int level = 0;
+        while (levelStart < levelEnd && level < depthLimit) {
+            tail.set(levelEnd);
+
+            final Expander expander = new Expander(levelStart, levelEnd, level + 1);
+            if (levelEnd - levelStart <= sequentialCutoff) {
+                expander.compute();
+            } else {
+                pool.invoke(expander);
+            }
+
+            levelStart = levelEnd;
+            levelEnd = tail.get();
+            level++;
+        }
+
+        numReached = levelEnd;
+        maxDepth = depth[queue[levelEnd - 1]];
+        return levelEnd;
+    }
+
+    /**
+     * Start a new epoch, clearing the stamps if the epoch
+     * counter wraps around.
+     */
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            for (int n = 0; n < stamp.length(); n++) {
+                stamp.set(n, 0);
+            }
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Claim a node for the current epoch.
+     *
+     * @param n the node index.
+     * @return whether this thread claimed it.
+     */
+    private boolean claim(final int n) {
+        int s;
+        while ((s = stamp.get(n)) != epoch) {
+            if (stamp.compareAndSet(n, s, epoch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the tree depth, i.e. the depth of every node
+     * reached by the last search.
+     *
+     * @return the depth.
+     */
+    public final TObjectIntMap<INode> getDepth() {
+        final TObjectIntMap<INode> depthMap =
+                new TObjectIntHashMap<>(Math.max(numReached, 1), 0.5f, Integer.MIN_VALUE);
+        for (int i = 0; i < numReached; i++) {
+            depthMap.put(graph.getNode(queue[i]), depth[queue[i]]);
+        }
+        return depthMap;
+    }
+
+    /**
+     * Gets the depth of a node in the last search.
+     *
+     * @param n the node index.
+     * @return the depth, or -1 if the node was not reached.
+     */
+    public final int getDepth(final int n) {
+        return stamp.get(n) == epoch ? depth[n] : -1;
+    }
+
+    /**
+     * Gets the maximum depth, i.e. the depth of the deepest
+     * node reached by the last search, which is at most its
+     * depth limit.
+     *
+     * @return the maximum depth.
+     */
+    public final int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the number of nodes reached by the last search.
+     *
+     * @return the number of nodes reached.
+     */
+    public final int getNumReached() {
+        return numReached;
+    }
+
+    /**
+     * Get the parallelism of the pool.
+     *
+     * @return the number of worker threads.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Shut down the pool. Has no effect on the common pool.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Expands a range of the frontier into the next level.
+     */
+    private final class Expander extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int nextDepth;
+
+        Expander(int lo, int hi, int nextDepth) {
+            this.lo = lo;
+            this.hi = hi;
+            this.nextDepth = nextDepth;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > sequentialCutoff) {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(new Expander(lo, mid, nextDepth), new Expander(mid, hi, nextDepth));
+                return;
+            }
+
+            int[] buffer = buffers.get();
+            if (buffer == null) {
+                buffer = new int[BUFFER_SIZE];
+            }
+
+            int size = 0;
+            for (int i = lo; i < hi; i++) {
+                final int n = queue[i];
+                final int degree = graph.getDegree(n);
+                for (int j = 0; j < degree; j++) {
+                    final int m = graph.getNeighbour(n, j);
+                    if (claim(m)) {
+                        depth[m] = nextDepth;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, 2 * size);
+                        }
+                        buffer[size++] = m;
+                    }
+                }
+            }
+
+            // append the claimed nodes to the next level
+            if (size > 0) {
+                System.arraycopy(buffer, 0, queue, tail.getAndAdd(size), size);
+            }
+            buffers.set(buffer);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.set.hash.THashSet;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A graph of connected node objects that may be read
+ * and changed by many threads at once.
+ *
+ * Every node gets an id when added, and the adjacency
+ * of a node (its outgoing and incoming edges) is guarded
+ * by one of a fixed number of read-write locks, picked
+ * by id. Changing an edge write-locks the stripes of its
+ * two nodes, taken in stripe order so that no two
+ * threads deadlock; reading a node's edges read-locks
+ * its stripe. Threads working on nodes in different
+ * stripes never wait for each other, and readers of one
+ * stripe share it.
+ *
+ * Deleting a node write-locks every stripe, as its
+ * neighbours may be in any of them, so it is much
+ * dearer than the other operations.
+ *
+ * Linearisability: adding a node, creating or deleting
+ * an edge and deleting a node are each atomic, taking
+ * effect at one instant while their locks are held.
+ * Reading a single node's neighbours, degree or edges is
+ * atomic too. The counts of nodes and edges and the
+ * iteration over all nodes are weakly consistent, and
+ * {@link #getReachable(INode)} reads each node's
+ * neighbours atomically but is not a snapshot of the
+ * whole graph.
+ *
+ * Nodes must only be changed through the graph once
+ * added, and should have no edges when added.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Lock_(computer_science)">https://en.wikipedia.org/wiki/Lock_(computer_science)</a>
+ *
+ * @author kirsty
+ */
+public class ConcurrentGraph {
+
+    /* The default number of lock stripes */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /* The id of each node */
+    private final ConcurrentHashMap<INode, Integer> ids = new ConcurrentHashMap<>();
+    /* The edges in this graph */
+    private final Set<IEdge> edges = ConcurrentHashMap.newKeySet();
+    /* The next id to hand out */
+    private final AtomicInteger nextId = new AtomicInteger();
+    /* The lock guarding the adjacency of each stripe of nodes */
+    private final ReentrantReadWriteLock[] stripes;
+    /* stripes.length - 1 */
+    private final int mask;
+
+    /**
+     * Instantiates an empty graph with the default number
+     * of lock stripes.
+     */
+    public ConcurrentGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Instantiates an empty graph with at least the
+     * specified number of lock stripes.
+     *
+     * @param numStripes the number of lock stripes, rounded up to a power of two.
+     */
+    public ConcurrentGraph(final int numStripes) {
+        if (numStripes < 1) {
+            throw new IllegalArgumentException("numStripes must be positive");
+        }
+
+        int n = 1;
+        while (n < numStripes) {
+            n <<= 1;
+        }
+        stripes = new ReentrantReadWriteLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        mask = n - 1;
+    }
+
+    /**
+     * Add the specified node to the graph.
+     *
+     * @param n the node to add.
+     * @return the added node.
+     */
+    public final INode addNode(final INode n) {
+        ids.computeIfAbsent(n, key -> nextId.getAndIncrement());
+        return n;
+    }
+
+    /**
+     * Create a new node at the specified coordinates.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @return the new node.
+     */
+    public final INode createNode(final double x, final double y) {
+        return addNode(new Node(x, y, 4));
+    }
+
+    /**
+     * Create a new directed edge between the two specified
+     * nodes.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return the new edge, or null if either node is not in the graph.
+     */
+    public final IEdge createDirectedEdge(final INode source, final INode target) {
+        if ((null == source) || (null == target) || (source == target)) {
+            return null;
+        }
+
+        final Lock[] locks = lockBoth(source, target);
+        if (null == locks) {
+            return null;
+        }
+        try {
+            return addEdge(source, target);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Create a new bidirectional edge between the two
+     * specified nodes.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return whether the new edges have been created.
+     */
+    public final boolean createBidirectionalEdge(final INode source, final INode target) {
+        if ((null == source) || (null == target) || (source == target)) {
+            return false;
+        }
+
+        final Lock[] locks = lockBoth(source, target);
+        if (null == locks) {
+            return false;
+        }
+        try {
+            addEdge(source, target);
+            addEdge(target, source);
+            return true;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Delete the edges connecting the two specified nodes,
+     * in both directions.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return whether any edge was deleted.
+     */
+    public final boolean deleteEdge(final INode source, final INode target) {
+        if ((null == source) || (null == target)) {
+            return false;
+        }
+
+        final Lock[] locks = lockBoth(source, target);
+        if (null == locks) {
+            return false;
+        }
+        try {
+            final IEdge e = source.deleteEdge(target);
+            if (null != e) {
+                edges.remove(e);
+            }
+            final IEdge f = target.deleteEdge(source);
+            if (null != f) {
+                edges.remove(f);
+            }
+            return (null != e) || (null != f);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Delete the specified node, and all its edges, from
+     * the graph.
+     *
+     * @param n the node to delete.
+     * @return whether the node was in the graph.
+     */
+    public final boolean deleteNode(final INode n) {
+        for (ReentrantReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+        try {
+            if (null == ids.remove(n)) {
+                return false;
+            }
+
+            for (IEdge e : n.getEdges()) {
+                edges.remove(e);
+            }
+            for (IEdge e : n.getIncomingEdges()) {
+                edges.remove(e);
+            }
+            n.clearEdges();
+            n.clearIncomingEdges();
+            return true;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Check whether there is an edge from one node to
+     * another.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     * @return whether the nodes are connected.
+     */
+    public final boolean isConnected(final INode source, final INode target) {
+        final Lock lock = readLock(source);
+        if (null == lock) {
+            return false;
+        }
+        try {
+            return source.isConnected(target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of edges leaving a node.
+     *
+     * @param n the node.
+     * @return the degree, or 0 if the node is not in the graph.
+     */
+    public final int getDegree(final INode n) {
+        final Lock lock = readLock(n);
+        if (null == lock) {
+            return 0;
+        }
+        try {
+            return n.getDegree();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a copy of a node's neighbours.
+     *
+     * @param n the node.
+     * @return the neighbours, empty if the node is not in the graph.
+     */
+    public final List<INode> getNeighbours(final INode n) {
+        final Lock lock = readLock(n);
+        if (null == lock) {
+            return Collections.emptyList();
+        }
+        try {
+            return new ArrayList<>(n.getNeighbours());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply the procedure to each of a node's neighbours,
+     * stopping if it returns false. The neighbours are
+     * copied under the node's read lock and the procedure
+     * runs after it is released, so it may read or change
+     * the graph.
+     *
+     * @param n the node.
+     * @param procedure the procedure to apply.
+     */
+    public final void forEachNeighbour(final INode n, final TObjectProcedure<INode> procedure) {
+        for (INode m : getNeighbours(n)) {
+            if (!procedure.execute(m)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Find every node reachable from the source by a
+     * breadth first search.
+     *
+     * @param source the source node.
+     * @return the nodes reached, in the order reached.
+     */
+    public final List<INode> getReachable(final INode source) {
+        final List<INode> reached = new ArrayList<>();
+        if (!ids.containsKey(source)) {
+            return reached;
+        }
+
+        final THashSet<INode> visited = new THashSet<>();
+        final Queue<INode> queue = new ArrayDeque<>();
+        visited.add(source);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            final INode n = queue.poll();
+            reached.add(n);
+            for (INode m : getNeighbours(n)) {
+                if (visited.add(m)) {
+                    queue.add(m);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Check whether a node is in the graph.
+     *
+     * @param n the node.
+     * @return whether the node is in the graph.
+     */
+    public final boolean contains(final INode n) {
+        return ids.containsKey(n);
+    }
+
+    /**
+     * Get the nodes in the graph, as a weakly consistent
+     * view.
+     *
+     * @return the set of nodes.
+     */
+    public final Set<INode> getNodes() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Get the number of nodes in the graph.
+     *
+     * @return the total number of nodes.
+     */
+    public final int getNumNodes() {
+        return ids.size();
+    }
+
+    /**
+     * Get the number of edges in the graph.
+     *
+     * @return the total number of edges.
+     */
+    public final int getNumEdges() {
+        return edges.size();
+    }
+
+    /**
+     * Get the number of lock stripes.
+     *
+     * @return the number of stripes.
+     */
+    public final int getNumStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Add an edge while holding both nodes' write locks.
+     */
+    private IEdge addEdge(final INode source, final INode target) {
+        final IEdge existing = source.getEdge(target);
+        if (null != existing) {
+            return existing;
+        }
+
+        final IEdge e = source.addEdge(target);
+        edges.add(e);
+        return e;
+    }
+
+    /**
+     * Write-lock the stripes of two nodes, in stripe order.
+     *
+     * @return the locks taken, or null if either node is not in the graph.
+     */
+    private Lock[] lockBoth(final INode n, final INode m) {
+        final Integer nId = ids.get(n);
+        final Integer mId = ids.get(m);
+        if ((null == nId) || (null == mId)) {
+            return null;
+        }
+
+        final int a = nId & mask;
+        final int b = mId & mask;
+        final Lock[] locks = (a == b)
+                ? new Lock[]{stripes[a].writeLock()}
+                : new Lock[]{stripes[Math.min(a, b)].writeLock(), stripes[Math.max(a, b)].writeLock()};
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+
+        // a node deleted (and maybe re-added) while we waited
+        if (!nId.equals(ids.get(n)) || !mId.equals(ids.get(m))) {
+            unlock(locks);
+            return null;
+        }
+        return locks;
+    }
+
+    /**
+     * Read-lock the stripe of a node.
+     *
+     * @return the lock taken, or null if the node is not in the graph.
+     */
+    private Lock readLock(final INode n) {
+        final Integer id = ids.get(n);
+        if (null == id) {
+            return null;
+        }
+
+        final Lock lock = stripes[id & mask].readLock();
+        lock.lock();
+        if (!id.equals(ids.get(n))) {
+            lock.unlock();
+            return null;
+        }
+        return lock;
+    }
+
+    private static void unlock(final Lock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set (union-find) forest over dense int
+ * elements, 0 to size() - 1.
+ *
+ * Union by rank keeps the trees shallow and finds halve
+ * the path as they go, so any sequence of operations
+ * takes near constant amortised time per operation.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">https://en.wikipedia.org/wiki/Disjoint-set_data_structure</a>
+ *
+ * @author kirsty
+ */
+public class DisjointSet {
+
+    /* the parent of each element; roots are their own parent */
+    private int[] parent;
+    /* an upper bound on the height of each root's tree */
+    private byte[] rank;
+    /* the number of elements */
+    private int size;
+    /* the number of disjoint sets */
+    private int numSets;
+
+    /**
+     * Instantiates an empty disjoint-set forest.
+     */
+    public DisjointSet() {
+        this(16);
+    }
+
+    /**
+     * Instantiates an empty disjoint-set forest with room
+     * for the specified number of elements.
+     *
+     * @param capacity the initial capacity.
+     */
+    public DisjointSet(int capacity) {
+        parent = new int[Math.max(capacity, 1)];
+        rank = new byte[parent.length];
+    }
+
+    /**
+     * Add a new element in a set of its own.
+     *
+     * @return the new element.
+     */
+    public final int add() {
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, 2 * size);
+            rank = Arrays.copyOf(rank, 2 * size);
+        }
+
+        parent[size] = size;
+        rank[size] = 0;
+        numSets++;
+        return size++;
+    }
+
+    /**
+     * Find the representative of the set containing an element.
+     *
+     * @param x the element.
+     * @return the root of its set.
+     */
+    public final int find(int x) {
+        while (parent[x] != x) {
+            // path halving: point every other node at its grandparent
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merge the sets containing two elements.
+     *
+     * @param x an element.
+     * @param y another element.
+     * @return whether they were in different sets.
+     */
+    public final boolean union(final int x, final int y) {
+        int rx = find(x);
+        int ry = find(y);
+        if (rx == ry) {
+            return false;
+        }
+
+        if (rank[rx] < rank[ry]) {
+            final int t = rx;
+            rx = ry;
+            ry = t;
+        } else if (rank[rx] == rank[ry]) {
+            rank[rx]++;
+        }
+
+        parent[ry] = rx;
+        numSets--;
+        return true;
+    }
+
+    /**
+     * Check whether two elements are in the same set.
+     *
+     * @param x an element.
+     * @param y another element.
+     * @return whether they are in the same set.
+     */
+    public final boolean isConnected(final int x, final int y) {
+        return find(x) == find(y);
+    }
+
+    /**
+     * Get the number of disjoint sets.
+     *
+     * @return the number of sets.
+     */
+    public final int getNumSets() {
+        return numSets;
+    }
+
+    /**
+     * Get the number of elements.
+     *
+     * @return the number of elements.
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Remove every element.
+     */
+    public final void clear() {
+        size = 0;
+        numSets = 0;
+    }
+}
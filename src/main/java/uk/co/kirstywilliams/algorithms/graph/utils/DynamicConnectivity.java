@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.THashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fully dynamic connectivity of an undirected graph over
+ * dense int vertices, after Holm, de Lichtenberg and
+ * Thorup.
+ *
+ * Every edge has a level, from 0 up to log n. For each
+ * level i there is a spanning forest F_i of the edges of
+ * level i or more, with F_0 spanning the whole graph, and
+ * the trees of F_i have at most n / 2^i vertices. Each
+ * forest is held as Euler tours in treaps, so linking,
+ * cutting and finding the tree of a vertex take O(log n).
+ *
+ * Deleting a tree edge of level l splits a tree of each
+ * of F_0 to F_l. Working down from level l, the smaller
+ * half's level i tree edges move up to level i + 1, then
+ * its level i non-tree edges are tried as replacements;
+ * those that do not reconnect the halves also move up.
+ * As an edge's level only rises, each edge is paid for
+ * at most log n times, giving O(log^2 n) amortised time
+ * per update and O(log n) per query.
+ *
+ * Parallel edges are counted, so an edge is only removed
+ * once every copy of it is.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Dynamic_connectivity">https://en.wikipedia.org/wiki/Dynamic_connectivity</a>
+ * @See <a href="https://en.wikipedia.org/wiki/Euler_tour_technique">https://en.wikipedia.org/wiki/Euler_tour_technique</a>
+ *
+ * @author kirsty
+ */
+public class DynamicConnectivity {
+
+    /* flag on the tour node of a tree edge in the forest of its own level */
+    private static final int TREE_EDGE = 1;
+    /* flag on the tour node of a vertex with non-tree edges of this level */
+    private static final int NON_TREE_EDGES = 2;
+
+    /* each level's tour node of each vertex, created when first needed */
+    private EulerNode[][] vertexNodes = new EulerNode[1][16];
+    /* the multiplicity of each vertex's edges, by neighbour */
+    private TIntIntHashMap[] adjacency = new TIntIntHashMap[16];
+    /* the edges, by vertex pair */
+    private final TLongObjectHashMap<LevelEdge> edges = new TLongObjectHashMap<>();
+    /* the non-tree edges of each vertex, by level and vertex */
+    private final TLongObjectHashMap<THashSet<LevelEdge>> nonTreeEdges = new TLongObjectHashMap<>();
+    /* ids of removed vertices, for reuse */
+    private final TIntArrayList freeVertices = new TIntArrayList();
+    /* the number of vertex ids handed out */
+    private int capacity;
+    /* the number of vertices */
+    private int numVertices;
+    /* the number of edges in the spanning forest */
+    private int numTreeEdges;
+    /* state of the treap priority generator */
+    private int seed = 0x2545F491;
+    /* the results of the last split */
+    private EulerNode splitLeft;
+    private EulerNode splitRight;
+
+    /**
+     * Add a vertex with no edges.
+     *
+     * @return the new vertex.
+     */
+    public final int addVertex() {
+        numVertices++;
+        if (!freeVertices.isEmpty()) {
+            return freeVertices.removeAt(freeVertices.size() - 1);
+        }
+
+        if (capacity == adjacency.length) {
+            adjacency = Arrays.copyOf(adjacency, 2 * capacity);
+            for (int i = 0; i < vertexNodes.length; i++) {
+                vertexNodes[i] = Arrays.copyOf(vertexNodes[i], 2 * capacity);
+            }
+        }
+        adjacency[capacity] = new TIntIntHashMap();
+        return capacity++;
+    }
+
+    /**
+     * Remove a vertex and all its edges. The id may be
+     * handed out again by {@link #addVertex()}.
+     *
+     * @param v the vertex.
+     */
+    public final void removeVertex(final int v) {
+        final TIntIntHashMap neighbours = adjacency[v];
+        for (int w : neighbours.keys()) {
+            neighbours.put(w, 1);
+            adjacency[w].put(v, 1);
+            removeEdge(v, w);
+        }
+
+        for (EulerNode[] level : vertexNodes) {
+            level[v] = null;
+        }
+        freeVertices.add(v);
+        numVertices--;
+    }
+
+    /**
+     * Add an edge between two vertices.
+     *
+     * @param u a vertex.
+     * @param v another vertex.
+     * @return whether the edge joined two components.
+     */
+    public final boolean addEdge(final int u, final int v) {
+        if (u == v) {
+            return false;
+        }
+
+        adjacency[v].adjustOrPutValue(u, 1, 1);
+        if (adjacency[u].adjustOrPutValue(v, 1, 1) > 1) {
+            return false;
+        }
+
+        final LevelEdge e = new LevelEdge(u, v);
+        edges.put(key(u, v), e);
+        if (isConnected(u, v)) {
+            addNonTreeEdge(e);
+            return false;
+        }
+
+        e.tree = true;
+        link(0, e);
+        setFlags(e.arcs[0], TREE_EDGE);
+        numTreeEdges++;
+        return true;
+    }
+
+    /**
+     * Remove an edge between two vertices.
+     *
+     * @param u a vertex.
+     * @param v another vertex.
+     * @return whether removing the edge split a component.
+     */
+    public final boolean removeEdge(final int u, final int v) {
+        final TIntIntHashMap neighbours = adjacency[u];
+        final int multiplicity = neighbours.get(v);
+        if (multiplicity == 0) {
+            return false;
+        }
+        if (multiplicity > 1) {
+            neighbours.put(v, multiplicity - 1);
+            adjacency[v].put(u, multiplicity - 1);
+            return false;
+        }
+        neighbours.remove(v);
+        adjacency[v].remove(u);
+
+        final LevelEdge e = edges.remove(key(u, v));
+        if (!e.tree) {
+            removeNonTreeEdge(e);
+            return false;
+        }
+
+        for (int i = 0; i <= e.level; i++) {
+            cut(i, e);
+        }
+        numTreeEdges--;
+
+        if (replace(e.u, e.v, e.level)) {
+            numTreeEdges++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check whether there is an edge between two vertices.
+     *
+     * @param u a vertex.
+     * @param v another vertex.
+     * @return whether they are adjacent.
+     */
+    public final boolean hasEdge(final int u, final int v) {
+        return adjacency[u].containsKey(v);
+    }
+
+    /**
+     * Check whether two vertices are in the same component.
+     *
+     * @param u a vertex.
+     * @param v another vertex.
+     * @return whether they are connected.
+     */
+    public final boolean isConnected(final int u, final int v) {
+        return u == v || root(vertexNode(0, u)) == root(vertexNode(0, v));
+    }
+
+    /**
+     * Get a representative vertex of the component of a
+     * vertex. Vertices in the same component have the same
+     * representative until the graph is next changed.
+     *
+     * @param v the vertex.
+     * @return the representative.
+     */
+    public final int componentOf(final int v) {
+        EulerNode n = root(vertexNode(0, v));
+
+        // the first vertex in the tour
+        while (true) {
+            if (n.left != null && n.left.vertices > 0) {
+                n = n.left;
+            } else if (n.isVertex()) {
+                return n.u;
+            } else {
+                n = n.right;
+            }
+        }
+    }
+
+    /**
+     * Get the number of vertices in the component of a vertex.
+     *
+     * @param v the vertex.
+     * @return the component size.
+     */
+    public final int getComponentSize(final int v) {
+        return root(vertexNode(0, v)).vertices;
+    }
+
+    /**
+     * Get the number of connected components.
+     *
+     * @return the number of components.
+     */
+    public final int getNumComponents() {
+        return numVertices - numTreeEdges;
+    }
+
+    /**
+     * Get the number of vertices.
+     *
+     * @return the number of vertices.
+     */
+    public final int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Look for an edge to replace a deleted tree edge of
+     * the specified level between u and v.
+     *
+     * @param u one end of the deleted edge.
+     * @param v the other end.
+     * @param level the level of the deleted edge.
+     * @return whether a replacement was found.
+     */
+    private boolean replace(final int u, final int v, final int level) {
+        final List<EulerNode> found = new ArrayList<>();
+        for (int i = level; i >= 0; i--) {
+            final EulerNode ru = root(vertexNode(i, u));
+            final EulerNode rv = root(vertexNode(i, v));
+            final EulerNode small = (ru.vertices <= rv.vertices) ? ru : rv;
+
+            // push the smaller tree's level i tree edges up a level
+            found.clear();
+            collect(small, TREE_EDGE, found);
+            for (EulerNode arc : found) {
+                final LevelEdge e = arc.edge;
+                setFlags(arc, 0);
+                e.level = i + 1;
+                link(i + 1, e);
+                setFlags(e.arcs[2 * (i + 1)], TREE_EDGE);
+            }
+
+            // try its level i non-tree edges as replacements
+            found.clear();
+            collect(small, NON_TREE_EDGES, found);
+            for (EulerNode x : found) {
+                final THashSet<LevelEdge> candidates = nonTreeEdges.get(levelKey(i, x.u));
+                if (candidates == null) {
+                    continue;
+                }
+
+                for (LevelEdge e : candidates.toArray(new LevelEdge[candidates.size()])) {
+                    if (e.level != i || e.tree) {
+                        continue;
+                    }
+
+                    final int y = (e.u == x.u) ? e.v : e.u;
+                    removeNonTreeEdge(e);
+                    if (root(vertexNode(i, y)) == small) {
+                        e.level = i + 1;
+                        addNonTreeEdge(e);
+                        continue;
+                    }
+
+                    e.tree = true;
+                    for (int j = 0; j <= i; j++) {
+                        link(j, e);
+                    }
+                    setFlags(e.arcs[2 * i], TREE_EDGE);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collect the nodes of a tour with any of the specified flags.
+     */
+    private static void collect(final EulerNode n, final int flag, final List<EulerNode> found) {
+        if (n == null || (n.aggregate & flag) == 0) {
+            return;
+        }
+        if ((n.flags & flag) != 0) {
+            found.add(n);
+        }
+        collect(n.left, flag, found);
+        collect(n.right, flag, found);
+    }
+
+    private void addNonTreeEdge(final LevelEdge e) {
+        addNonTreeEdge(e, e.u);
+        addNonTreeEdge(e, e.v);
+    }
+
+    private void addNonTreeEdge(final LevelEdge e, final int x) {
+        final long k = levelKey(e.level, x);
+        THashSet<LevelEdge> set = nonTreeEdges.get(k);
+        if (set == null) {
+            set = new THashSet<>();
+            nonTreeEdges.put(k, set);
+            setFlags(vertexNode(e.level, x), NON_TREE_EDGES);
+        }
+        set.add(e);
+    }
+
+    private void removeNonTreeEdge(final LevelEdge e) {
+        removeNonTreeEdge(e, e.u);
+        removeNonTreeEdge(e, e.v);
+    }
+
+    private void removeNonTreeEdge(final LevelEdge e, final int x) {
+        final long k = levelKey(e.level, x);
+        final THashSet<LevelEdge> set = nonTreeEdges.get(k);
+        set.remove(e);
+        if (set.isEmpty()) {
+            nonTreeEdges.remove(k);
+            setFlags(vertexNode(e.level, x), 0);
+        }
+    }
+
+    /**
+     * Get the tour node of a vertex in a level's forest.
+     *
+     * @param level the level.
+     * @param v the vertex.
+     * @return the tour node.
+     */
+    private EulerNode vertexNode(final int level, final int v) {
+        if (level >= vertexNodes.length) {
+            final int numLevels = vertexNodes.length;
+            vertexNodes = Arrays.copyOf(vertexNodes, level + 1);
+            for (int i = numLevels; i <= level; i++) {
+                vertexNodes[i] = new EulerNode[adjacency.length];
+            }
+        }
+
+        EulerNode n = vertexNodes[level][v];
+        if (n == null) {
+            n = new EulerNode(v, v, null, nextPriority());
+            vertexNodes[level][v] = n;
+        }
+        return n;
+    }
+
+    /**
+     * Join the trees of an edge's ends in a level's forest.
+     *
+     * @param level the level.
+     * @param e the edge.
+     */
+    private void link(final int level, final LevelEdge e) {
+        if (e.arcs.length < 2 * (level + 1)) {
+            e.arcs = Arrays.copyOf(e.arcs, 2 * (level + 1));
+        }
+
+        final EulerNode uv = new EulerNode(e.u, e.v, e, nextPriority());
+        final EulerNode vu = new EulerNode(e.v, e.u, e, nextPriority());
+        e.arcs[2 * level] = uv;
+        e.arcs[2 * level + 1] = vu;
+
+        // the tour from u, then u to v, the tour from v, then v to u
+        final EulerNode tu = reroot(vertexNode(level, e.u));
+        final EulerNode tv = reroot(vertexNode(level, e.v));
+        detach(merge(merge(merge(tu, uv), tv), vu));
+    }
+
+    /**
+     * Split an edge's tree in a level's forest.
+     *
+     * @param level the level.
+     * @param e the edge.
+     */
+    private void cut(final int level, final LevelEdge e) {
+        EulerNode first = e.arcs[2 * level];
+        EulerNode second = e.arcs[2 * level + 1];
+        e.arcs[2 * level] = null;
+        e.arcs[2 * level + 1] = null;
+
+        int p = position(first);
+        int q = position(second);
+        if (p > q) {
+            final EulerNode t = first;
+            first = second;
+            second = t;
+            final int s = p;
+            p = q;
+            q = s;
+        }
+
+        // the tour is A first B second C; B is one tree, A C the other
+        split(root(first), p);
+        final EulerNode a = splitLeft;
+        split(splitRight, 1);
+        split(splitRight, q - p - 1);
+        final EulerNode b = splitLeft;
+        split(splitRight, 1);
+        final EulerNode c = splitRight;
+
+        detach(b);
+        detach(merge(a, c));
+    }
+
+    /**
+     * Rotate a tour so that it starts at the specified node.
+     *
+     * @param n the node.
+     * @return the root of the rotated tour.
+     */
+    private EulerNode reroot(final EulerNode n) {
+        split(root(n), position(n));
+        return merge(splitRight, splitLeft);
+    }
+
+    /**
+     * Split a treap into its first k nodes (splitLeft)
+     * and the rest (splitRight).
+     */
+    private void split(final EulerNode t, final int k) {
+        splitNodes(t, k);
+        detach(splitLeft);
+        detach(splitRight);
+    }
+
+    private void splitNodes(final EulerNode t, final int k) {
+        if (t == null) {
+            splitLeft = null;
+            splitRight = null;
+            return;
+        }
+
+        if (size(t.left) >= k) {
+            splitNodes(t.left, k);
+            t.left = splitRight;
+            if (splitRight != null) {
+                splitRight.parent = t;
+            }
+            t.update();
+            splitRight = t;
+        } else {
+            splitNodes(t.right, k - size(t.left) - 1);
+            t.right = splitLeft;
+            if (splitLeft != null) {
+                splitLeft.parent = t;
+            }
+            t.update();
+            splitLeft = t;
+        }
+    }
+
+    /**
+     * Concatenate two treaps.
+     */
+    private static EulerNode merge(final EulerNode a, final EulerNode b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.right.parent = a;
+            a.update();
+            return a;
+        }
+
+        b.left = merge(a, b.left);
+        b.left.parent = b;
+        b.update();
+        return b;
+    }
+
+    private static EulerNode detach(final EulerNode n) {
+        if (n != null) {
+            n.parent = null;
+        }
+        return n;
+    }
+
+    private static EulerNode root(EulerNode n) {
+        while (n.parent != null) {
+            n = n.parent;
+        }
+        return n;
+    }
+
+    /* the index of a node in its tour */
+    private static int position(EulerNode n) {
+        int p = size(n.left);
+        while (n.parent != null) {
+            if (n == n.parent.right) {
+                p += size(n.parent.left) + 1;
+            }
+            n = n.parent;
+        }
+        return p;
+    }
+
+    private static int size(final EulerNode n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void setFlags(final EulerNode n, final int flags) {
+        n.flags = flags;
+        for (EulerNode m = n; m != null; m = m.parent) {
+            m.update();
+        }
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static long key(final int u, final int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    private static long levelKey(final int level, final int v) {
+        return ((long) level << 32) | v;
+    }
+
+    /**
+     * An undirected edge and its tour nodes in each level's
+     * forest, while it is a tree edge.
+     */
+    private static final class LevelEdge {
+
+        final int u;
+        final int v;
+        int level;
+        boolean tree;
+        /* the u to v and v to u tour nodes at each level, in pairs */
+        EulerNode[] arcs = new EulerNode[2];
+
+        LevelEdge(final int u, final int v) {
+            this.u = u;
+            this.v = v;
+        }
+    }
+
+    /**
+     * A node of an Euler tour treap: a vertex, or one
+     * direction of a tree edge.
+     */
+    private static final class EulerNode {
+
+        final int u;
+        final int v;
+        final LevelEdge edge;
+        final int priority;
+        EulerNode left;
+        EulerNode right;
+        EulerNode parent;
+        /* the number of nodes in this subtree */
+        int size = 1;
+        /* the number of vertex nodes in this subtree */
+        int vertices;
+        /* this node's flags */
+        int flags;
+        /* the union of the flags in this subtree */
+        int aggregate;
+
+        EulerNode(final int u, final int v, final LevelEdge edge, final int priority) {
+            this.u = u;
+            this.v = v;
+            this.edge = edge;
+            this.priority = priority;
+            this.vertices = isVertex() ? 1 : 0;
+        }
+
+        boolean isVertex() {
+            return edge == null;
+        }
+
+        void update() {
+            size = 1;
+            vertices = isVertex() ? 1 : 0;
+            aggregate = flags;
+            if (left != null) {
+                size += left.size;
+                vertices += left.vertices;
+                aggregate |= left.aggregate;
+            }
+            if (right != null) {
+                size += right.size;
+                vertices += right.vertices;
+                aggregate |= right.aggregate;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+/**
+ * Makes the edges of a node, e.g. Edge::new.
+ *
+ * @author kirsty
+ */
+@FunctionalInterface
+public interface EdgeFactory {
+
+    IEdge create(INode source, INode target);
+
+}
@@ -4,19 +4,49 @@
 
 package uk.co.kirstywilliams.algorithms.graph.utils;
 
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.set.hash.THashSet;
-import uk.co.kirstywilliams.algorithms.graph.BreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
 import uk.co.kirstywilliams.algorithms.graph.utils.impl.Node;
 
 import java.awt.geom.Rectangle2D;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
  * A simple graph of connected node objects.
  * Nodes and edges may have an associated weight.
+ *
+ * The graph keeps a dynamic connectivity index of
+ * its (weakly) connected components, which is kept
+ * up to date as edges and nodes are created and
+ * deleted. Bulk changes mark the index stale, and
+ * it is rebuilt the next time it is queried.
+ *
+ * Coordinate lookups use a quadtree of the node
+ * locations, built on the first lookup and then kept
+ * up to date as nodes are added, deleted and moved.
+ * The graph listens to the {@link Node}s it holds, so
+ * they may be moved with {@link INode#setLocation} or
+ * {@link #setLocation(INode, double, double)}, even if
+ * they are in several graphs; other nodes must be moved
+ * through the graph, and only that graph is updated. A node moved by
+ * changing the coordinate from {@link INode#getLocation()}
+ * is still found at its old location.
+ *
+ * The graph is not thread safe, but its topology can be
+ * published to readers on other threads: {@link #commit()}
+ * makes an immutable {@link GraphSnapshot} that shares
+ * structure with the previous one, and {@link #snapshot()}
+ * returns the latest from any thread.
  */
 public class Graph {
 
@@ -24,8 +54,32 @@ public class Graph {
     private final THashSet<INode> nodes;
     /* The edges in this graph */
     private final THashSet<IEdge> edges;
-    /* The node class being used. */
-    private Class<? extends INode> nodeClass = Node.class;
+    /* Makes the nodes created by this graph */
+    private NodeFactory nodeFactory = Node::new;
+    /* The id of each node */
+    private final TObjectIntHashMap<INode> ids = new TObjectIntHashMap<>(10, 0.5f, -1);
+    /* The node with each id, or null if the id is free */
+    private INode[] nodesById = new INode[16];
+    /* Ids freed by deleted nodes, for reuse */
+    private final TIntArrayList freeIds = new TIntArrayList();
+    /* One more than the largest id handed out */
+    private int idBound;
+    /* The vertex of each node in the component index, by id */
+    private int[] componentVertex = new int[16];
+    /* The connected components, by node vertex */
+    private DynamicConnectivity components = new DynamicConnectivity();
+    /* Whether the component index is stale */
+    private boolean componentsStale = true;
+    /* The location of each node, by id, or null until first used */
+    private QuadTree locations;
+    /* Keeps the quadtree up to date as nodes move */
+    private final LocationListener locationListener = this::moved;
+    /* The ids of the nodes changed since the last commit */
+    private final TIntHashSet changed = new TIntHashSet();
+    /* Whether every node has changed since the last commit */
+    private boolean changedAll;
+    /* The last committed version */
+    private volatile GraphSnapshot snapshot = GraphSnapshot.EMPTY;
 
     /**
      * Instantiates an empty graph.
@@ -64,7 +118,25 @@ public class Graph {
      * @return the added node.
      */
     public final INode addNode(INode n) {
-        nodes.add(n);
+        if (!nodes.add(n)) {
+            return n;
+        }
+
+        final int id = register(n);
+        changed.add(id);
+        if (!componentsStale) {
+            if (n.getDegree() == 0) {
+                componentVertex[id] = components.addVertex();
+            } else {
+                componentsStale = true;
+            }
+        }
+        if (null != locations) {
+            locations.insert(id, n.getLocation().getxCoord(), n.getLocation().getyCoord());
+        }
+        if (n instanceof Node) {
+            ((Node) n).addLocationListener(locationListener);
+        }
 
         return n;
     }
@@ -75,7 +147,11 @@ public class Graph {
      * @param n the node to disconnect.
      */
     public final void clearNodeEdges(INode n) {
+        markChanged(n);
         edges.removeAll(n.getEdges());
+        for (IEdge e : n.getEdges()) {
+            disconnectComponents(n, e.getTargetNode());
+        }
         n.clearEdges();
     }
 
@@ -92,8 +168,13 @@ public class Graph {
             return null;
         }
 
+        final boolean isNew = !source.isConnected(target);
         final IEdge e = source.addEdge(target);
         edges.add(e);
+        markChanged(source);
+        if (isNew) {
+            connectComponents(source, target);
+        }
 
         return e;
     }
@@ -127,8 +208,8 @@ public class Graph {
             return false;
         }
 
-        edges.add(source.addEdge(target));
-        edges.add(target.addEdge(source));
+        createDirectedEdge(source, target);
+        createDirectedEdge(target, source);
 
         return true;
     }
@@ -163,47 +244,18 @@ public class Graph {
      * @return the new node.
      */
     public final INode createNode(double x, double y, int cacheSize) {
-        INode n = null;
-        try {
-            Constructor<? extends INode> c = nodeClass.getDeclaredConstructor(
-                    double.class, double.class, int.class
-            );
-            n = c.newInstance(cacheSize);
-        } catch (NoSuchMethodException |
-                SecurityException |
-                InstantiationException |
-                IllegalAccessException |
-                IllegalArgumentException |
-                InvocationTargetException exception) {
-            exception.printStackTrace();
-        }
-
-        return addNode(n);
+        return addNode(nodeFactory.create(x, y, cacheSize));
     }
 
     /**
-     * Create a new node with the specified initial
-     * cache size.
+     * Create a new node at the origin with the specified
+     * initial cache size.
      *
      * @param cacheSize the initial cache size.
      * @return the new node.
      */
     public final INode createNode(int cacheSize) {
-        INode n = null;
-        try {
-            Constructor<? extends INode> c = nodeClass
-                    .getDeclaredConstructor(int.class);
-            n = c.newInstance(cacheSize);
-        } catch (InstantiationException |
-                IllegalAccessException |
-                IllegalArgumentException |
-                InvocationTargetException |
-                NoSuchMethodException |
-                SecurityException exception) {
-            exception.printStackTrace();
-        }
-
-        return addNode(n);
+        return addNode(nodeFactory.create(0, 0, cacheSize));
     }
 
     /**
@@ -215,45 +267,30 @@ public class Graph {
      * @return the new node.
      */
     public final INode createNode(Coordinate position, int cacheSize) {
-        INode n = null;
-        try {
-            Constructor<? extends INode> c = nodeClass
-                    .getDeclaredConstructor(Coordinate.class, int.class);
-            n = c.newInstance(position, cacheSize);
-        } catch (NoSuchMethodException |
-                SecurityException |
-                InstantiationException |
-                IllegalAccessException |
-                IllegalArgumentException |
-                InvocationTargetException exception) {
-            exception.printStackTrace();
-        }
+        return addNode(nodeFactory.create(position.getxCoord(), position.getyCoord(), cacheSize));
+    }
 
-        return addNode(n);
+    /**
+     * Get the factory making the nodes created by this
+     * graph.
+     *
+     * @return the node factory.
+     */
+    public final NodeFactory getNodeFactory() {
+        return nodeFactory;
     }
 
     /**
-     * Create a new node based on the specified node.
+     * Set the factory making the nodes created by this
+     * graph, e.g. Node::new.
      *
-     * @param n the node to use in the creation of a new node.
-     * @return the new node.
+     * @param nodeFactory the node factory.
      */
-    private INode createNode(final INode n) {
-        INode m = null;
-        try {
-            Constructor<? extends INode> c = nodeClass
-                    .getDeclaredConstructor(INode.class);
-            m = c.newInstance(n);
-        } catch (NoSuchMethodException |
-                SecurityException |
-                InstantiationException |
-                IllegalAccessException |
-                IllegalArgumentException |
-                InvocationTargetException exception) {
-            exception.printStackTrace();
+    public final void setNodeFactory(final NodeFactory nodeFactory) {
+        if (null == nodeFactory) {
+            throw new IllegalArgumentException("nodeFactory must not be null");
         }
-
-        return createNode(m);
+        this.nodeFactory = nodeFactory;
     }
 
     /**
@@ -280,8 +317,19 @@ public class Graph {
             return false;
         }
 
-        edges.remove(source.deleteEdge(target));
-        edges.remove(target.deleteEdge(source));
+        final IEdge e = source.deleteEdge(target);
+        if (null != e) {
+            edges.remove(e);
+            disconnectComponents(source, target);
+            markChanged(source);
+        }
+
+        final IEdge f = target.deleteEdge(source);
+        if (null != f) {
+            edges.remove(f);
+            disconnectComponents(target, source);
+            markChanged(target);
+        }
         return true;
     }
 
@@ -293,6 +341,8 @@ public class Graph {
         for (INode n : nodes) {
             n.clearEdges();
         }
+        componentsStale = true;
+        changedAll = true;
     }
 
     /**
@@ -301,17 +351,19 @@ public class Graph {
      * @param n the node to delete all edges from.
      */
     public final void deleteEdges(final INode n) {
-        final THashSet<IEdge> deleteSet = new THashSet<>();
-        for (final IEdge e : edges) {
-            if ((e.getSourceNode() != n) && (e.getTargetNode() != n)) {
-                continue;
-            }
-
-            deleteSet.add(e);
+        markChanged(n);
+        for (final IEdge e : n.getEdges()) {
+            edges.remove(e);
+            disconnectComponents(n, e.getTargetNode());
+        }
+        for (final IEdge e : n.getIncomingEdges()) {
+            edges.remove(e);
+            disconnectComponents(e.getSourceNode(), n);
+            markChanged(e.getSourceNode());
         }
 
-        for (final IEdge e : deleteSet)
-            deleteEdge(e);
+        n.clearEdges();
+        n.clearIncomingEdges();
     }
 
     /**
@@ -320,16 +372,73 @@ public class Graph {
      * @param n the node to delete.
      */
     public final void deleteNode(INode n) {
-        deleteEdges(n);
-        nodes.remove(n);
+        deleteNodes(Collections.singletonList(n));
+    }
+
+    /**
+     * Delete the specified nodes, and all their edges, from
+     * the graph. Nodes not in the graph are ignored.
+     *
+     * @param deleted the nodes to delete.
+     */
+    public final void deleteNodes(final Collection<? extends INode> deleted) {
+        // when a large share of the edges goes, rebuilding the
+        // component index later is cheaper than updating it
+        int numDeletedEdges = 0;
+        for (INode n : deleted) {
+            numDeletedEdges += n.getDegree() + n.getInDegree();
+        }
+        if (4 * numDeletedEdges > edges.size()) {
+            componentsStale = true;
+        }
+
+        for (INode n : deleted) {
+            if (!nodes.remove(n)) {
+                continue;
+            }
+
+            for (final IEdge e : n.getEdges()) {
+                edges.remove(e);
+            }
+            for (final IEdge e : n.getIncomingEdges()) {
+                edges.remove(e);
+                markChanged(e.getSourceNode());
+            }
+            n.clearEdges();
+            n.clearIncomingEdges();
+
+            final int id = ids.remove(n);
+            if (!componentsStale) {
+                // drops the vertex's edges from the index too
+                components.removeVertex(componentVertex[id]);
+            }
+            if (null != locations) {
+                locations.remove(id);
+            }
+            stopListening(n);
+            nodesById[id] = null;
+            freeIds.add(id);
+            changed.add(id);
+        }
     }
 
     /**
      * Empty the graph, deleting all nodes and edges.
      */
     public final void empty() {
+        for (INode n : nodes) {
+            stopListening(n);
+        }
         nodes.clear();
         edges.clear();
+        ids.clear();
+        Arrays.fill(nodesById, null);
+        freeIds.clear();
+        idBound = 0;
+        componentsStale = true;
+        locations = null;
+        changed.clear();
+        changedAll = true;
     }
 
     /**
@@ -377,6 +486,123 @@ public class Graph {
         return nodes.size();
     }
 
+    /**
+     * Get the id of a node. Ids are dense, from 0 to
+     * getIdBound() - 1, and a node keeps its id until it is
+     * deleted, after which the id may be given to a new node.
+     * Per node state can therefore be kept in flat arrays
+     * indexed by id.
+     *
+     * @param n the node.
+     * @return the id, or -1 if the node is not in the graph.
+     */
+    public final int idOf(final INode n) {
+        return ids.get(n);
+    }
+
+    /**
+     * Get the node with the specified id.
+     *
+     * @param id the id.
+     * @return the node, or null if no node has the id.
+     */
+    public final INode nodeAt(final int id) {
+        return (id >= 0 && id < idBound) ? nodesById[id] : null;
+    }
+
+    /**
+     * Get one more than the largest id in use, i.e. the
+     * length of an array indexed by node id.
+     *
+     * @return the id bound.
+     */
+    public final int getIdBound() {
+        return idBound;
+    }
+
+    /**
+     * Freeze the graph into an immutable compressed sparse
+     * row copy, indexed by node id, so arrays indexed by id
+     * can be used with it. Free ids are indices with no node
+     * and no edges. Later changes to the graph are not
+     * reflected in it.
+     *
+     * @return the compact graph.
+     */
+    public final CompactGraph freeze() {
+        // count, then fill
+        final int[] offsets = new int[idBound + 1];
+        for (int id = 0; id < idBound; id++) {
+            int degree = 0;
+            if (null != nodesById[id]) {
+                for (IEdge e : nodesById[id].getEdges()) {
+                    if (ids.containsKey(e.getTargetNode())) {
+                        degree++;
+                    }
+                }
+            }
+            offsets[id + 1] = offsets[id] + degree;
+        }
+
+        final int[] targets = new int[offsets[idBound]];
+        final double[] weights = new double[targets.length];
+        for (int id = 0; id < idBound; id++) {
+            if (null == nodesById[id]) {
+                continue;
+            }
+            int i = offsets[id];
+            for (IEdge e : nodesById[id].getEdges()) {
+                final int target = ids.get(e.getTargetNode());
+                if (target >= 0) {
+                    targets[i] = target;
+                    weights[i++] = e.getWeight();
+                }
+            }
+        }
+
+        return new CompactGraph(Arrays.copyOf(nodesById, idBound), offsets, targets, weights);
+    }
+
+    /**
+     * Publish the current topology as a new version. Only
+     * the nodes changed since the last commit are copied.
+     * Changes made to edge weights directly through
+     * {@link IEdge#setWeight(double)} are only seen once
+     * the source node changes again.
+     * (call from the thread changing the graph)
+     *
+     * @return the new version.
+     */
+    public final GraphSnapshot commit() {
+        final GraphSnapshot last = snapshot;
+        final int[] ids;
+        if (changedAll) {
+            ids = new int[Math.max(idBound, last.getNumNodes())];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = i;
+            }
+        } else {
+            ids = changed.toArray();
+        }
+
+        final GraphSnapshot next = last.commit(this, ids);
+        changed.clear();
+        changedAll = false;
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * Get the last committed version. Safe to call from
+     * any thread; the version never changes, so readers
+     * see a consistent topology without locking.
+     *
+     * @return the last committed version.
+     */
+    public final GraphSnapshot snapshot() {
+        return snapshot;
+    }
+
     /**
      * Get the node at the specified coordinates.
      *
@@ -385,27 +611,21 @@ public class Graph {
      * @return the node if found.
      */
     public final INode getNode(double x, double y) {
-        for (INode n : nodes) {
-            if ((n.getLocation().getxCoord() == x) && (n.getLocation().getyCoord() == y)) {
-                return n;
-            }
-        }
-
-        return null;
+        return nodeAt(getLocations().find(x, y));
     }
 
     /**
-     * Get the node at the specified coordinates.
+     * Get the node nearest the specified coordinates, if it
+     * is closer than the tolerance.
      *
      * @param coordinate the coordinates to lookup.
      * @param tolerance the tolerance factor allowed for lookup.
      * @return the node if found.
      */
     public final INode getNode(Coordinate coordinate, double tolerance) {
-        for (INode n : nodes) {
-            if (coordinate.getDistance(n.getLocation()) < tolerance) {
-                return n;
-            }
+        final INode n = nodeAt(getLocations().findNearest(coordinate.getxCoord(), coordinate.getyCoord()));
+        if ((null != n) && (coordinate.getDistance(n.getLocation()) < tolerance)) {
+            return n;
         }
         return null;
     }
@@ -426,13 +646,66 @@ public class Graph {
      * @return the set of nodes found.
      */
     public final Set<INode> getNodes(Rectangle2D area) {
-        Set<INode> nodes = new THashSet<INode>();
-        for (INode n : getNodes()) {
-            if (area.contains(n.getLocation().getxCoord(), n.getLocation().getyCoord()))
-                nodes.add(n);
+        final TIntArrayList found = new TIntArrayList();
+        getLocations().findWithin(area, found);
+        return nodesAt(found);
+    }
+
+    /**
+     * Get all nodes in the graph within the specified
+     * distance of a coordinate.
+     *
+     * @param centre the coordinate.
+     * @param radius the greatest distance.
+     * @return the set of nodes found.
+     */
+    public final Set<INode> getNodes(Coordinate centre, double radius) {
+        final TIntArrayList found = new TIntArrayList();
+        getLocations().findWithin(centre.getxCoord(), centre.getyCoord(), radius, found);
+        return nodesAt(found);
+    }
+
+    /**
+     * Get the k nodes nearest the specified coordinate.
+     *
+     * @param coordinate the coordinate.
+     * @param k the number of nodes.
+     * @return the nodes found, nearest first.
+     */
+    public final List<INode> getNearestNodes(Coordinate coordinate, int k) {
+        final int[] found = getLocations().findNearest(coordinate.getxCoord(), coordinate.getyCoord(), k);
+        final List<INode> nearest = new ArrayList<>(found.length);
+        for (int id : found) {
+            nearest.add(nodesById[id]);
         }
+        return nearest;
+    }
 
-        return nodes;
+    /**
+     * Move a node to the specified coordinates, keeping the
+     * coordinate lookups up to date.
+     *
+     * @param n the node.
+     * @param x the new x coordinate.
+     * @param y the new y coordinate.
+     */
+    public final void setLocation(final INode n, final double x, final double y) {
+        n.setLocation(x, y);
+        if (!(n instanceof Node)) {
+            // a node tells its graphs itself
+            moved(n);
+        }
+    }
+
+    /**
+     * Move a node to the specified coordinate, keeping the
+     * coordinate lookups up to date.
+     *
+     * @param n the node.
+     * @param location the new location.
+     */
+    public final void setLocation(final INode n, final Coordinate location) {
+        setLocation(n, location.getxCoord(), location.getyCoord());
     }
 
     /**
@@ -450,23 +723,229 @@ public class Graph {
     }
 
     /**
-     * Check whether the graph is a connected graph.
-     * (uses breadth-first search)
+     * Check whether the graph is a connected graph, i.e. has
+     * one component when edge directions are ignored.
+     * (uses the component index)
      *
      * @return whether graph is connected.
      */
     public final boolean isConnected() {
-        if (nodes.size() == 0) {
-            return true;
+        return getNumComponents() <= 1;
+    }
+
+    /**
+     * Check whether two nodes are in the same connected
+     * component.
+     *
+     * @param n a node.
+     * @param m another node.
+     * @return whether the nodes are connected.
+     */
+    public final boolean isConnected(final INode n, final INode m) {
+        updateComponents();
+        final int v = componentVertex(n);
+        final int w = componentVertex(m);
+        return v >= 0 && w >= 0 && components.isConnected(v, w);
+    }
+
+    /**
+     * Get the component containing the specified node. Nodes
+     * in the same component have the same component id; ids
+     * are only comparable until the graph is next changed.
+     *
+     * @param n the node.
+     * @return the component id, or -1 if the node is not in the graph.
+     */
+    public final int componentOf(final INode n) {
+        updateComponents();
+        final int v = componentVertex(n);
+        return v < 0 ? -1 : components.componentOf(v);
+    }
+
+    /**
+     * Get the number of connected components.
+     *
+     * @return the number of components.
+     */
+    public final int getNumComponents() {
+        updateComponents();
+        return components.getNumComponents();
+    }
+
+    /**
+     * Get the connected components of the graph.
+     *
+     * @return the set of nodes of each component.
+     */
+    public final Collection<THashSet<INode>> getComponents() {
+        updateComponents();
+        final TIntObjectHashMap<THashSet<INode>> byComponent = new TIntObjectHashMap<>(components.getNumComponents());
+        for (INode n : nodes) {
+            final int c = components.componentOf(componentVertex[ids.get(n)]);
+            THashSet<INode> component = byComponent.get(c);
+            if (component == null) {
+                component = new THashSet<>();
+                byComponent.put(c, component);
+            }
+            component.add(n);
+        }
+        return byComponent.valueCollection();
+    }
+
+    /**
+     * Get the vertex of a node in the component index.
+     *
+     * @param n the node.
+     * @return the vertex, or -1 if the node is not in the graph.
+     */
+    private int componentVertex(final INode n) {
+        final int id = ids.get(n);
+        return id < 0 ? -1 : componentVertex[id];
+    }
+
+    /**
+     * Move a node in the quadtree, if it is built.
+     *
+     * @param n the node.
+     */
+    private void moved(final INode n) {
+        final int id = ids.get(n);
+        if ((null != locations) && (id >= 0)) {
+            locations.insert(id, n.getLocation().getxCoord(), n.getLocation().getyCoord());
+        }
+    }
+
+    /**
+     * Stop listening to a node leaving the graph.
+     *
+     * @param n the node.
+     */
+    private void stopListening(final INode n) {
+        if (n instanceof Node) {
+            ((Node) n).removeLocationListener(locationListener);
+        }
+    }
+
+    /**
+     * Get the quadtree of node locations, building it if
+     * not yet used.
+     *
+     * @return the quadtree.
+     */
+    private QuadTree getLocations() {
+        if (null == locations) {
+            locations = new QuadTree();
+            for (INode n : nodes) {
+                locations.insert(ids.get(n), n.getLocation().getxCoord(), n.getLocation().getyCoord());
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Get the nodes with the specified ids.
+     *
+     * @param found the ids.
+     * @return the set of nodes.
+     */
+    private Set<INode> nodesAt(final TIntArrayList found) {
+        final Set<INode> nodes = new THashSet<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            nodes.add(nodesById[found.get(i)]);
         }
+        return nodes;
+    }
 
-        BreadthFirstSearch bfs = new BreadthFirstSearch();
-        INode sourceNode = nodes.iterator().next();
-        Set<INode> result = bfs.findAll(sourceNode, nodes.size());
-        if (result.size() == nodes.size()) {
-            return true;
+    /**
+     * Record that a node's edges have changed since the
+     * last commit.
+     *
+     * @param n the node.
+     */
+    private void markChanged(final INode n) {
+        final int id = ids.get(n);
+        if (id >= 0) {
+            changed.add(id);
+        }
+    }
+
+    /**
+     * Give a new node an id, reusing the most recently
+     * freed id if there is one.
+     *
+     * @param n the node.
+     * @return the id.
+     */
+    private int register(final INode n) {
+        final int id = freeIds.isEmpty() ? idBound++ : freeIds.removeAt(freeIds.size() - 1);
+        if (id == nodesById.length) {
+            nodesById = Arrays.copyOf(nodesById, 2 * id);
+            componentVertex = Arrays.copyOf(componentVertex, 2 * id);
+        }
+
+        ids.put(n, id);
+        nodesById[id] = n;
+        return id;
+    }
+
+    /**
+     * Add a new edge to the component index.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     */
+    private void connectComponents(final INode source, final INode target) {
+        if (componentsStale) {
+            return;
+        }
+
+        final int s = componentVertex(source);
+        final int t = componentVertex(target);
+        if (s >= 0 && t >= 0) {
+            components.addEdge(s, t);
+        }
+    }
+
+    /**
+     * Remove a deleted edge from the component index.
+     *
+     * @param source the source node.
+     * @param target the target node.
+     */
+    private void disconnectComponents(final INode source, final INode target) {
+        if (componentsStale) {
+            return;
+        }
+
+        final int s = componentVertex(source);
+        final int t = componentVertex(target);
+        if (s >= 0 && t >= 0) {
+            components.removeEdge(s, t);
+        }
+    }
+
+    /**
+     * Rebuild the component index if it is stale.
+     */
+    private void updateComponents() {
+        if (!componentsStale) {
+            return;
+        }
+
+        components = new DynamicConnectivity();
+        for (INode n : nodes) {
+            componentVertex[ids.get(n)] = components.addVertex();
+        }
+        for (INode n : nodes) {
+            final int s = componentVertex(n);
+            for (INode m : n.getNeighbours()) {
+                final int t = componentVertex(m);
+                if (t >= 0) {
+                    components.addEdge(s, t);
+                }
+            }
         }
 
-        return false;
+        componentsStale = false;
     }
 }
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A bulk loader of graphs from edge list files.
+ *
+ * Nodes are numbered by non-negative int ids in the
+ * file, and the graph has a node for every id from 0
+ * to the largest id. The file is memory mapped and read
+ * twice: the first pass counts the edges of every node,
+ * so the second can write each edge straight into its
+ * slot in exactly sized compressed sparse row arrays.
+ * Text is parsed from the mapped bytes, so no String or
+ * other object is made per line.
+ *
+ * Text files have one edge per line: the source id,
+ * the target id and an optional weight, separated by
+ * spaces, tabs or commas. Blank lines and lines
+ * starting with '#' or '%' are skipped. Binary files
+ * are big-endian records of the source and target as
+ * ints, followed by the weight as a double in the
+ * weighted format. Edges without a weight have weight 0.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Edge_list">https://en.wikipedia.org/wiki/Edge_list</a>
+ *
+ * @author kirsty
+ */
+public class GraphLoader {
+
+    /**
+     * The edge list file formats.
+     */
+    public enum Format {
+        /* lines of "source target [weight]" */
+        TEXT,
+        /* records of int source, int target */
+        BINARY,
+        /* records of int source, int target, double weight */
+        WEIGHTED_BINARY
+    }
+
+    /* the most bytes mapped at once */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+    /* exactly representable powers of ten */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /* the file format */
+    private final Format format;
+    /* whether each edge is loaded in both directions */
+    private final boolean undirected;
+    /* the most bytes mapped at once */
+    private final int chunkSize;
+
+    /**
+     * Instantiates a loader of the specified format.
+     *
+     * @param format the file format.
+     * @param undirected whether each edge is loaded in both directions.
+     */
+    public GraphLoader(final Format format, final boolean undirected) {
+        this(format, undirected, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Instantiates a loader of the specified format,
+     * mapping at most chunkSize bytes at once.
+     *
+     * @param format the file format.
+     * @param undirected whether each edge is loaded in both directions.
+     * @param chunkSize the most bytes mapped at once.
+     */
+    public GraphLoader(final Format format, final boolean undirected, final int chunkSize) {
+        if (chunkSize < 16) {
+            throw new IllegalArgumentException("chunkSize must be at least 16 bytes");
+        }
+
+        this.format = format;
+        this.undirected = undirected;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Load a compact graph, in which node n is the node
+     * with id n in the file.
+     *
+     * @param path the edge list file.
+     * @return the compact graph.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    public final CompactGraph loadCompact(final Path path) throws IOException {
+        final Builder builder = new Builder(undirected);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(channel, builder);
+            builder.startFill();
+            scan(channel, builder);
+        }
+
+        final INode[] nodes = new INode[builder.numNodes];
+        for (int n = 0; n < nodes.length; n++) {
+            nodes[n] = new Node(0);
+        }
+        return new CompactGraph(nodes, builder.offsets, builder.targets, builder.weights);
+    }
+
+    /**
+     * Load a graph. Every node's edge map is made at
+     * exactly its degree, and self loops are left out.
+     *
+     * @param path the edge list file.
+     * @return the graph.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    public final Graph load(final Path path) throws IOException {
+        final CompactGraph compact = loadCompact(path);
+        final int numNodes = compact.getNumNodes();
+        final Graph graph = new Graph(numNodes, compact.getNumEdges());
+
+        final INode[] nodes = new INode[numNodes];
+        for (int n = 0; n < numNodes; n++) {
+            nodes[n] = graph.addNode(new Node(compact.getDegree(n)));
+        }
+        for (int n = 0; n < numNodes; n++) {
+            final int degree = compact.getDegree(n);
+            for (int i = 0; i < degree; i++) {
+                final int m = compact.getNeighbour(n, i);
+                if (m != n) {
+                    graph.createWeightedDirectedEdge(nodes[n], nodes[m], compact.getWeight(n, i));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Read every edge of the file into the builder, one
+     * mapped chunk at a time.
+     */
+    private void scan(final FileChannel channel, final Builder builder) throws IOException {
+        final long size = channel.size();
+        final int recordSize = (format == Format.WEIGHTED_BINARY) ? 16 : 8;
+        if (format != Format.TEXT && size % recordSize != 0) {
+            throw new IOException("file size is not a whole number of records");
+        }
+
+        long line = 1;
+        long position = 0;
+        while (position < size) {
+            final long length = Math.min(chunkSize, size - position);
+            final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            int end = (int) length;
+            if (format == Format.TEXT) {
+                if (position + length < size) {
+                    // stop after the last whole line
+                    while (end > 0 && chunk.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("line " + line + " is longer than a chunk");
+                    }
+                }
+                line = parseText(chunk, end, line, builder);
+            } else {
+                end -= end % recordSize;
+                parseBinary(chunk, end, recordSize, builder);
+            }
+            position += end;
+        }
+    }
+
+    private void parseBinary(final ByteBuffer chunk, final int end, final int recordSize,
+                             final Builder builder) throws IOException {
+        for (int i = 0; i < end; i += recordSize) {
+            final int source = chunk.getInt(i);
+            final int target = chunk.getInt(i + 4);
+            if (source < 0 || target < 0) {
+                throw new IOException("negative node id in record " + (i / recordSize));
+            }
+            builder.edge(source, target, (recordSize == 16) ? chunk.getDouble(i + 8) : 0.0);
+        }
+    }
+
+    /**
+     * Parse the lines of a chunk of text.
+     *
+     * @return the number of the next line.
+     */
+    private long parseText(final ByteBuffer chunk, final int end, long line,
+                           final Builder builder) throws IOException {
+        final Cursor in = new Cursor(chunk, end);
+        while (in.position < end) {
+            in.skipSeparators();
+            if (in.atLineEnd()) {
+                in.nextLine();
+                line++;
+                continue;
+            }
+
+            final byte first = chunk.get(in.position);
+            if (first == '#' || first == '%') {
+                in.nextLine();
+                line++;
+                continue;
+            }
+
+            final int source = in.parseId(line);
+            in.skipSeparators();
+            final int target = in.parseId(line);
+            in.skipSeparators();
+            double weight = 0.0;
+            if (!in.atLineEnd()) {
+                // the weight is only needed once the slots are known
+                if (builder.filling) {
+                    weight = in.parseWeight(line);
+                } else {
+                    in.skipToken();
+                }
+                in.skipSeparators();
+                if (!in.atLineEnd()) {
+                    throw new IOException("unexpected text at line " + line);
+                }
+            }
+
+            builder.edge(source, target, weight);
+            in.nextLine();
+            line++;
+        }
+        return line;
+    }
+
+    /**
+     * A read position in a chunk of text.
+     */
+    private static final class Cursor {
+
+        final ByteBuffer chunk;
+        final int end;
+        int position;
+
+        Cursor(final ByteBuffer chunk, final int end) {
+            this.chunk = chunk;
+            this.end = end;
+        }
+
+        void skipSeparators() {
+            while (position < end) {
+                final byte b = chunk.get(position);
+                if (b != ' ' && b != '\t' && b != ',') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        boolean atLineEnd() {
+            if (position >= end) {
+                return true;
+            }
+            final byte b = chunk.get(position);
+            return b == '\n' || b == '\r';
+        }
+
+        void nextLine() {
+            while (position < end && chunk.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        void skipToken() {
+            while (position < end && !isDelimiter(chunk.get(position))) {
+                position++;
+            }
+        }
+
+        int parseId(final long line) throws IOException {
+            final int start = position;
+            long value = 0;
+            while (position < end) {
+                final int digit = chunk.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = 10 * value + digit;
+                if (value > Integer.MAX_VALUE) {
+                    throw new IOException("node id too large at line " + line);
+                }
+                position++;
+            }
+
+            if (position == start || (position < end && !isDelimiter(chunk.get(position)))) {
+                throw new IOException("malformed node id at line " + line);
+            }
+            return (int) value;
+        }
+
+        double parseWeight(final long line) throws IOException {
+            final int start = position;
+            boolean negative = false;
+            if (position < end && (chunk.get(position) == '-' || chunk.get(position) == '+')) {
+                negative = chunk.get(position++) == '-';
+            }
+
+            long mantissa = 0;
+            int numDigits = 0;
+            int exponent = 0;
+            boolean point = false;
+            boolean digits = false;
+            while (position < end) {
+                final byte b = chunk.get(position);
+                if (b == '.' && !point) {
+                    point = true;
+                } else if (b >= '0' && b <= '9') {
+                    digits = true;
+                    if (numDigits < 18) {
+                        mantissa = 10 * mantissa + (b - '0');
+                        if (mantissa != 0) {
+                            numDigits++;
+                        }
+                        if (point) {
+                            exponent--;
+                        }
+                    } else if (!point) {
+                        exponent++;
+                    }
+                } else {
+                    break;
+                }
+                position++;
+            }
+
+            if (position < end && (chunk.get(position) == 'e' || chunk.get(position) == 'E')) {
+                position++;
+                boolean negativeExponent = false;
+                if (position < end && (chunk.get(position) == '-' || chunk.get(position) == '+')) {
+                    negativeExponent = chunk.get(position++) == '-';
+                }
+                int e = 0;
+                while (position < end && chunk.get(position) >= '0' && chunk.get(position) <= '9') {
+                    e = Math.min(10 * e + (chunk.get(position++) - '0'), 100000);
+                }
+                exponent += negativeExponent ? -e : e;
+            }
+
+            if (!digits || (position < end && !isDelimiter(chunk.get(position)))) {
+                throw new IOException("malformed weight at line " + line);
+            }
+
+            // one correctly rounded multiply or divide is exact to the nearest double
+            double value;
+            if (numDigits <= 15 && exponent >= -22 && exponent <= 22) {
+                value = (exponent >= 0)
+                        ? mantissa * POWERS_OF_TEN[exponent]
+                        : mantissa / POWERS_OF_TEN[-exponent];
+            } else {
+                final byte[] text = new byte[position - start];
+                for (int i = 0; i < text.length; i++) {
+                    text[i] = chunk.get(start + i);
+                }
+                try {
+                    return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw new IOException("malformed weight at line " + line, e);
+                }
+            }
+            return negative ? -value : value;
+        }
+
+        private static boolean isDelimiter(final byte b) {
+            return b == ' ' || b == '\t' || b == ',' || b == '\n' || b == '\r';
+        }
+    }
+
+    /**
+     * Counts the edges of each node in the first pass, and
+     * fills the compressed sparse row arrays in the second.
+     */
+    private static final class Builder {
+
+        final boolean undirected;
+        /* the edges of each node in the first pass, the next free slot in the second */
+        int[] counts = new int[16];
+        int numNodes;
+        long numEdges;
+        boolean filling;
+
+        int[] offsets;
+        int[] targets;
+        double[] weights;
+
+        Builder(final boolean undirected) {
+            this.undirected = undirected;
+        }
+
+        void edge(final int source, final int target, final double weight) {
+            final boolean both = undirected && source != target;
+            if (filling) {
+                final int i = counts[source]++;
+                targets[i] = target;
+                weights[i] = weight;
+                if (both) {
+                    final int j = counts[target]++;
+                    targets[j] = source;
+                    weights[j] = weight;
+                }
+                return;
+            }
+
+            final int max = Math.max(source, target);
+            if (max >= counts.length) {
+                counts = Arrays.copyOf(counts, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * counts.length, max + 1L)));
+            }
+            numNodes = Math.max(numNodes, max + 1);
+            counts[source]++;
+            numEdges++;
+            if (both) {
+                counts[target]++;
+                numEdges++;
+            }
+        }
+
+        void startFill() throws IOException {
+            if (numEdges > Integer.MAX_VALUE - 8) {
+                throw new IOException("too many edges: " + numEdges);
+            }
+
+            offsets = new int[numNodes + 1];
+            for (int n = 0; n < numNodes; n++) {
+                offsets[n + 1] = offsets[n] + counts[n];
+            }
+            targets = new int[(int) numEdges];
+            weights = new double[(int) numEdges];
+
+            counts = Arrays.copyOf(offsets, numNodes);
+            filling = true;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import java.util.Arrays;
+
+/**
+ * An immutable version of the topology of a
+ * {@link Graph}, made by {@link Graph#commit()}.
+ *
+ * Nodes are indexed by their graph id, so the indices
+ * run from 0 to getNumNodes() - 1 with free ids being
+ * indices with no node and no edges, for which
+ * {@link #hasNode(int)} is false. Each version keeps
+ * its nodes, their outgoing edges and edge weights, and
+ * a node to id index in persistent tries, and a commit
+ * copies only the paths to the nodes changed since the
+ * last one. Versions can be read from any thread, with
+ * no locking and no copying, while the graph goes on
+ * changing.
+ *
+ * Only the topology and edge weights are versioned. The
+ * node objects are shared with the graph, so their
+ * locations, labels and weights, and their own edge
+ * sets, are live.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Multiversion_concurrency_control">https://en.wikipedia.org/wiki/Multiversion_concurrency_control</a>
+ *
+ * @author kirsty
+ */
+public final class GraphSnapshot implements IIndexedGraph {
+
+    /* the version before the first commit */
+    static final GraphSnapshot EMPTY = new GraphSnapshot(0, 0, 0, 0,
+            PersistentIntTrie.<INode>empty(),
+            PersistentIntTrie.<Adjacency>empty(),
+            PersistentIntTrie.<Bucket>empty());
+
+    /* the version number, counting commits */
+    private final long version;
+    /* one more than the largest node id */
+    private final int idBound;
+    /* the number of nodes */
+    private final int numNodes;
+    /* the number of edges */
+    private final int numEdges;
+    /* the node with each id */
+    private final PersistentIntTrie<INode> nodes;
+    /* the outgoing edges of each node, by id */
+    private final PersistentIntTrie<Adjacency> adjacency;
+    /* the ids of the nodes, by node hash */
+    private final PersistentIntTrie<Bucket> index;
+
+    private GraphSnapshot(final long version, final int idBound, final int numNodes, final int numEdges,
+                          final PersistentIntTrie<INode> nodes,
+                          final PersistentIntTrie<Adjacency> adjacency,
+                          final PersistentIntTrie<Bucket> index) {
+        this.version = version;
+        this.idBound = idBound;
+        this.numNodes = numNodes;
+        this.numEdges = numEdges;
+        this.nodes = nodes;
+        this.adjacency = adjacency;
+        this.index = index;
+    }
+
+    /**
+     * Make the next version, updating the nodes with the
+     * specified ids from the graph.
+     *
+     * @param graph the graph.
+     * @param changed the ids of the nodes added, deleted, or whose edges changed.
+     * @return the next version.
+     */
+    GraphSnapshot commit(final Graph graph, final int[] changed) {
+        PersistentIntTrie<INode> nodes = this.nodes;
+        PersistentIntTrie<Adjacency> adjacency = this.adjacency;
+        PersistentIntTrie<Bucket> index = this.index;
+
+        for (int id : changed) {
+            final INode old = nodes.get(id);
+            final INode n = graph.nodeAt(id);
+            if (old != n) {
+                if (null != old) {
+                    index = Bucket.without(index, old);
+                }
+                if (null != n) {
+                    index = Bucket.with(index, n, id);
+                }
+                nodes = nodes.with(id, n);
+            }
+            adjacency = adjacency.with(id, (null == n) ? null : Adjacency.of(graph, n));
+        }
+
+        return new GraphSnapshot(version + 1, graph.getIdBound(), graph.getNumNodes(), graph.getNumEdges(),
+                nodes, adjacency, index);
+    }
+
+    /**
+     * Get the version number, i.e. the number of commits
+     * that made this version.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of node indices, i.e. the graph's id
+     * bound when committed.
+     *
+     * @return the number of indices.
+     */
+    @Override
+    public int getNumNodes() {
+        return idBound;
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    public int getNumLiveNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return the number of edges.
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getDegree(final int n) {
+        final Adjacency a = adjacency.get(n);
+        return (null == a) ? 0 : a.targets.length;
+    }
+
+    @Override
+    public int getNeighbour(final int n, final int i) {
+        return adjacency.get(n).targets[i];
+    }
+
+    /**
+     * Get the weight of the ith edge of a node.
+     *
+     * @param n the node index.
+     * @param i the edge position, 0 to getDegree(n) - 1.
+     * @return the weight.
+     */
+    public double getWeight(final int n, final int i) {
+        return adjacency.get(n).weights[i];
+    }
+
+    /**
+     * Check whether there is an edge between two nodes.
+     *
+     * @param source the source node index.
+     * @param target the target node index.
+     * @return whether the nodes are connected.
+     */
+    public boolean isConnected(final int source, final int target) {
+        final Adjacency a = adjacency.get(source);
+        if (null == a) {
+            return false;
+        }
+        for (int t : a.targets) {
+            if (t == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public INode getNode(final int n) {
+        return nodes.get(n);
+    }
+
+    @Override
+    public boolean hasNode(final int n) {
+        return null != nodes.get(n);
+    }
+
+    @Override
+    public int getIndex(final INode n) {
+        final Bucket b = index.get(Bucket.hash(n));
+        return (null == b) ? -1 : b.idOf(n);
+    }
+
+    /**
+     * The outgoing edges of one node, as target ids and
+     * weights.
+     */
+    private static final class Adjacency {
+
+        final int[] targets;
+        final double[] weights;
+
+        private Adjacency(final int[] targets, final double[] weights) {
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        static Adjacency of(final Graph graph, final INode n) {
+            final int[] targets = new int[n.getDegree()];
+            final double[] weights = new double[targets.length];
+            int i = 0;
+            for (IEdge e : n.getEdges()) {
+                final int t = graph.idOf(e.getTargetNode());
+                if (t >= 0) {
+                    targets[i] = t;
+                    weights[i++] = e.getWeight();
+                }
+            }
+            return (i == targets.length)
+                    ? new Adjacency(targets, weights)
+                    : new Adjacency(Arrays.copyOf(targets, i), Arrays.copyOf(weights, i));
+        }
+    }
+
+    /**
+     * The nodes whose hashes are equal, and their ids.
+     */
+    private static final class Bucket {
+
+        final INode[] nodes;
+        final int[] ids;
+
+        private Bucket(final INode[] nodes, final int[] ids) {
+            this.nodes = nodes;
+            this.ids = ids;
+        }
+
+        static int hash(final INode n) {
+            final int h = n.hashCode();
+            return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+        }
+
+        int idOf(final INode n) {
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i].equals(n)) {
+                    return ids[i];
+                }
+            }
+            return -1;
+        }
+
+        static PersistentIntTrie<Bucket> with(final PersistentIntTrie<Bucket> index, final INode n, final int id) {
+            final int h = hash(n);
+            final Bucket b = index.get(h);
+            if (null == b) {
+                return index.with(h, new Bucket(new INode[]{n}, new int[]{id}));
+            }
+
+            final INode[] nodes = Arrays.copyOf(b.nodes, b.nodes.length + 1);
+            final int[] ids = Arrays.copyOf(b.ids, b.ids.length + 1);
+            nodes[b.nodes.length] = n;
+            ids[b.ids.length] = id;
+            return index.with(h, new Bucket(nodes, ids));
+        }
+
+        static PersistentIntTrie<Bucket> without(final PersistentIntTrie<Bucket> index, final INode n) {
+            final int h = hash(n);
+            final Bucket b = index.get(h);
+            if (null == b) {
+                return index;
+            }
+            if (b.nodes.length == 1) {
+                return b.nodes[0].equals(n) ? index.with(h, null) : index;
+            }
+
+            final INode[] nodes = new INode[b.nodes.length - 1];
+            final int[] ids = new int[b.ids.length - 1];
+            int j = 0;
+            for (int i = 0; i < b.nodes.length; i++) {
+                if (j == nodes.length && !b.nodes[i].equals(n)) {
+                    return index;
+                }
+                if (!b.nodes[i].equals(n)) {
+                    nodes[j] = b.nodes[i];
+                    ids[j++] = b.ids[i];
+                }
+            }
+            return index.with(h, new Bucket(nodes, ids));
+        }
+    }
+}
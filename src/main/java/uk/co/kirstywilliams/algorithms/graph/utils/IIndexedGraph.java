@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+/**
+ * Simple interface for graphs whose nodes are
+ * identified by dense int indices, 0 to
+ * getNumNodes() - 1, so that per node state can
+ * be kept in flat arrays.
+ *
+ * An index may hold no node, e.g. a free id in a
+ * {@link GraphSnapshot} or a {@link Graph#freeze()}. Such
+ * indices have no edges, and algorithms that visit
+ * every index skip them.
+ *
+ * @author kirsty
+ */
+public interface IIndexedGraph {
+
+    int getNumNodes();
+    int getDegree(int n);
+    int getNeighbour(int n, int i);
+
+    INode getNode(int n);
+    int getIndex(INode n);
+
+    /**
+     * Check whether an index holds a node.
+     *
+     * @param n the node index.
+     * @return whether there is a node at the index.
+     */
+    default boolean hasNode(int n) {
+        return true;
+    }
+
+}
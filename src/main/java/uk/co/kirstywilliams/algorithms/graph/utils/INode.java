@@ -11,6 +11,13 @@ import java.util.Set;
 /**
  * Simple interface for node objects.
  *
+ * A node owns its outgoing edges, and indexes its
+ * incoming edges by source node. Adding or deleting an
+ * outgoing edge updates the target's incoming edges, so
+ * the incoming edge methods other than
+ * {@link #clearIncomingEdges()} are for use by the
+ * source node only.
+ *
  * @author kirsty
  */
 public interface INode {
@@ -32,6 +39,13 @@ public interface INode {
     IEdge deleteEdge(IEdge e);
     IEdge deleteEdge(INode n);
 
+    IEdge getIncomingEdge(INode n);
+    Set<IEdge> getIncomingEdges();
+    void addIncomingEdge(IEdge e);
+    IEdge deleteIncomingEdge(INode n);
+    void clearIncomingEdges();
+    int getInDegree();
+
     void eachNeighbour(final TObjectProcedure<INode> eachNode);
     int getEccentricity();
     Set<INode> getNeighbours();
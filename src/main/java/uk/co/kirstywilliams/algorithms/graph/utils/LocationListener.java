@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+/**
+ * Told when a node moves, e.g. so a {@link Graph} can
+ * keep its coordinate lookups up to date.
+ *
+ * @author kirsty
+ */
+@FunctionalInterface
+public interface LocationListener {
+
+    void locationChanged(INode n);
+
+}
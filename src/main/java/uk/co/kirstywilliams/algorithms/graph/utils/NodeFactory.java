@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+/**
+ * Makes the nodes of a {@link Graph}, e.g. Node::new.
+ *
+ * @author kirsty
+ */
+@FunctionalInterface
+public interface NodeFactory {
+
+    INode create(double x, double y, int cacheSize);
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+/**
+ * An immutable map from non-negative int keys to values,
+ * stored as a 32-way trie on the bits of the key.
+ *
+ * Setting a key copies only the arrays on the path from
+ * the root to the key, at most seven of 32 references,
+ * and shares every other array with the old trie. Old
+ * versions stay valid and unchanged, so they can be read
+ * by other threads without locking while new versions
+ * are made.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Persistent_data_structure">https://en.wikipedia.org/wiki/Persistent_data_structure</a>
+ *
+ * @author kirsty
+ */
+public final class PersistentIntTrie<V> {
+
+    /* the bits of the key used at each level */
+    private static final int BITS = 5;
+    /* the width of each array */
+    private static final int WIDTH = 1 << BITS;
+    /* the mask of the key bits at each level */
+    private static final int MASK = WIDTH - 1;
+
+    /* the empty trie */
+    private static final PersistentIntTrie<Object> EMPTY = new PersistentIntTrie<>(new Object[WIDTH], 0, 0);
+
+    /* the root array */
+    private final Object[] root;
+    /* the shift of the root's key bits; 0 when the root holds values */
+    private final int shift;
+    /* the number of keys */
+    private final int size;
+
+    private PersistentIntTrie(final Object[] root, final int shift, final int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty trie.
+     *
+     * @param <V> the value type.
+     * @return the empty trie.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntTrie<V> empty() {
+        return (PersistentIntTrie<V>) EMPTY;
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key.
+     * @return the value, or null if the key is not set.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final int key) {
+        if (!fits(key, shift)) {
+            return null;
+        }
+
+        Object[] node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            node = (Object[]) node[(key >>> s) & MASK];
+            if (null == node) {
+                return null;
+            }
+        }
+        return (V) node[key & MASK];
+    }
+
+    /**
+     * Get a trie with a key set to a value, sharing
+     * structure with this one.
+     *
+     * @param key the key.
+     * @param value the value, or null to remove the key.
+     * @return the new trie.
+     */
+    public PersistentIntTrie<V> with(final int key, final V value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("key must not be negative");
+        }
+
+        final V old = get(key);
+        if (old == value) {
+            return this;
+        }
+
+        // grow the root until the key fits beneath it
+        Object[] top = root;
+        int topShift = shift;
+        while (!fits(key, topShift)) {
+            final Object[] grown = new Object[WIDTH];
+            grown[0] = top;
+            top = grown;
+            topShift += BITS;
+        }
+
+        final int newSize = size + (null == old ? 1 : 0) - (null == value ? 1 : 0);
+        return new PersistentIntTrie<>(set(top, topShift, key, value), topShift, newSize);
+    }
+
+    /**
+     * Get the number of keys.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static Object[] set(final Object[] node, final int shift, final int key, final Object value) {
+        final Object[] copy = (null == node) ? new Object[WIDTH] : node.clone();
+        if (shift == 0) {
+            copy[key & MASK] = value;
+        } else {
+            final int i = (key >>> shift) & MASK;
+            copy[i] = set((Object[]) copy[i], shift - BITS, key, value);
+        }
+        return copy;
+    }
+
+    private static boolean fits(final int key, final int shift) {
+        return key >= 0 && (shift + BITS >= Integer.SIZE - 1 || (key >>> (shift + BITS)) == 0);
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * A point region (PR) quadtree of int ids at points in
+ * the plane.
+ *
+ * Each node covers a square, and a leaf that fills up
+ * splits into four quadrants. Inserting a point outside
+ * the root's square grows the tree upwards, doubling the
+ * square until it fits, so no bounds are needed up
+ * front. Removing points merges quadrants that are
+ * nearly empty back into a leaf.
+ *
+ * Exact, rectangle, radius and k-nearest queries only
+ * visit the squares that could hold an answer, so on
+ * reasonably spread points they take time logarithmic
+ * in the number of points plus the size of the answer.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Quadtree">https://en.wikipedia.org/wiki/Quadtree</a>
+ *
+ * @author kirsty
+ */
+public class QuadTree {
+
+    /* the number of points a leaf holds before it splits */
+    private static final int LEAF_CAPACITY = 8;
+    /* leaves this deep never split, so equal points cannot split forever */
+    private static final int MAX_DEPTH = 48;
+
+    /* the x coordinate each id was indexed at */
+    private double[] xs = new double[16];
+    /* the y coordinate each id was indexed at */
+    private double[] ys = new double[16];
+    /* whether each id is in the tree */
+    private boolean[] present = new boolean[16];
+    /* the root, or null when empty */
+    private Quad root;
+    /* the number of points */
+    private int size;
+
+    /**
+     * Add an id at the specified point. If the id is
+     * already in the tree it is moved.
+     *
+     * @param id the id.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @throws IllegalArgumentException if a coordinate is not finite.
+     */
+    public final void insert(final int id, final double x, final double y) {
+        if (Double.isNaN(x) || Double.isNaN(y) || Double.isInfinite(x) || Double.isInfinite(y)) {
+            throw new IllegalArgumentException("coordinates must be finite");
+        }
+        if (id >= present.length) {
+            final int length = Math.max(2 * present.length, id + 1);
+            xs = Arrays.copyOf(xs, length);
+            ys = Arrays.copyOf(ys, length);
+            present = Arrays.copyOf(present, length);
+        }
+        if (present[id]) {
+            remove(id);
+        }
+
+        xs[id] = x;
+        ys[id] = y;
+        present[id] = true;
+        size++;
+
+        if (root == null) {
+            // a unit square on the integer grid, so doubling it stays exact
+            root = new Quad(Math.floor(x), Math.floor(y), 1.0, 0);
+        }
+        while (!root.contains(x, y)) {
+            growTowards(x, y);
+        }
+        root.insert(id);
+    }
+
+    /**
+     * Remove an id.
+     *
+     * @param id the id.
+     * @return whether the id was in the tree.
+     */
+    public final boolean remove(final int id) {
+        if (id >= present.length || !present[id]) {
+            return false;
+        }
+
+        root.remove(id, xs[id], ys[id]);
+        present[id] = false;
+        if (--size == 0) {
+            root = null;
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of points.
+     *
+     * @return the number of points.
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Find an id at exactly the specified point.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @return an id at the point, or -1 if there is none.
+     */
+    public final int find(final double x, final double y) {
+        if (root == null || !root.contains(x, y)) {
+            return -1;
+        }
+
+        Quad q = root;
+        while (q.children != null) {
+            q = q.children[q.quadrant(x, y)];
+        }
+        for (int i = 0; i < q.count; i++) {
+            final int id = q.items[i];
+            if (xs[id] == x && ys[id] == y) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the ids inside a rectangle, as given by
+     * {@link Rectangle2D#contains(double, double)}.
+     *
+     * @param area the rectangle.
+     * @param found the list to add the ids to.
+     */
+    public final void findWithin(final Rectangle2D area, final TIntArrayList found) {
+        if (root != null) {
+            findWithin(root, area, found);
+        }
+    }
+
+    private void findWithin(final Quad q, final Rectangle2D area, final TIntArrayList found) {
+        if (!area.intersects(q.minX, q.minY, q.size, q.size)) {
+            return;
+        }
+
+        if (q.children != null) {
+            for (Quad child : q.children) {
+                findWithin(child, area, found);
+            }
+            return;
+        }
+
+        for (int i = 0; i < q.count; i++) {
+            final int id = q.items[i];
+            if (area.contains(xs[id], ys[id])) {
+                found.add(id);
+            }
+        }
+    }
+
+    /**
+     * Find the ids within a distance of a point.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param radius the greatest distance.
+     * @param found the list to add the ids to.
+     */
+    public final void findWithin(final double x, final double y, final double radius, final TIntArrayList found) {
+        if (root != null) {
+            findWithin(root, x, y, radius * radius, found);
+        }
+    }
+
+    private void findWithin(final Quad q, final double x, final double y, final double radius2,
+                            final TIntArrayList found) {
+        if (q.distanceSquared(x, y) > radius2) {
+            return;
+        }
+
+        if (q.children != null) {
+            for (Quad child : q.children) {
+                findWithin(child, x, y, radius2, found);
+            }
+            return;
+        }
+
+        for (int i = 0; i < q.count; i++) {
+            final int id = q.items[i];
+            if (distanceSquared(id, x, y) <= radius2) {
+                found.add(id);
+            }
+        }
+    }
+
+    /**
+     * Find the id nearest a point.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @return the nearest id, or -1 if the tree is empty.
+     */
+    public final int findNearest(final double x, final double y) {
+        final int[] nearest = findNearest(x, y, 1);
+        return nearest.length == 0 ? -1 : nearest[0];
+    }
+
+    /**
+     * Find the k ids nearest a point.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param k the number of ids to find.
+     * @return the nearest ids, nearest first.
+     */
+    public final int[] findNearest(final double x, final double y, final int k) {
+        final Nearest nearest = new Nearest(Math.max(0, Math.min(k, size)));
+        if (nearest.k > 0) {
+            findNearest(root, x, y, nearest);
+        }
+        return nearest.sorted();
+    }
+
+    private void findNearest(final Quad q, final double x, final double y, final Nearest nearest) {
+        if (nearest.isFull() && q.distanceSquared(x, y) >= nearest.worst()) {
+            return;
+        }
+
+        if (q.children != null) {
+            // the quadrant holding the point first, then the rest
+            final int first = q.quadrant(x, y);
+            findNearest(q.children[first], x, y, nearest);
+            for (int c = 0; c < 4; c++) {
+                if (c != first) {
+                    findNearest(q.children[c], x, y, nearest);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < q.count; i++) {
+            final int id = q.items[i];
+            nearest.offer(id, distanceSquared(id, x, y));
+        }
+    }
+
+    private double distanceSquared(final int id, final double x, final double y) {
+        final double dx = xs[id] - x;
+        final double dy = ys[id] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Double the root's square towards a point, keeping the
+     * old root as one of its quadrants.
+     */
+    private void growTowards(final double x, final double y) {
+        final Quad old = root;
+        final boolean left = x < old.minX;
+        final boolean down = y < old.minY;
+        final double minX = left ? old.minX - old.size : old.minX;
+        final double minY = down ? old.minY - old.size : old.minY;
+
+        final Quad grown = new Quad(minX, minY, 2 * old.size, 0);
+        grown.children = new Quad[4];
+        grown.items = null;
+        grown.count = old.count;
+        final int quadrant = (left ? 1 : 0) | (down ? 2 : 0);
+        for (int c = 0; c < 4; c++) {
+            grown.children[c] = (c == quadrant) ? old : new Quad(minX + ((c & 1) == 0 ? 0 : old.size),
+                    minY + ((c & 2) == 0 ? 0 : old.size), old.size, 1);
+        }
+        old.deepen();
+        root = grown;
+    }
+
+    /**
+     * Keeps the k nearest ids seen so far in a max-heap
+     * by distance.
+     */
+    private static final class Nearest {
+
+        final int k;
+        final int[] ids;
+        final double[] distances;
+        int count;
+
+        Nearest(final int k) {
+            this.k = k;
+            this.ids = new int[k];
+            this.distances = new double[k];
+        }
+
+        boolean isFull() {
+            return count == k;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(final int id, final double distance) {
+            if (count < k) {
+                // sift up
+                int i = count++;
+                while (i > 0) {
+                    final int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distance) {
+                        break;
+                    }
+                    ids[i] = ids[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                ids[i] = id;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                siftDown(id, distance, count);
+            }
+        }
+
+        void siftDown(final int id, final double distance, final int n) {
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < n) {
+                if (child + 1 < n && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                ids[i] = ids[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+        }
+
+        int[] sorted() {
+            // heap sort in place, farthest to the back
+            for (int end = count - 1; end > 0; end--) {
+                final int id = ids[end];
+                final double distance = distances[end];
+                ids[end] = ids[0];
+                distances[end] = distances[0];
+                siftDown(id, distance, end);
+            }
+            return Arrays.copyOf(ids, count);
+        }
+    }
+
+    /**
+     * A square of the tree: a leaf of ids, or four quadrants.
+     */
+    private final class Quad {
+
+        final double minX;
+        final double minY;
+        final double size;
+        int depth;
+        /* the quadrants, by (y half << 1) | x half, or null for a leaf */
+        Quad[] children;
+        /* the ids in a leaf */
+        int[] items;
+        /* the number of ids in this square */
+        int count;
+
+        Quad(final double minX, final double minY, final double size, final int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.size = size;
+            this.depth = depth;
+            this.items = new int[LEAF_CAPACITY];
+        }
+
+        boolean contains(final double x, final double y) {
+            return x >= minX && x < minX + size && y >= minY && y < minY + size;
+        }
+
+        int quadrant(final double x, final double y) {
+            final double half = size / 2;
+            return (x >= minX + half ? 1 : 0) | (y >= minY + half ? 2 : 0);
+        }
+
+        /* the squared distance from a point to the nearest point of this square */
+        double distanceSquared(final double x, final double y) {
+            final double dx = Math.max(0, Math.max(minX - x, x - (minX + size)));
+            final double dy = Math.max(0, Math.max(minY - y, y - (minY + size)));
+            return dx * dx + dy * dy;
+        }
+
+        /* push this subtree one level down, below a new root */
+        void deepen() {
+            depth++;
+            if (children != null) {
+                for (Quad child : children) {
+                    child.deepen();
+                }
+            }
+        }
+
+        void insert(final int id) {
+            count++;
+            if (children != null) {
+                children[quadrant(xs[id], ys[id])].insert(id);
+                return;
+            }
+
+            if (count > items.length) {
+                if (depth < MAX_DEPTH && size / 2 > 0) {
+                    split();
+                    children[quadrant(xs[id], ys[id])].insert(id);
+                    return;
+                }
+                items = Arrays.copyOf(items, 2 * items.length);
+            }
+            items[count - 1] = id;
+        }
+
+        void remove(final int id, final double x, final double y) {
+            count--;
+            if (children != null) {
+                children[quadrant(x, y)].remove(id, x, y);
+                if (count <= LEAF_CAPACITY) {
+                    merge();
+                }
+                return;
+            }
+
+            for (int i = 0; i <= count; i++) {
+                if (items[i] == id) {
+                    items[i] = items[count];
+                    return;
+                }
+            }
+        }
+
+        private void split() {
+            final double half = size / 2;
+            children = new Quad[4];
+            for (int c = 0; c < 4; c++) {
+                children[c] = new Quad(minX + ((c & 1) == 0 ? 0 : half),
+                        minY + ((c & 2) == 0 ? 0 : half), half, depth + 1);
+            }
+
+            final int n = count - 1;
+            count = 0;
+            for (int i = 0; i < n; i++) {
+                count++;
+                children[quadrant(xs[items[i]], ys[items[i]])].insert(items[i]);
+            }
+            count++;
+            items = null;
+        }
+
+        private void merge() {
+            final int[] merged = new int[LEAF_CAPACITY];
+            final int n = collect(merged, 0);
+            children = null;
+            items = merged;
+            count = n;
+        }
+
+        private int collect(final int[] into, int n) {
+            if (children == null) {
+                System.arraycopy(items, 0, into, n, count);
+                return n + count;
+            }
+            for (Quad child : children) {
+                n = child.collect(into, n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import uk.co.kirstywilliams.algorithms.graph.utils.IEdge;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable, compact copy of the adjacency of a
+ * set of nodes, in compressed sparse row form.
+ * Node n's neighbours are targets[offsets[n]] to
+ * targets[offsets[n + 1] - 1], and the weights of
+ * the edges to them are the same range of weights.
+ *
+ * Traversals over the flat arrays read memory in
+ * order, rather than chasing a pointer and probing
+ * a hash table for every edge.
+ *
+ * @author kirsty
+ */
+public class CompactGraph implements IIndexedGraph {
+
+    /* the node at each index */
+    private final INode[] nodes;
+    /* lookup of index by node */
+    private final TObjectIntHashMap<INode> index;
+    /* start of each node's neighbours in targets */
+    private final int[] offsets;
+    /* the neighbours of every node, end to end */
+    private final int[] targets;
+    /* the weight of the edge to each target */
+    private final double[] weights;
+
+    /**
+     * Instantiates a compact graph of the specified nodes,
+     * indexed in iteration order. Edges to nodes outside
+     * the collection are left out.
+     *
+     * @param nodes the nodes.
+     */
+    public CompactGraph(final Collection<? extends INode> nodes) {
+        final int numNodes = nodes.size();
+        this.nodes = nodes.toArray(new INode[numNodes]);
+        this.index = new TObjectIntHashMap<>(numNodes, 0.5f, -1);
+        for (int n = 0; n < numNodes; n++) {
+            index.put(this.nodes[n], n);
+        }
+
+        // count, then fill
+        offsets = new int[numNodes + 1];
+        for (int n = 0; n < numNodes; n++) {
+            int degree = 0;
+            for (INode m : this.nodes[n].getNeighbours()) {
+                if (index.containsKey(m)) {
+                    degree++;
+                }
+            }
+            offsets[n + 1] = offsets[n] + degree;
+        }
+
+        targets = new int[offsets[numNodes]];
+        weights = new double[offsets[numNodes]];
+        for (int n = 0; n < numNodes; n++) {
+            int i = offsets[n];
+            for (IEdge e : this.nodes[n].getEdges()) {
+                int target = index.get(e.getTargetNode());
+                if (target >= 0) {
+                    targets[i] = target;
+                    weights[i++] = e.getWeight();
+                }
+            }
+        }
+    }
+
+    /**
+     * Instantiates a compact graph from its arrays, which
+     * are used as they are, not copied. A null node leaves
+     * an index with no node, which must have no edges.
+     *
+     * @param nodes the node at each index, or null.
+     * @param offsets start of each node's neighbours in targets, of length nodes.length + 1.
+     * @param targets the neighbours of every node, end to end.
+     * @param weights the weight of the edge to each target.
+     */
+    public CompactGraph(final INode[] nodes, final int[] offsets, final int[] targets, final double[] weights) {
+        if (offsets.length != nodes.length + 1 || targets.length != offsets[nodes.length]
+                || weights.length != targets.length) {
+            throw new IllegalArgumentException("array lengths do not match");
+        }
+
+        this.nodes = nodes;
+        this.index = new TObjectIntHashMap<>(nodes.length, 0.5f, -1);
+        for (int n = 0; n < nodes.length; n++) {
+            if (null != nodes[n]) {
+                index.put(nodes[n], n);
+            }
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Instantiates a compact graph sharing its nodes with
+     * another.
+     *
+     * @param nodes the node at each index.
+     * @param index lookup of index by node.
+     * @param offsets start of each node's neighbours in targets.
+     * @param targets the neighbours of every node, end to end.
+     * @param weights the weight of the edge to each target.
+     */
+    private CompactGraph(final INode[] nodes, final TObjectIntHashMap<INode> index,
+                         final int[] offsets, final int[] targets, final double[] weights) {
+        this.nodes = nodes;
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Get the transpose of this graph, i.e. the same nodes
+     * with every edge reversed, so that a node's neighbours
+     * are the nodes with an edge to it. The nodes keep
+     * their indices.
+     *
+     * @return the transpose.
+     */
+    public final CompactGraph transpose() {
+        final int numNodes = nodes.length;
+
+        // count in degrees, then fill
+        final int[] reverseOffsets = new int[numNodes + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int n = 0; n < numNodes; n++) {
+            reverseOffsets[n + 1] += reverseOffsets[n];
+        }
+
+        final int[] next = Arrays.copyOf(reverseOffsets, numNodes);
+        final int[] reverseTargets = new int[targets.length];
+        final double[] reverseWeights = new double[weights.length];
+        for (int n = 0; n < numNodes; n++) {
+            for (int i = offsets[n]; i < offsets[n + 1]; i++) {
+                final int j = next[targets[i]]++;
+                reverseTargets[j] = n;
+                reverseWeights[j] = weights[i];
+            }
+        }
+
+        return new CompactGraph(nodes, index, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    public final int getNumNodes() {
+        return nodes.length;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return the number of directed edges.
+     */
+    public final int getNumEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Get the out degree of a node.
+     *
+     * @param n the node index.
+     * @return the number of neighbours.
+     */
+    public final int getDegree(final int n) {
+        return offsets[n + 1] - offsets[n];
+    }
+
+    /**
+     * Get a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the neighbour's index.
+     */
+    public final int getNeighbour(final int n, final int i) {
+        return targets[offsets[n] + i];
+    }
+
+    /**
+     * Get the weight of the edge to a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the edge weight.
+     */
+    public final double getWeight(final int n, final int i) {
+        return weights[offsets[n] + i];
+    }
+
+    /**
+     * Get the node at the specified index.
+     *
+     * @param n the node index.
+     * @return the node, or null if the index holds none.
+     */
+    public final INode getNode(final int n) {
+        return nodes[n];
+    }
+
+    /**
+     * Check whether an index holds a node.
+     *
+     * @param n the node index.
+     * @return whether there is a node at the index.
+     */
+    @Override
+    public final boolean hasNode(final int n) {
+        return null != nodes[n];
+    }
+
+    /**
+     * Get the index of the specified node.
+     *
+     * @param n the node.
+     * @return the index, or -1 if the node is not in this graph.
+     */
+    public final int getIndex(final INode n) {
+        return index.get(n);
+    }
+
+    /**
+     * Get the neighbour offsets; node n's neighbours are at
+     * offsets[n] to offsets[n + 1] - 1 of the targets.
+     * The array is shared, not copied.
+     *
+     * @return the offsets.
+     */
+    public final int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Get the neighbours of every node, end to end.
+     * The array is shared, not copied.
+     *
+     * @return the targets.
+     */
+    public final int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Get the weight of the edge to each target.
+     * The array is shared, not copied.
+     *
+     * @return the weights.
+     */
+    public final double[] getWeights() {
+        return weights;
+    }
+}
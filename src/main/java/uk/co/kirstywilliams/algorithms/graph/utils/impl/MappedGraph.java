@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import uk.co.kirstywilliams.algorithms.graph.utils.Graph;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A graph read straight from a memory mapped file in a
+ * compact binary format, without deserialising it.
+ *
+ * The file is a header followed by flat big-endian
+ * sections: node coordinates, node weights, edge
+ * weights, compressed sparse row offsets and targets
+ * (as in {@link CompactGraph}), then label offsets and
+ * UTF-8 label bytes. Opening a file only maps it and
+ * checks the header; every read goes to the mapped
+ * pages, which the operating system loads on demand and
+ * shares between processes.
+ *
+ * The header holds a magic number, the format version,
+ * the node and edge counts and the position of every
+ * section, so later versions can add sections. Files
+ * must be under 2GB. Empty labels are read back as null.
+ *
+ * Node objects are only made if asked for, by
+ * {@link #getNode(int)} or {@link #getIndex(INode)}, and
+ * are then made for every node at once.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Memory-mapped_file">https://en.wikipedia.org/wiki/Memory-mapped_file</a>
+ *
+ * @author kirsty
+ */
+public class MappedGraph implements IIndexedGraph {
+
+    /* "AGPH" */
+    public static final int MAGIC = 0x41475048;
+    /* the format version written */
+    public static final int VERSION = 1;
+
+    /* magic, version, node count, edge count, then the seven section positions */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + 7 * Long.BYTES;
+
+    /* the number of nodes */
+    private final int numNodes;
+    /* the number of edges */
+    private final int numEdges;
+    /* x, y of each node */
+    private final DoubleBuffer coordinates;
+    /* the weight of each node */
+    private final DoubleBuffer nodeWeights;
+    /* the weight of the edge to each target */
+    private final DoubleBuffer edgeWeights;
+    /* start of each node's neighbours in targets */
+    private final IntBuffer offsets;
+    /* the neighbours of every node, end to end */
+    private final IntBuffer targets;
+    /* start of each node's label in the label bytes */
+    private final IntBuffer labelOffsets;
+    /* the labels of every node, end to end */
+    private final ByteBuffer labels;
+
+    /* the node at each index, made on first use */
+    private volatile INode[] nodes;
+    /* lookup of index by node, made on first use */
+    private volatile TObjectIntHashMap<INode> index;
+
+    private MappedGraph(final ByteBuffer file) throws IOException {
+        if (file.capacity() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IOException("not a graph file");
+        }
+        final int version = file.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported graph file version " + version);
+        }
+
+        numNodes = file.getInt(8);
+        numEdges = file.getInt(12);
+        if (numNodes < 0 || numEdges < 0) {
+            throw new IOException("corrupt graph file header");
+        }
+
+        coordinates = section(file, 0, 2L * numNodes * Double.BYTES).asDoubleBuffer();
+        nodeWeights = section(file, 1, (long) numNodes * Double.BYTES).asDoubleBuffer();
+        edgeWeights = section(file, 2, (long) numEdges * Double.BYTES).asDoubleBuffer();
+        offsets = section(file, 3, (numNodes + 1L) * Integer.BYTES).asIntBuffer();
+        targets = section(file, 4, (long) numEdges * Integer.BYTES).asIntBuffer();
+        labelOffsets = section(file, 5, (numNodes + 1L) * Integer.BYTES).asIntBuffer();
+        labels = section(file, 6, labelOffsets.get(numNodes));
+    }
+
+    /**
+     * Open a graph file.
+     *
+     * @param path the file.
+     * @return the mapped graph.
+     * @throws IOException if the file cannot be read or is not a graph file.
+     */
+    public static MappedGraph open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("graph files over 2GB are not supported");
+            }
+            // the mapping stays valid after the channel is closed
+            return new MappedGraph(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a graph to a file, indexing its nodes in id
+     * order with the free ids left out. The file index of
+     * a node is its id only if no id below it is free.
+     *
+     * @param graph the graph.
+     * @param path the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final Graph graph, final Path path) throws IOException {
+        final List<INode> nodes = new ArrayList<>(graph.getNumNodes());
+        for (int id = 0; id < graph.getIdBound(); id++) {
+            final INode n = graph.nodeAt(id);
+            if (null != n) {
+                nodes.add(n);
+            }
+        }
+        write(new CompactGraph(nodes), path);
+    }
+
+    /**
+     * Write a compact graph to a file. Node n of the file
+     * is node n of the compact graph, which must have a
+     * node at every index.
+     *
+     * @param graph the compact graph.
+     * @param path the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(final CompactGraph graph, final Path path) throws IOException {
+        final int numNodes = graph.getNumNodes();
+        final int numEdges = graph.getNumEdges();
+
+        for (int n = 0; n < numNodes; n++) {
+            if (!graph.hasNode(n)) {
+                throw new IllegalArgumentException("no node at index " + n);
+            }
+        }
+
+        final byte[][] labelBytes = new byte[numNodes][];
+        long totalLabelBytes = 0;
+        for (int n = 0; n < numNodes; n++) {
+            final String label = graph.getNode(n).getLabel();
+            labelBytes[n] = (null == label) ? new byte[0] : label.getBytes(StandardCharsets.UTF_8);
+            totalLabelBytes += labelBytes[n].length;
+        }
+
+        // the doubles first, so every section is aligned to its element size
+        final long[] positions = new long[7];
+        positions[0] = HEADER_SIZE;
+        positions[1] = positions[0] + 2L * numNodes * Double.BYTES;
+        positions[2] = positions[1] + (long) numNodes * Double.BYTES;
+        positions[3] = positions[2] + (long) numEdges * Double.BYTES;
+        positions[4] = positions[3] + (numNodes + 1L) * Integer.BYTES;
+        positions[5] = positions[4] + (long) numEdges * Integer.BYTES;
+        positions[6] = positions[5] + (numNodes + 1L) * Integer.BYTES;
+        final long size = positions[6] + totalLabelBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("graph files over 2GB are not supported");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(VERSION).putInt(numNodes).putInt(numEdges);
+            for (long p : positions) {
+                out.putLong(p);
+            }
+
+            for (int n = 0; n < numNodes; n++) {
+                out.putDouble(graph.getNode(n).getLocation().getxCoord());
+                out.putDouble(graph.getNode(n).getLocation().getyCoord());
+            }
+            for (int n = 0; n < numNodes; n++) {
+                out.putDouble(graph.getNode(n).getWeight());
+            }
+            for (double w : graph.getWeights()) {
+                out.putDouble(w);
+            }
+            for (int offset : graph.getOffsets()) {
+                out.putInt(offset);
+            }
+            for (int target : graph.getTargets()) {
+                out.putInt(target);
+            }
+            int labelOffset = 0;
+            for (int n = 0; n < numNodes; n++) {
+                out.putInt(labelOffset);
+                labelOffset += labelBytes[n].length;
+            }
+            out.putInt(labelOffset);
+            for (byte[] label : labelBytes) {
+                out.put(label);
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    public final int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return the number of directed edges.
+     */
+    public final int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Get the out degree of a node.
+     *
+     * @param n the node index.
+     * @return the number of neighbours.
+     */
+    public final int getDegree(final int n) {
+        return offsets.get(n + 1) - offsets.get(n);
+    }
+
+    /**
+     * Get a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the neighbour's index.
+     */
+    public final int getNeighbour(final int n, final int i) {
+        return targets.get(offsets.get(n) + i);
+    }
+
+    /**
+     * Get the weight of the edge to a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the edge weight.
+     */
+    public final double getWeight(final int n, final int i) {
+        return edgeWeights.get(offsets.get(n) + i);
+    }
+
+    /**
+     * Get the x coordinate of a node.
+     *
+     * @param n the node index.
+     * @return the x coordinate.
+     */
+    public final double getX(final int n) {
+        return coordinates.get(2 * n);
+    }
+
+    /**
+     * Get the y coordinate of a node.
+     *
+     * @param n the node index.
+     * @return the y coordinate.
+     */
+    public final double getY(final int n) {
+        return coordinates.get(2 * n + 1);
+    }
+
+    /**
+     * Get the weight of a node.
+     *
+     * @param n the node index.
+     * @return the node weight.
+     */
+    public final double getNodeWeight(final int n) {
+        return nodeWeights.get(n);
+    }
+
+    /**
+     * Get the label of a node.
+     *
+     * @param n the node index.
+     * @return the label, or null if it has none.
+     */
+    public final String getLabel(final int n) {
+        final int start = labelOffsets.get(n);
+        final int length = labelOffsets.get(n + 1) - start;
+        if (length == 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = labels.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the node at the specified index, making the node
+     * objects on first use. The nodes carry the location,
+     * weight and label but no edges.
+     *
+     * @param n the node index.
+     * @return the node.
+     */
+    public final INode getNode(final int n) {
+        return getNodes()[n];
+    }
+
+    /**
+     * Get the index of the specified node.
+     *
+     * @param n the node.
+     * @return the index, or -1 if the node is not in this graph.
+     */
+    public final int getIndex(final INode n) {
+        TObjectIntHashMap<INode> lookup = index;
+        if (null == lookup) {
+            lookup = makeIndex();
+        }
+        return lookup.get(n);
+    }
+
+    private INode[] getNodes() {
+        final INode[] made = nodes;
+        return (null == made) ? makeNodes() : made;
+    }
+
+    private synchronized INode[] makeNodes() {
+        if (null == nodes) {
+            final INode[] made = new INode[numNodes];
+            for (int n = 0; n < numNodes; n++) {
+                made[n] = new Node(getX(n), getY(n), 0);
+                made[n].setWeight(getNodeWeight(n));
+                made[n].setLabel(getLabel(n));
+            }
+            nodes = made;
+        }
+        return nodes;
+    }
+
+    private synchronized TObjectIntHashMap<INode> makeIndex() {
+        if (null == index) {
+            final INode[] made = getNodes();
+            final TObjectIntHashMap<INode> lookup = new TObjectIntHashMap<>(numNodes, 0.5f, -1);
+            for (int i = 0; i < numNodes; i++) {
+                lookup.put(made[i], i);
+            }
+            index = lookup;
+        }
+        return index;
+    }
+
+    /**
+     * Slice out the section at the position in the header's
+     * section table.
+     */
+    private static ByteBuffer section(final ByteBuffer file, final int section, final long length)
+            throws IOException {
+        final long position = file.getLong(4 * Integer.BYTES + section * Long.BYTES);
+        if (position < HEADER_SIZE || length < 0 || position + length > file.capacity()) {
+            throw new IOException("corrupt graph file section " + section);
+        }
+
+        final ByteBuffer view = file.duplicate();
+        view.limit((int) (position + length)).position((int) position);
+        return view.slice();
+    }
+}
@@ -8,11 +8,12 @@ import gnu.trove.map.hash.THashMap;
 import gnu.trove.procedure.TObjectProcedure;
 import uk.co.kirstywilliams.algorithms.graph.BreadthFirstSearch;
 import uk.co.kirstywilliams.algorithms.graph.utils.Coordinate;
+import uk.co.kirstywilliams.algorithms.graph.utils.EdgeFactory;
 import uk.co.kirstywilliams.algorithms.graph.utils.IEdge;
 import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.LocationListener;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -24,15 +25,24 @@ import java.util.Set;
  */
 public class Node implements INode {
 
-    /* reference to the edge class used. */
-    private Class<? extends IEdge> edgeClass = Edge.class;
+    /* makes the edges added by this node */
+    private EdgeFactory edgeFactory = Edge::new;
 
     /* the coordinate location of the node in the plane */
     private Coordinate location = new Coordinate();
 
+    /* no listeners, shared by nodes that have none */
+    private static final LocationListener[] NO_LISTENERS = new LocationListener[0];
+
+    /* told when the node moves, e.g. by each graph holding it */
+    private LocationListener[] locationListeners = NO_LISTENERS;
+
     /* cache, lookup by node */
     protected final THashMap<INode, IEdge> cache;
 
+    /* incoming edges, lookup by source node */
+    protected final THashMap<INode, IEdge> incoming;
+
     /* nodes weight */
     private double weight;
 
@@ -50,6 +60,7 @@ public class Node implements INode {
     public Node(final double x, final double y, final int cacheSize) {
         setLocation(x, y);
         cache = new THashMap<>(cacheSize);
+        incoming = new THashMap<>(cacheSize);
     }
 
     /**
@@ -59,6 +70,7 @@ public class Node implements INode {
      */
     public Node(final int cacheSize) {
         cache = new THashMap<>(cacheSize);
+        incoming = new THashMap<>(cacheSize);
     }
 
     /**
@@ -70,6 +82,7 @@ public class Node implements INode {
     public Node(final INode n) {
         setLocation(n.getLocation());
         cache = new THashMap<>(n.getDegree());
+        incoming = new THashMap<>(n.getInDegree());
     }
 
     /**
@@ -79,6 +92,7 @@ public class Node implements INode {
      */
     private void addCache(final IEdge e) {
         cache.put(e.getTargetNode(), e);
+        e.getTargetNode().addIncomingEdge(e);
     }
 
     /**
@@ -105,7 +119,7 @@ public class Node implements INode {
             return e;
         }
 
-        return addEdge(createEdge(this, n));
+        return addEdge(edgeFactory.create(this, n));
     }
 
     /**
@@ -122,38 +136,34 @@ public class Node implements INode {
         return e;
     }
 
+    /**
+     * Add an incoming edge to this node.
+     * (called by the edge's source node)
+     *
+     * @param e the incoming edge.
+     */
+    public void addIncomingEdge(final IEdge e) {
+        incoming.put(e.getSourceNode(), e);
+    }
+
     /**
      * Clear the cache.
      */
     public void clearEdges() {
+        for (IEdge e : cache.values()) {
+            e.getTargetNode().deleteIncomingEdge(this);
+        }
         cache.clear();
     }
 
     /**
-     * Create an edge between the specified nodes.
-     *
-     * @param n the source node.
-     * @param m the target node.
-     * @return the created edge.
+     * Delete every incoming edge from its source node.
      */
-    private IEdge createEdge(final INode n, final INode m) {
-        IEdge e = null;
-
-        try {
-            Constructor<? extends IEdge> c = edgeClass.getDeclaredConstructor(
-                    INode.class, INode.class
-            );
-            e = c.newInstance(n, m);
-        } catch (IllegalArgumentException |
-                NoSuchMethodException |
-                InstantiationException |
-                IllegalAccessException |
-                InvocationTargetException |
-                SecurityException exception) {
-            exception.printStackTrace();
+    public void clearIncomingEdges() {
+        for (IEdge e : incoming.values().toArray(new IEdge[incoming.size()])) {
+            e.getSourceNode().deleteEdge(this);
         }
-
-        return e;
+        incoming.clear();
     }
 
     /**
@@ -177,6 +187,17 @@ public class Node implements INode {
         return removeCache(n);
     }
 
+    /**
+     * Delete an incoming edge from this node.
+     * (called by the edge's source node)
+     *
+     * @param n the source node of the edge.
+     * @return the deleted edge.
+     */
+    public IEdge deleteIncomingEdge(final INode n) {
+        return incoming.remove(n);
+    }
+
     /**
      * Iterate over each neighbour applying the procedure.
      *
@@ -196,6 +217,15 @@ public class Node implements INode {
         return cache.size();
     }
 
+    /**
+     * Get the number of incoming edges.
+     *
+     * @return this nodes in-degree.
+     */
+    public final int getInDegree() {
+        return incoming.size();
+    }
+
     /**
      * Get the eccentricity, i.e. the max distance
      * between this and any other node.
@@ -204,10 +234,7 @@ public class Node implements INode {
      * @return this nodes eccentricity
      */
     public final int getEccentricity() {
-        final BreadthFirstSearch bfs = new BreadthFirstSearch();
-        bfs.findAll(this);
-
-        return bfs.getMaxDepth();
+        return BreadthFirstSearch.eccentricityOf(this);
     }
 
     /**
@@ -222,12 +249,23 @@ public class Node implements INode {
     }
 
     /**
-     * Get the edge class being used.
+     * Get the edge connecting the specified node to this
+     * node.
      *
-     * @return the edge class.
+     * @param n the source node of the desired edge.
+     * @return the edge
      */
-    public Class<? extends IEdge> getEdgeClass() {
-        return edgeClass;
+    public final IEdge getIncomingEdge(INode n) {
+        return incoming.get(n);
+    }
+
+    /**
+     * Get the factory making the edges added by this node.
+     *
+     * @return the edge factory.
+     */
+    public EdgeFactory getEdgeFactory() {
+        return edgeFactory;
     }
 
     /**
@@ -239,6 +277,15 @@ public class Node implements INode {
         return (Set<IEdge>) cache.values();
     }
 
+    /**
+     * Get all edges ending at this node.
+     *
+     * @return all incoming edges.
+     */
+    public final Set<IEdge> getIncomingEdges() {
+        return (Set<IEdge>) incoming.values();
+    }
+
     /**
      * Get the euclidean distance between this node
      * and the specified node.
@@ -270,6 +317,10 @@ public class Node implements INode {
 
     /**
      * Get the location for this node in the 2D plane.
+     * Changing the returned coordinate moves the node
+     * without telling its listeners, so a graph would
+     * still find it at its old location; use
+     * {@link #setLocation(double, double)} instead.
      *
      * @return this node's coordinates.
      */
@@ -285,6 +336,9 @@ public class Node implements INode {
      */
     public final void setLocation(final double x, final double y) {
         location.setLocation(x, y);
+        for (LocationListener l : locationListeners) {
+            l.locationChanged(this);
+        }
     }
 
     /**
@@ -293,7 +347,46 @@ public class Node implements INode {
      * @param coord the new coordinates.
      */
     public final void setLocation(final Coordinate coord) {
-        location.setLocation(coord);
+        setLocation(coord.getxCoord(), coord.getyCoord());
+    }
+
+    /**
+     * Add a listener to be told when this node moves. Each
+     * {@link uk.co.kirstywilliams.algorithms.graph.utils.Graph}
+     * holding the node adds one, so a node in several graphs
+     * keeps all of them up to date. Adding a listener twice
+     * has no effect.
+     *
+     * @param l the listener.
+     */
+    public void addLocationListener(final LocationListener l) {
+        for (LocationListener m : locationListeners) {
+            if (m == l) {
+                return;
+            }
+        }
+
+        final int size = locationListeners.length;
+        locationListeners = Arrays.copyOf(locationListeners, size + 1);
+        locationListeners[size] = l;
+    }
+
+    /**
+     * Remove a listener added with
+     * {@link #addLocationListener(LocationListener)}.
+     *
+     * @param l the listener.
+     */
+    public void removeLocationListener(final LocationListener l) {
+        for (int i = 0; i < locationListeners.length; i++) {
+            if (locationListeners[i] == l) {
+                final LocationListener[] left = new LocationListener[locationListeners.length - 1];
+                System.arraycopy(locationListeners, 0, left, 0, i);
+                System.arraycopy(locationListeners, i + 1, left, i, left.length - i);
+                locationListeners = left.length == 0 ? NO_LISTENERS : left;
+                return;
+            }
+        }
     }
 
     /**
@@ -345,7 +438,9 @@ public class Node implements INode {
             return;
         }
 
-        cache.remove(e.getTargetNode());
+        if (null != cache.remove(e.getTargetNode())) {
+            e.getTargetNode().deleteIncomingEdge(this);
+        }
     }
 
     /**
@@ -362,16 +457,21 @@ public class Node implements INode {
             return null;
         }
 
+        n.deleteIncomingEdge(this);
         return e;
     }
 
     /**
-     * Set the edge class being used.
+     * Set the factory making the edges added by this node,
+     * e.g. Edge::new.
      *
-     * @param edgeClass reference to the edge class being used.
+     * @param edgeFactory the edge factory.
      */
-    public void setEdgeClass(Class<? extends IEdge> edgeClass) {
-        this.edgeClass = edgeClass;
+    public void setEdgeFactory(final EdgeFactory edgeFactory) {
+        if (null == edgeFactory) {
+            throw new IllegalArgumentException("edgeFactory must not be null");
+        }
+        this.edgeFactory = edgeFactory;
     }
 
     /**
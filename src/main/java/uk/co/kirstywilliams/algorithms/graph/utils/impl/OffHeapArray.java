@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A growable array of fixed width elements, stored
+ * outside the Java heap in direct buffers of up to 1GB
+ * each, so it may hold more than 2GB and the garbage
+ * collector never scans or copies it.
+ *
+ * Element sizes divide the chunk size, so no element
+ * straddles two chunks.
+ *
+ * @author kirsty
+ */
+final class OffHeapArray {
+
+    /* log2 of the largest chunk, in bytes */
+    private static final int CHUNK_SHIFT = 30;
+    /* the largest chunk, in bytes */
+    private static final int CHUNK_BYTES = 1 << CHUNK_SHIFT;
+    /* the position within a chunk */
+    private static final long CHUNK_MASK = CHUNK_BYTES - 1;
+    /* the smallest chunk allocated, in bytes */
+    private static final int MIN_CHUNK_BYTES = 64;
+
+    /* the width of each element in bytes */
+    private final int elementSize;
+    /* the memory, in order */
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    /* the number of bytes held */
+    private long capacity;
+
+    /**
+     * Instantiates an array with room for the specified
+     * number of elements, all zero.
+     *
+     * @param elementSize the width of each element: 4 or 8 bytes.
+     * @param length the initial number of elements.
+     */
+    OffHeapArray(final int elementSize, final long length) {
+        if (elementSize != Integer.BYTES && elementSize != Long.BYTES) {
+            throw new IllegalArgumentException("elements must be 4 or 8 bytes");
+        }
+
+        this.elementSize = elementSize;
+        ensureCapacity(length);
+    }
+
+    /**
+     * Grow the array to hold at least the specified number
+     * of elements. New elements are zero.
+     *
+     * @param length the number of elements.
+     */
+    void ensureCapacity(final long length) {
+        final long bytes = length * elementSize;
+        while (capacity < bytes) {
+            final int last = chunks.length - 1;
+            if (last >= 0 && chunks[last].capacity() < CHUNK_BYTES) {
+                // double the last chunk, up to the chunk size
+                final long wanted = Math.max(2L * chunks[last].capacity(), bytes - ((long) last << CHUNK_SHIFT));
+                final ByteBuffer grown = allocate((int) Math.min(CHUNK_BYTES, wanted));
+                final ByteBuffer old = chunks[last].duplicate();
+                old.clear();
+                grown.put(old).clear();
+                chunks[last] = grown;
+            } else {
+                final long wanted = Math.max(MIN_CHUNK_BYTES, bytes - ((long) (last + 1) << CHUNK_SHIFT));
+                chunks = Arrays.copyOf(chunks, last + 2);
+                chunks[last + 1] = allocate((int) Math.min(CHUNK_BYTES, wanted));
+            }
+
+            final int end = chunks.length - 1;
+            capacity = ((long) end << CHUNK_SHIFT) + chunks[end].capacity();
+        }
+    }
+
+    /**
+     * Get the number of elements the array holds.
+     *
+     * @return the capacity in elements.
+     */
+    long length() {
+        return capacity / elementSize;
+    }
+
+    /**
+     * Get the number of bytes held off the heap.
+     *
+     * @return the size in bytes.
+     */
+    long sizeInBytes() {
+        return capacity;
+    }
+
+    int getInt(final long i) {
+        final long b = i * Integer.BYTES;
+        return chunks[(int) (b >>> CHUNK_SHIFT)].getInt((int) (b & CHUNK_MASK));
+    }
+
+    void putInt(final long i, final int value) {
+        final long b = i * Integer.BYTES;
+        chunks[(int) (b >>> CHUNK_SHIFT)].putInt((int) (b & CHUNK_MASK), value);
+    }
+
+    long getLong(final long i) {
+        final long b = i * Long.BYTES;
+        return chunks[(int) (b >>> CHUNK_SHIFT)].getLong((int) (b & CHUNK_MASK));
+    }
+
+    void putLong(final long i, final long value) {
+        final long b = i * Long.BYTES;
+        chunks[(int) (b >>> CHUNK_SHIFT)].putLong((int) (b & CHUNK_MASK), value);
+    }
+
+    double getDouble(final long i) {
+        final long b = i * Double.BYTES;
+        return chunks[(int) (b >>> CHUNK_SHIFT)].getDouble((int) (b & CHUNK_MASK));
+    }
+
+    void putDouble(final long i, final double value) {
+        final long b = i * Double.BYTES;
+        chunks[(int) (b >>> CHUNK_SHIFT)].putDouble((int) (b & CHUNK_MASK), value);
+    }
+
+    private static ByteBuffer allocate(final int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
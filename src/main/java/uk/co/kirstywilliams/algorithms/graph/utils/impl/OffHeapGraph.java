@@ -0,0 +1,680 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import gnu.trove.procedure.TObjectProcedure;
+import uk.co.kirstywilliams.algorithms.graph.BreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.utils.Coordinate;
+import uk.co.kirstywilliams.algorithms.graph.utils.IEdge;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A graph stored outside the Java heap, for graphs too
+ * large for node and edge objects.
+ *
+ * Nodes are numbered 0 to getNumNodes() - 1. Their
+ * coordinates and weights, and the edges in compressed
+ * sparse row form (as in {@link CompactGraph}, but with
+ * long offsets so there may be more than 2^31 edges), are
+ * kept in direct buffers: 12 bytes per edge and 32 per
+ * node, with the reverse edges another 8 bytes per edge
+ * and 8 per node if kept. The heap holds only a handful
+ * of buffer objects however large the graph, so garbage
+ * collection pauses do not grow with it.
+ *
+ * Direct memory is limited by -XX:MaxDirectMemorySize,
+ * which defaults to the maximum heap size, so large
+ * graphs need it raised. The builder holds 16 bytes per
+ * edge (its arrays grow by up to 1GB at a time) until
+ * {@link Builder#build(boolean)} has copied them, so the
+ * peak is about 28 bytes per edge (36 with the reverse
+ * edges) plus 48 per node. Direct memory is only freed
+ * when its buffers are garbage collected, after the
+ * builder and graph are unreachable.
+ *
+ * Nodes and edges are handed out as flyweights, small
+ * objects that only hold an index into the buffers and
+ * are equal when their indices are. They implement the
+ * reading side of {@link INode} and {@link IEdge}, so
+ * code written against those interfaces can walk the
+ * graph; node and edge weights and node locations may
+ * be set, but the edges are fixed when the graph is
+ * built and labels are not stored.
+ *
+ * @See <a href="https://en.wikipedia.org/wiki/Flyweight_pattern">https://en.wikipedia.org/wiki/Flyweight_pattern</a>
+ *
+ * @author kirsty
+ */
+public class OffHeapGraph implements IIndexedGraph {
+
+    /* the number of nodes */
+    private final int numNodes;
+    /* the number of edges */
+    private final long numEdges;
+    /* x, y of each node */
+    private final OffHeapArray coordinates;
+    /* the weight of each node */
+    private final OffHeapArray nodeWeights;
+    /* start of each node's edges, as longs */
+    private final OffHeapArray offsets;
+    /* the target of every edge, as ints */
+    private final OffHeapArray targets;
+    /* the weight of every edge */
+    private final OffHeapArray weights;
+    /* start of each node's incoming edges, or null if not kept */
+    private final OffHeapArray reverseOffsets;
+    /* the edge of each incoming edge, by position in targets, or null */
+    private final OffHeapArray reverseEdges;
+
+    private OffHeapGraph(final Builder builder, final boolean incoming) {
+        numNodes = builder.numNodes;
+        numEdges = builder.numEdges;
+        coordinates = builder.coordinates;
+        nodeWeights = builder.nodeWeights;
+
+        // count, then fill
+        offsets = new OffHeapArray(Long.BYTES, numNodes + 1L);
+        for (long e = 0; e < numEdges; e++) {
+            final int s = builder.sources.getInt(e);
+            offsets.putLong(s + 1L, offsets.getLong(s + 1L) + 1);
+        }
+        for (int n = 0; n < numNodes; n++) {
+            offsets.putLong(n + 1L, offsets.getLong(n + 1L) + offsets.getLong(n));
+        }
+
+        targets = new OffHeapArray(Integer.BYTES, numEdges);
+        weights = new OffHeapArray(Double.BYTES, numEdges);
+        final OffHeapArray next = new OffHeapArray(Long.BYTES, numNodes);
+        for (int n = 0; n < numNodes; n++) {
+            next.putLong(n, offsets.getLong(n));
+        }
+        for (long e = 0; e < numEdges; e++) {
+            final int s = builder.sources.getInt(e);
+            final long i = next.getLong(s);
+            next.putLong(s, i + 1);
+            targets.putInt(i, builder.targets.getInt(e));
+            weights.putDouble(i, builder.weights.getDouble(e));
+        }
+
+        if (!incoming) {
+            reverseOffsets = null;
+            reverseEdges = null;
+            return;
+        }
+
+        reverseOffsets = new OffHeapArray(Long.BYTES, numNodes + 1L);
+        for (long i = 0; i < numEdges; i++) {
+            final int t = targets.getInt(i);
+            reverseOffsets.putLong(t + 1L, reverseOffsets.getLong(t + 1L) + 1);
+        }
+        for (int n = 0; n < numNodes; n++) {
+            reverseOffsets.putLong(n + 1L, reverseOffsets.getLong(n + 1L) + reverseOffsets.getLong(n));
+            next.putLong(n, reverseOffsets.getLong(n));
+        }
+        reverseEdges = new OffHeapArray(Long.BYTES, numEdges);
+        for (long i = 0; i < numEdges; i++) {
+            final int t = targets.getInt(i);
+            final long j = next.getLong(t);
+            next.putLong(t, j + 1);
+            reverseEdges.putLong(j, i);
+        }
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    public final int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Get the number of edges.
+     *
+     * @return the number of directed edges.
+     */
+    public final long getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Get the out degree of a node.
+     *
+     * @param n the node index.
+     * @return the number of neighbours.
+     */
+    public final int getDegree(final int n) {
+        return (int) (offsets.getLong(n + 1L) - offsets.getLong(n));
+    }
+
+    /**
+     * Get a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the neighbour's index.
+     */
+    public final int getNeighbour(final int n, final int i) {
+        return targets.getInt(offsets.getLong(n) + i);
+    }
+
+    /**
+     * Get the weight of the edge to a neighbour of a node.
+     *
+     * @param n the node index.
+     * @param i which neighbour, from 0 to the degree - 1.
+     * @return the edge weight.
+     */
+    public final double getWeight(final int n, final int i) {
+        return weights.getDouble(offsets.getLong(n) + i);
+    }
+
+    /**
+     * Get the node at the specified index, as a flyweight.
+     *
+     * @param n the node index.
+     * @return the node.
+     */
+    public final INode getNode(final int n) {
+        return new NodeView(this, n);
+    }
+
+    /**
+     * Get the index of the specified node.
+     *
+     * @param n the node.
+     * @return the index, or -1 if the node is not in this graph.
+     */
+    public final int getIndex(final INode n) {
+        return (n instanceof NodeView && ((NodeView) n).graph == this) ? ((NodeView) n).index : -1;
+    }
+
+    /**
+     * Check whether the incoming edges were kept.
+     *
+     * @return whether the incoming edges can be read.
+     */
+    public final boolean hasIncomingEdges() {
+        return null != reverseOffsets;
+    }
+
+    /**
+     * Get the number of bytes held off the heap.
+     *
+     * @return the size in bytes.
+     */
+    public final long sizeInBytes() {
+        long size = coordinates.sizeInBytes() + nodeWeights.sizeInBytes() + offsets.sizeInBytes()
+                + targets.sizeInBytes() + weights.sizeInBytes();
+        if (null != reverseOffsets) {
+            size += reverseOffsets.sizeInBytes() + reverseEdges.sizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Find the position of the edge from one node to
+     * another.
+     *
+     * @return the edge position, or -1 if there is none.
+     */
+    private long findEdge(final int source, final int target) {
+        final long end = offsets.getLong(source + 1L);
+        for (long i = offsets.getLong(source); i < end; i++) {
+            if (targets.getInt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the source of an edge, by binary search of the
+     * offsets.
+     */
+    private int sourceOf(final long edge) {
+        int lo = 0;
+        int hi = numNodes - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (offsets.getLong(mid) <= edge) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private void requireIncoming() {
+        if (null == reverseOffsets) {
+            throw new UnsupportedOperationException("the graph was built without incoming edges");
+        }
+    }
+
+    /**
+     * Builds an off-heap graph, appending nodes and edges
+     * in any order.
+     */
+    public static final class Builder {
+
+        /* the number of nodes */
+        private int numNodes;
+        /* the number of edges */
+        private long numEdges;
+        /* x, y of each node */
+        private OffHeapArray coordinates = new OffHeapArray(Double.BYTES, 0);
+        /* the weight of each node */
+        private OffHeapArray nodeWeights = new OffHeapArray(Double.BYTES, 0);
+        /* the source of each edge */
+        private OffHeapArray sources = new OffHeapArray(Integer.BYTES, 0);
+        /* the target of each edge */
+        private OffHeapArray targets = new OffHeapArray(Integer.BYTES, 0);
+        /* the weight of each edge */
+        private OffHeapArray weights = new OffHeapArray(Double.BYTES, 0);
+        /* whether build has been called */
+        private boolean built;
+
+        /**
+         * Add a node at the specified coordinates.
+         *
+         * @param x the x coordinate.
+         * @param y the y coordinate.
+         * @return the index of the new node.
+         */
+        public int addNode(final double x, final double y) {
+            checkNotBuilt();
+            if (numNodes == Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("too many nodes");
+            }
+
+            final int n = numNodes++;
+            coordinates.ensureCapacity(2L * numNodes);
+            nodeWeights.ensureCapacity(numNodes);
+            coordinates.putDouble(2L * n, x);
+            coordinates.putDouble(2L * n + 1, y);
+            return n;
+        }
+
+        /**
+         * Add a directed edge between two nodes.
+         *
+         * @param source the source node index.
+         * @param target the target node index.
+         * @param weight the edge weight.
+         */
+        public void addEdge(final int source, final int target, final double weight) {
+            checkNotBuilt();
+            if (source < 0 || source >= numNodes || target < 0 || target >= numNodes) {
+                throw new IndexOutOfBoundsException("no such node: " + (source < 0 || source >= numNodes ? source : target));
+            }
+
+            final long e = numEdges++;
+            sources.ensureCapacity(numEdges);
+            targets.ensureCapacity(numEdges);
+            weights.ensureCapacity(numEdges);
+            sources.putInt(e, source);
+            targets.putInt(e, target);
+            weights.putDouble(e, weight);
+        }
+
+        /**
+         * Add an edge in both directions between two nodes.
+         *
+         * @param n a node index.
+         * @param m another node index.
+         * @param weight the edge weight.
+         */
+        public void addBidirectionalEdge(final int n, final int m, final double weight) {
+            addEdge(n, m, weight);
+            addEdge(m, n, weight);
+        }
+
+        /**
+         * Build the graph. The builder cannot be used again,
+         * and drops its edges so their memory can be freed.
+         *
+         * @param incoming whether to keep the incoming edges of every node.
+         * @return the graph.
+         */
+        public OffHeapGraph build(final boolean incoming) {
+            checkNotBuilt();
+            built = true;
+            final OffHeapGraph graph = new OffHeapGraph(this, incoming);
+
+            // the graph owns the node arrays, and the edges have been copied
+            coordinates = null;
+            nodeWeights = null;
+            sources = null;
+            targets = null;
+            weights = null;
+            return graph;
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("the graph has been built");
+            }
+        }
+    }
+
+    /**
+     * A node of an off-heap graph.
+     */
+    private static final class NodeView implements INode {
+
+        final OffHeapGraph graph;
+        final int index;
+
+        NodeView(final OffHeapGraph graph, final int index) {
+            this.graph = graph;
+            this.index = index;
+        }
+
+        public String getLabel() {
+            return null;
+        }
+
+        public void setLabel(final String label) {
+            throw new UnsupportedOperationException("labels are not stored off-heap");
+        }
+
+        public double getWeight() {
+            return graph.nodeWeights.getDouble(index);
+        }
+
+        public void setWeight(final double weight) {
+            graph.nodeWeights.putDouble(index, weight);
+        }
+
+        public Coordinate getLocation() {
+            return new Coordinate(graph.coordinates.getDouble(2L * index), graph.coordinates.getDouble(2L * index + 1));
+        }
+
+        public void setLocation(final Coordinate coordinate) {
+            setLocation(coordinate.getxCoord(), coordinate.getyCoord());
+        }
+
+        public void setLocation(final double x, final double y) {
+            graph.coordinates.putDouble(2L * index, x);
+            graph.coordinates.putDouble(2L * index + 1, y);
+        }
+
+        public IEdge getEdge(final INode n) {
+            final int m = graph.getIndex(n);
+            if (m < 0) {
+                return null;
+            }
+            final long e = graph.findEdge(index, m);
+            return (e < 0) ? null : new EdgeView(graph, index, e);
+        }
+
+        public Set<IEdge> getEdges() {
+            return new OutgoingEdges(this);
+        }
+
+        public IEdge addEdge(final IEdge e) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge addEdge(final INode n) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge addEdge(final INode n, final double weight) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public void clearEdges() {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge deleteEdge(final IEdge e) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge deleteEdge(final INode n) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge getIncomingEdge(final INode n) {
+            graph.requireIncoming();
+            final int m = graph.getIndex(n);
+            if (m < 0) {
+                return null;
+            }
+            final long e = graph.findEdge(m, index);
+            return (e < 0) ? null : new EdgeView(graph, m, e);
+        }
+
+        public Set<IEdge> getIncomingEdges() {
+            graph.requireIncoming();
+            return new IncomingEdges(this);
+        }
+
+        public void addIncomingEdge(final IEdge e) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public IEdge deleteIncomingEdge(final INode n) {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public void clearIncomingEdges() {
+            throw new UnsupportedOperationException("off-heap edges are fixed");
+        }
+
+        public int getInDegree() {
+            graph.requireIncoming();
+            return (int) (graph.reverseOffsets.getLong(index + 1L) - graph.reverseOffsets.getLong(index));
+        }
+
+        public void eachNeighbour(final TObjectProcedure<INode> eachNode) {
+            final long end = graph.offsets.getLong(index + 1L);
+            for (long i = graph.offsets.getLong(index); i < end; i++) {
+                if (!eachNode.execute(new NodeView(graph, graph.targets.getInt(i)))) {
+                    return;
+                }
+            }
+        }
+
+        public int getEccentricity() {
+            return BreadthFirstSearch.eccentricityOf(this);
+        }
+
+        public Set<INode> getNeighbours() {
+            return new Neighbours(this);
+        }
+
+        public boolean isConnected(final INode n) {
+            final int m = graph.getIndex(n);
+            return m >= 0 && graph.findEdge(index, m) >= 0;
+        }
+
+        public double getEuclideanDistance(final INode n) {
+            return getLocation().getDistance(n.getLocation());
+        }
+
+        public int getDegree() {
+            return graph.getDegree(index);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof NodeView && ((NodeView) o).graph == graph && ((NodeView) o).index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(graph) + index;
+        }
+
+        @Override
+        public String toString() {
+            return getLocation().toString();
+        }
+    }
+
+    /**
+     * An edge of an off-heap graph.
+     */
+    private static final class EdgeView implements IEdge {
+
+        final OffHeapGraph graph;
+        final int source;
+        /* the position of the edge in the targets */
+        final long position;
+
+        EdgeView(final OffHeapGraph graph, final int source, final long position) {
+            this.graph = graph;
+            this.source = source;
+            this.position = position;
+        }
+
+        public double getEuclideanDistance() {
+            return getSourceNode().getEuclideanDistance(getTargetNode());
+        }
+
+        public INode getSourceNode() {
+            return new NodeView(graph, source);
+        }
+
+        public INode getTargetNode() {
+            return new NodeView(graph, graph.targets.getInt(position));
+        }
+
+        public double getWeight() {
+            return graph.weights.getDouble(position);
+        }
+
+        public void setWeight(final double weight) {
+            graph.weights.putDouble(position, weight);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof EdgeView && ((EdgeView) o).graph == graph && ((EdgeView) o).position == position;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(graph) + Long.hashCode(position);
+        }
+
+        @Override
+        public String toString() {
+            return "E[" + getSourceNode() + ", " + getTargetNode() + "]";
+        }
+    }
+
+    /**
+     * A range of positions, read as a set of views.
+     */
+    private abstract static class RangeSet<E> extends AbstractSet<E> {
+
+        final long start;
+        final long end;
+
+        RangeSet(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        abstract E at(long i);
+
+        @Override
+        public int size() {
+            return (int) (end - start);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                long i = start;
+
+                public boolean hasNext() {
+                    return i < end;
+                }
+
+                public E next() {
+                    if (i >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    return at(i++);
+                }
+            };
+        }
+    }
+
+    /**
+     * The outgoing edges of a node.
+     */
+    private static final class OutgoingEdges extends RangeSet<IEdge> {
+
+        final NodeView node;
+
+        OutgoingEdges(final NodeView node) {
+            super(node.graph.offsets.getLong(node.index), node.graph.offsets.getLong(node.index + 1L));
+            this.node = node;
+        }
+
+        IEdge at(final long i) {
+            return new EdgeView(node.graph, node.index, i);
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof EdgeView && ((EdgeView) o).graph == node.graph
+                    && ((EdgeView) o).position >= start && ((EdgeView) o).position < end;
+        }
+    }
+
+    /**
+     * The neighbours of a node.
+     */
+    private static final class Neighbours extends RangeSet<INode> {
+
+        final NodeView node;
+
+        Neighbours(final NodeView node) {
+            super(node.graph.offsets.getLong(node.index), node.graph.offsets.getLong(node.index + 1L));
+            this.node = node;
+        }
+
+        INode at(final long i) {
+            return new NodeView(node.graph, node.graph.targets.getInt(i));
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof INode && node.isConnected((INode) o);
+        }
+    }
+
+    /**
+     * The incoming edges of a node.
+     */
+    private static final class IncomingEdges extends RangeSet<IEdge> {
+
+        final NodeView node;
+
+        IncomingEdges(final NodeView node) {
+            super(node.graph.reverseOffsets.getLong(node.index), node.graph.reverseOffsets.getLong(node.index + 1L));
+            this.node = node;
+        }
+
+        IEdge at(final long i) {
+            final long e = node.graph.reverseEdges.getLong(i);
+            return new EdgeView(node.graph, node.graph.sourceOf(e), e);
+        }
+    }
+}
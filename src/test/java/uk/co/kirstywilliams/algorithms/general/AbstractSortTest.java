@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests shared by the sort algorithms. Each subclass
+ * runs these cases against its own sort.
+ *
+ * @author kirsty
+ */
+public abstract class AbstractSortTest {
+
+    /**
+     * Sort an array of comparable elements.
+     *
+     * @param a the array.
+     * @param <T> the element type.
+     */
+    protected abstract <T extends Comparable<? super T>> void sort(T[] a);
+
+    /**
+     * Sort a primitive int array.
+     *
+     * @param a the array.
+     */
+    protected abstract void sort(int[] a);
+
+    /**
+     * Sort a primitive long array.
+     *
+     * @param a the array.
+     */
+    protected abstract void sort(long[] a);
+
+    /**
+     * Sort a primitive double array.
+     *
+     * @param a the array.
+     */
+    protected abstract void sort(double[] a);
+
+    /**
+     * This test checks the sort algorithm on
+     * an integer array.
+     */
+    @Test
+    public void sortShouldReturnSortedIntegerArray() {
+
+        // initialise array
+        int size = 10;
+        Random rand = new Random();
+        Integer[] a = new Integer[size];
+        boolean isSuccess = true;
+
+        // fill array
+        for(int i = 0; i < size; i++) {
+            a[i] = rand.nextInt(size);
+        }
+
+        // do sort
+        sort(a);
+
+        // check array elements are sorted
+        for (int i = 1; i < size; i++) {
+            if (a[i] < a[i - 1]) {
+                isSuccess = false;
+            }
+        }
+
+        assertEquals("success must be true", isSuccess, true);
+    }
+
+    /**
+     * This test checks the sort algorithm on
+     * a String array.
+     */
+    @Test
+    public void sortShouldReturnSortedStringArray() {
+
+        // initialise array
+        String[] a = new String[] {"Bob", "Dog", "Alice", "Cat" };
+        boolean isSuccess = true;
+
+        // do sort
+        sort(a);
+
+        // check array elements are sorted
+        for (int i = 1; i < a.length; i++) {
+            if (a[i].compareTo(a[i - 1]) <= 0) {
+                isSuccess = false;
+            }
+        }
+
+        assertEquals("success must be true", isSuccess, true);
+    }
+
+    /**
+     * This test checks the sort algorithm on
+     * a primitive int array.
+     */
+    @Test
+    public void sortShouldReturnSortedPrimitiveIntArray() {
+
+        // initialise array
+        int size = 100;
+        Random rand = new Random();
+        int[] a = new int[size];
+
+        // fill array
+        for (int i = 0; i < size; i++) {
+            a[i] = rand.nextInt();
+        }
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+
+        // do sort
+        sort(a);
+
+        assertArrayEquals("array must be sorted", expected, a);
+    }
+
+    /**
+     * This test checks the sort algorithm on
+     * a primitive long array.
+     */
+    @Test
+    public void sortShouldReturnSortedPrimitiveLongArray() {
+
+        // initialise array
+        int size = 100;
+        Random rand = new Random();
+        long[] a = new long[size];
+
+        // fill array
+        for (int i = 0; i < size; i++) {
+            a[i] = rand.nextLong();
+        }
+        long[] expected = a.clone();
+        Arrays.sort(expected);
+
+        // do sort
+        sort(a);
+
+        assertArrayEquals("array must be sorted", expected, a);
+    }
+
+    /**
+     * This test checks the sort algorithm on
+     * a primitive double array, including the special
+     * values.
+     */
+    @Test
+    public void sortShouldReturnSortedPrimitiveDoubleArray() {
+
+        // initialise array
+        double[] a = new double[] {3.5, Double.NaN, -0.0, 0.0, -7.25,
+                Double.POSITIVE_INFINITY, 1.0, Double.NEGATIVE_INFINITY };
+        double[] expected = a.clone();
+        Arrays.sort(expected);
+
+        // do sort
+        sort(a);
+
+        assertArrayEquals("array must be sorted", expected, a, 0.0);
+    }
+}
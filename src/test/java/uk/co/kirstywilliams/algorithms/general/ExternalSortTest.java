@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the external merge sort.
+ *
+ * @author kirsty
+ */
+public class ExternalSortTest {
+
+    /* record layout: 4 byte tag, 8 byte key, 4 byte original index */
+    private static final int RECORD_SIZE = 16;
+    private static final int KEY_OFFSET = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * This test checks a file spread over many runs is sorted
+     * by key, keeping records with equal keys in file order.
+     */
+    @Test
+    public void externalSortShouldStablySortRecordsAcrossRuns() throws IOException {
+
+        Path input = writeRecords(10007, 500);
+        Path output = folder.getRoot().toPath().resolve("sorted");
+
+        new ExternalSort(RECORD_SIZE, KEY_OFFSET, 1000, folder.getRoot().toPath()).sort(input, output);
+
+        assertSorted(output, 10007);
+        assertEquals("the sorted runs must be cleaned up", 2, folder.getRoot().list().length);
+    }
+
+    /**
+     * This test checks a file that fits in a single chunk.
+     */
+    @Test
+    public void externalSortShouldSortASingleChunk() throws IOException {
+
+        Path input = writeRecords(300, 1000000);
+        Path output = folder.getRoot().toPath().resolve("sorted");
+
+        Sort.externalSort(input, output, RECORD_SIZE, KEY_OFFSET);
+
+        assertSorted(output, 300);
+    }
+
+    /**
+     * Write records with random keys, tagging each with
+     * its index in the file.
+     */
+    private Path writeRecords(int numRecords, int keyRange) throws IOException {
+        Random rand = new Random(numRecords);
+        ByteBuffer buffer = ByteBuffer.allocate(numRecords * RECORD_SIZE);
+        for (int i = 0; i < numRecords; i++) {
+            buffer.putInt(0xCAFE);
+            buffer.putLong(rand.nextInt(keyRange) - keyRange / 2);
+            buffer.putInt(i);
+        }
+
+        Path input = folder.newFile("input").toPath();
+        Files.write(input, buffer.array());
+        return input;
+    }
+
+    /**
+     * Check every record survived and the records are in
+     * key order, then index order.
+     */
+    private static void assertSorted(Path output, int numRecords) throws IOException {
+        ByteBuffer sorted = ByteBuffer.wrap(Files.readAllBytes(output));
+        assertEquals("every record must be written", numRecords * RECORD_SIZE, sorted.capacity());
+
+        boolean[] seen = new boolean[numRecords];
+        long previousKey = Long.MIN_VALUE;
+        int previousIndex = -1;
+        for (int i = 0; i < numRecords; i++) {
+            assertEquals("records must be copied whole", 0xCAFE, sorted.getInt());
+            long key = sorted.getLong();
+            int index = sorted.getInt();
+
+            assertTrue("keys must be in order", key >= previousKey);
+            if (key == previousKey) {
+                assertTrue("equal keys must keep their order", index > previousIndex);
+            }
+            seen[index] = true;
+            previousKey = key;
+            previousIndex = index;
+        }
+
+        for (boolean s : seen) {
+            assertTrue("every record must be written once", s);
+        }
+    }
+}
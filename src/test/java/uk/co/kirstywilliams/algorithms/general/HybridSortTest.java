@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for the hybrid sort algorithm.
+ *
+ * @author kirsty
+ */
+public class HybridSortTest extends AbstractSortTest {
+
+    @Override
+    protected <T extends Comparable<? super T>> void sort(T[] a) {
+        Sort.sort(a);
+    }
+
+    @Override
+    protected void sort(int[] a) {
+        Sort.sort(a);
+    }
+
+    @Override
+    protected void sort(long[] a) {
+        Sort.sort(a);
+    }
+
+    @Override
+    protected void sort(double[] a) {
+        Sort.sort(a);
+    }
+
+    /**
+     * This test checks large object arrays in each input
+     * distribution, and that equal elements keep their order.
+     */
+    @Test
+    public void hybridSortShouldStablySortLargeObjectArrays() {
+
+        Random rand = new Random(42);
+        for (int[] keys : distributions(rand, 100000)) {
+            // each element remembers its original position
+            long[][] a = new long[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                a[i] = new long[] {keys[i], i };
+            }
+            long[][] expected = a.clone();
+            Arrays.sort(expected, Comparator.comparingLong(e -> e[0]));
+
+            Sort.sort(a, Comparator.comparingLong(e -> e[0]));
+
+            assertArrayEquals("array must be stably sorted", expected, a);
+        }
+    }
+
+    /**
+     * This test checks large primitive arrays in each
+     * input distribution.
+     */
+    @Test
+    public void hybridSortShouldSortLargePrimitiveArrays() {
+
+        Random rand = new Random(7);
+        for (int[] keys : distributions(rand, 100000)) {
+            int[] a = keys.clone();
+            int[] expected = keys.clone();
+            Arrays.sort(expected);
+            Sort.sort(a);
+            assertArrayEquals("int array must be sorted", expected, a);
+
+            long[] l = new long[keys.length];
+            double[] d = new double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                l[i] = (long) keys[i] * keys[i] - keys[i];
+                d[i] = keys[i] / 3.0;
+            }
+            long[] expectedLong = l.clone();
+            double[] expectedDouble = d.clone();
+            Arrays.sort(expectedLong);
+            Arrays.sort(expectedDouble);
+            Sort.sort(l);
+            Sort.sort(d);
+            assertArrayEquals("long array must be sorted", expectedLong, l);
+            assertArrayEquals("double array must be sorted", expectedDouble, d, 0.0);
+        }
+    }
+
+    /**
+     * Random, sorted, reversed, nearly sorted, sawtooth
+     * and many duplicate inputs of the given size.
+     */
+    private static int[][] distributions(Random rand, int size) {
+        int[] random = new int[size];
+        int[] sorted = new int[size];
+        int[] reversed = new int[size];
+        int[] nearlySorted = new int[size];
+        int[] sawtooth = new int[size];
+        int[] duplicates = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            random[i] = rand.nextInt();
+            sorted[i] = i;
+            reversed[i] = size - i;
+            nearlySorted[i] = i;
+            sawtooth[i] = i % 1000;
+            duplicates[i] = rand.nextInt(10);
+        }
+        for (int i = 0; i < size / 100; i++) {
+            int j = rand.nextInt(size);
+            int k = rand.nextInt(size);
+            int t = nearlySorted[j];
+            nearlySorted[j] = nearlySorted[k];
+            nearlySorted[k] = t;
+        }
+
+        return new int[][] {random, sorted, reversed, nearlySorted, sawtooth, duplicates };
+    }
+}
@@ -4,71 +4,30 @@
 
 package uk.co.kirstywilliams.algorithms.general;
 
-import org.junit.Test;
-
-import java.util.Random;
-
-import static org.junit.Assert.assertEquals;
-
 /**
  * Tests for the insertion sort algorithm.
  *
  * @author kirsty
  */
-public class InsertionSortTest {
-
-    /**
-     * This test checks the insertion sort algorithm on
-     * an integer array.
-     */
-    @Test
-    public void insertionSortShouldReturnSortedIntegerArray() {
+public class InsertionSortTest extends AbstractSortTest {
 
-        // initialise array
-        int size = 10;
-        Random rand = new Random();
-        Integer[] a = new Integer[size];
-        boolean isSuccess = true;
-
-        // fill array
-        for(int i = 0; i < size; i++) {
-            a[i] = rand.nextInt(size);
-        }
-
-        // do sort
+    @Override
+    protected <T extends Comparable<? super T>> void sort(T[] a) {
         Sort.insertionSort(a);
-
-        // check array elements are sorted
-        for (int i = 1; i < size; i++) {
-            if (a[i] < a[i - 1]) {
-                isSuccess = false;
-            }
-        }
-
-        assertEquals("success must be true", isSuccess, true);
     }
 
-    /**
-     * This test checks the insertion sort algorithm on
-     * a String array.
-     */
-    @Test
-    public void insertionSortShouldReturnSortedStringArray() {
-
-        // initialise array
-        String[] a = new String[] {"Bob", "Dog", "Alice", "Cat" };
-        boolean isSuccess = true;
-
-        // do sort
+    @Override
+    protected void sort(int[] a) {
         Sort.insertionSort(a);
+    }
 
-        // check array elements are sorted
-        for (int i = 1; i < a.length; i++) {
-            if (a[i].compareTo(a[i - 1]) <= 0) {
-                isSuccess = false;
-            }
-        }
+    @Override
+    protected void sort(long[] a) {
+        Sort.insertionSort(a);
+    }
 
-        assertEquals("success must be true", isSuccess, true);
+    @Override
+    protected void sort(double[] a) {
+        Sort.insertionSort(a);
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for the parallel sort algorithm.
+ *
+ * @author kirsty
+ */
+public class ParallelSortTest {
+
+    ParallelSort sort;
+
+    /**
+     * Use a small cutoff so the test arrays are split
+     * and merged many times.
+     */
+    @Before
+    public void setup() {
+        sort = new ParallelSort(4, 100);
+    }
+
+    @After
+    public void teardown() {
+        sort.shutdown();
+    }
+
+    /**
+     * This test checks the parallel sort algorithm on
+     * a String array.
+     */
+    @Test
+    public void parallelSortShouldReturnSortedStringArray() {
+
+        String[] a = new String[] {"Bob", "Dog", "Alice", "Cat" };
+
+        Sort.parallelSort(a);
+
+        assertArrayEquals("array must be sorted",
+                new String[] {"Alice", "Bob", "Cat", "Dog" }, a);
+    }
+
+    /**
+     * This test checks that equal elements keep their order.
+     */
+    @Test
+    public void parallelSortShouldStablySortObjectArrays() {
+
+        Random rand = new Random(11);
+        long[][] a = new long[50000][];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = new long[] {rand.nextInt(50), i };
+        }
+        long[][] expected = a.clone();
+        Arrays.sort(expected, Comparator.comparingLong(e -> e[0]));
+
+        sort.sort(a, Comparator.comparingLong(e -> e[0]));
+
+        assertArrayEquals("array must be stably sorted", expected, a);
+    }
+
+    /**
+     * This test checks primitive arrays, including
+     * sizes that do not split evenly.
+     */
+    @Test
+    public void parallelSortShouldSortPrimitiveArrays() {
+
+        Random rand = new Random(5);
+        for (int size : new int[] {0, 1, 99, 100, 101, 12345, 100000 }) {
+            int[] a = new int[size];
+            double[] d = new double[size];
+            for (int i = 0; i < size; i++) {
+                a[i] = rand.nextInt(1000);
+                d[i] = rand.nextGaussian();
+            }
+            int[] expected = a.clone();
+            double[] expectedDouble = d.clone();
+            Arrays.sort(expected);
+            Arrays.sort(expectedDouble);
+
+            sort.sort(a);
+            sort.sort(d);
+
+            assertArrayEquals("int array must be sorted", expected, a);
+            assertArrayEquals("double array must be sorted", expectedDouble, d, 0.0);
+        }
+    }
+
+    /**
+     * This test checks the smallest possible cutoff.
+     */
+    @Test
+    public void parallelSortShouldSortWithUnitCutoff() {
+
+        ParallelSort unit = new ParallelSort(2, 1);
+        Random rand = new Random(9);
+        int[] a = new int[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = rand.nextInt(10);
+        }
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+
+        unit.sort(a);
+        unit.shutdown();
+
+        assertArrayEquals("int array must be sorted", expected, a);
+    }
+}
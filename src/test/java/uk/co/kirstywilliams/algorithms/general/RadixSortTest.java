@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for the radix sort algorithms.
+ *
+ * @author kirsty
+ */
+public class RadixSortTest {
+
+    /**
+     * This test checks the radix sort on int arrays of
+     * negative and positive keys, reusing one sorter.
+     */
+    @Test
+    public void radixSortShouldReturnSortedIntArrays() {
+
+        RadixSort radix = new RadixSort();
+        Random rand = new Random(1);
+        for (int size : new int[] {0, 10, 1000, 100000, 500 }) {
+            int[] a = new int[size];
+            for (int i = 0; i < size; i++) {
+                a[i] = (i % 3 == 0) ? rand.nextInt(100) : rand.nextInt();
+            }
+            int[] expected = a.clone();
+            Arrays.sort(expected);
+
+            radix.sort(a);
+
+            assertArrayEquals("array must be sorted", expected, a);
+        }
+    }
+
+    /**
+     * This test checks the radix sort on long arrays,
+     * including the extreme values.
+     */
+    @Test
+    public void radixSortShouldReturnSortedLongArrays() {
+
+        Random rand = new Random(2);
+        long[] a = new long[10000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = rand.nextLong() >> rand.nextInt(64);
+        }
+        a[0] = Long.MIN_VALUE;
+        a[1] = Long.MAX_VALUE;
+        long[] expected = a.clone();
+        Arrays.sort(expected);
+
+        Sort.radixSort(a);
+
+        assertArrayEquals("array must be sorted", expected, a);
+    }
+
+    /**
+     * This test checks the multikey quicksort on a String
+     * array with shared prefixes and empty strings.
+     */
+    @Test
+    public void radixSortShouldReturnSortedStringArray() {
+
+        Random rand = new Random(3);
+        String[] a = new String[5000];
+        for (int i = 0; i < a.length; i++) {
+            StringBuilder sb = new StringBuilder("node-");
+            int length = rand.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + rand.nextInt(4)));
+            }
+            a[i] = (i % 100 == 0) ? "" : sb.toString();
+        }
+        String[] expected = a.clone();
+        Arrays.sort(expected);
+
+        Sort.radixSort(a);
+
+        assertArrayEquals("array must be sorted", expected, a);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for selection and partial sorting.
+ *
+ * @author kirsty
+ */
+public class SelectionTest {
+
+    /**
+     * This test checks that every index can be selected
+     * and the array is partitioned around it.
+     */
+    @Test
+    public void selectShouldPartitionAroundTheKthSmallest() {
+
+        Random rand = new Random(4);
+        int[] original = new int[500];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = rand.nextInt(100);
+        }
+        int[] sorted = original.clone();
+        Arrays.sort(sorted);
+
+        for (int k = 0; k < original.length; k++) {
+            int[] a = original.clone();
+            assertEquals("must select the k-th smallest", sorted[k], Sort.select(a, k));
+            for (int i = 0; i < k; i++) {
+                assertTrue("smaller elements must come first", a[i] <= a[k]);
+            }
+            for (int i = k + 1; i < a.length; i++) {
+                assertTrue("larger elements must come after", a[i] >= a[k]);
+            }
+        }
+    }
+
+    /**
+     * This test checks selection on double and object arrays.
+     */
+    @Test
+    public void selectShouldFindTheMedianOfDoubleAndObjectArrays() {
+
+        Random rand = new Random(6);
+        double[] d = new double[10001];
+        String[] s = new String[10001];
+        for (int i = 0; i < d.length; i++) {
+            d[i] = rand.nextDouble();
+            s[i] = Integer.toString(rand.nextInt());
+        }
+        double[] sortedDouble = d.clone();
+        String[] sortedString = s.clone();
+        Arrays.sort(sortedDouble);
+        Arrays.sort(sortedString);
+
+        assertEquals("must select the median", sortedDouble[5000], Sort.select(d, 5000), 0.0);
+        assertEquals("must select the median", sortedString[5000], Sort.select(s, 5000));
+    }
+
+    /**
+     * This test checks the partial sort of the k smallest.
+     */
+    @Test
+    public void partialSortShouldSortTheFirstKElements() {
+
+        Random rand = new Random(8);
+        int[] a = new int[10000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = rand.nextInt();
+        }
+        int[] sorted = a.clone();
+        Arrays.sort(sorted);
+
+        Sort.partialSort(a, 10);
+
+        assertArrayEquals("first k must be sorted", Arrays.copyOf(sorted, 10), Arrays.copyOf(a, 10));
+    }
+
+    /**
+     * This test checks the bounded heap top-k leaves the
+     * input alone and handles k larger than the array.
+     */
+    @Test
+    public void smallestShouldReturnTheKSmallestInOrder() {
+
+        Random rand = new Random(10);
+        double[] costs = new double[5000];
+        Integer[] ids = new Integer[5000];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = rand.nextGaussian();
+            ids[i] = rand.nextInt(1000);
+        }
+        double[] original = costs.clone();
+        double[] sortedCosts = costs.clone();
+        Integer[] sortedIds = ids.clone();
+        Arrays.sort(sortedCosts);
+        Arrays.sort(sortedIds, Comparator.reverseOrder());
+
+        assertArrayEquals("must return the k smallest",
+                Arrays.copyOf(sortedCosts, 8), Sort.smallest(costs, 8), 0.0);
+        assertArrayEquals("must leave the input unchanged", original, costs, 0.0);
+        assertArrayEquals("must return the k largest by reverse order",
+                Arrays.copyOf(sortedIds, 20), Selection.smallest(ids, 20, Comparator.reverseOrder()));
+        assertArrayEquals("k larger than the array returns it all",
+                new int[] {1, 2, 3 }, Sort.smallest(new int[] {3, 1, 2 }, 10));
+        assertEquals("k of zero returns nothing", 0, Sort.smallest(new int[] {3, 1, 2 }, 0).length);
+    }
+
+    /**
+     * This test checks that the median of medians pivot
+     * used when partitioning goes badly leaves at least
+     * 3/10 of the range on either side.
+     */
+    @Test
+    public void medianOfMediansShouldSplitTheRangeEvenly() {
+
+        Random rand = new Random(12);
+        int n = 1003;
+        int[][] inputs = new int[3][n];
+        for (int i = 0; i < n; i++) {
+            inputs[0][i] = rand.nextInt(50);
+            inputs[1][i] = i;
+            inputs[2][i] = (i < n / 2) ? i : n - i;
+        }
+
+        for (int[] original : inputs) {
+            int[] a = original.clone();
+            int pivot = Selection.medianOfMedians(a, 0, n);
+            int atMost = 0;
+            int atLeast = 0;
+            for (int v : a) {
+                atMost += (v <= pivot) ? 1 : 0;
+                atLeast += (v >= pivot) ? 1 : 0;
+            }
+            assertTrue("enough elements must not be larger", atMost >= 3 * n / 10 - 6);
+            assertTrue("enough elements must not be smaller", atLeast >= 3 * n / 10 - 6);
+
+            int[] sorted = original.clone();
+            Arrays.sort(sorted);
+            Arrays.sort(a);
+            assertArrayEquals("elements must only be moved", sorted, a);
+        }
+    }
+}
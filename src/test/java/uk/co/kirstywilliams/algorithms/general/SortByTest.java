@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.general;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for sorting by an extracted primitive key.
+ *
+ * @author kirsty
+ */
+public class SortByTest {
+
+    /**
+     * This test checks sorting strings by their length,
+     * keeping equal lengths in their original order.
+     */
+    @Test
+    public void sortByIntKeyShouldReturnStableSortedArray() {
+
+        String[] a = new String[] {"Dog", "Alice", "Bob", "Cat", "Eve", "Al" };
+
+        Sort.sortByInt(a, s -> s.length());
+
+        assertArrayEquals("array must be sorted by length",
+                new String[] {"Al", "Dog", "Bob", "Cat", "Eve", "Alice" }, a);
+    }
+
+    /**
+     * This test checks sorting by a negative int key.
+     */
+    @Test
+    public void sortByIntKeyShouldHandleNegativeKeys() {
+
+        Integer[] a = new Integer[] {3, -1, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -5 };
+
+        Sort.sortByInt(a, i -> i);
+
+        assertArrayEquals("array must be sorted",
+                new Integer[] {Integer.MIN_VALUE, -5, -1, 0, 3, Integer.MAX_VALUE }, a);
+    }
+
+    /**
+     * This test checks sorting by a double key.
+     */
+    @Test
+    public void sortByDoubleKeyShouldReturnStableSortedArray() {
+
+        Double[] a = new Double[] {2.5, -0.5, 10.0, -0.5, 0.0, -100.0 };
+        Double first = a[1];
+        Double second = a[3];
+
+
+        Sort.sortByDouble(a, d -> d);
+
+        assertArrayEquals("array must be sorted",
+                new Double[] {-100.0, -0.5, -0.5, 0.0, 2.5, 10.0 }, a);
+        // equal keys keep their original order
+        assertSame("equal keys must keep their order", first, a[1]);
+        assertSame("equal keys must keep their order", second, a[2]);
+    }
+
+    /**
+     * This test checks a large array sorted by a double
+     * key with many duplicates.
+     */
+    @Test
+    public void sortByDoubleKeyShouldStablySortLargeArrays() {
+
+        Random rand = new Random(3);
+        long[][] a = new long[50000][];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = new long[] {rand.nextInt(100), i };
+        }
+        long[][] expected = a.clone();
+        Arrays.sort(expected, Comparator.comparingDouble(e -> e[0] / 7.0));
+
+        Sort.sortByDouble(a, e -> e[0] / 7.0);
+
+        assertArrayEquals("array must be stably sorted", expected, a);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the bidirectional breadth first search.
+ *
+ * @author kirsty
+ */
+public class BidirectionalBreadthFirstSearchTest {
+
+    /**
+     * Test the hop count and path between the two ends of the tree.
+     */
+    @Test
+    public void findPathShouldReturnAShortestPathInTheTree() {
+        List<INode> tree = GraphFixtures.tree();
+        BidirectionalBreadthFirstSearch search = new BidirectionalBreadthFirstSearch(new CompactGraph(tree));
+
+        List<INode> path = search.findPath(tree.get(0), tree.get(3));
+        assertEquals("Path from 0 to 3 should have 4 hops", 5, path.size());
+        assertEquals("Path should start at the source", tree.get(0), path.get(0));
+        assertEquals("Path should end at the target", tree.get(3), path.get(4));
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue("Path should follow edges", path.get(i - 1).isConnected(path.get(i)));
+        }
+
+        assertEquals("Path from a node to itself", 1, search.findPath(tree.get(2), tree.get(2)).size());
+    }
+
+    /**
+     * Test on a random directed graph that hop counts match a
+     * full search and that every path follows the edges.
+     */
+    @Test
+    public void distancesShouldMatchAFullSearchOnARandomDirectedGraph() {
+        Random random = new Random(3);
+        int numNodes = 2000;
+        List<INode> nodes = GraphFixtures.randomDirected(3, numNodes, 5);
+
+        CompactGraph graph = new CompactGraph(nodes);
+        BidirectionalBreadthFirstSearch search = new BidirectionalBreadthFirstSearch(graph);
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+
+        for (int q = 0; q < 200; q++) {
+            int s = random.nextInt(numNodes);
+            int t = random.nextInt(numNodes);
+            bfs.search(s);
+
+            int[] path = search.path(s, t);
+            if (!bfs.isReached(t)) {
+                assertNull("No path from " + s + " to " + t, path);
+                assertEquals("No distance from " + s + " to " + t, -1, search.distance(s, t));
+                continue;
+            }
+
+            assertEquals("Hops from " + s + " to " + t, bfs.getDepth(t), path.length - 1);
+            assertEquals("Path should start at the source", s, path[0]);
+            assertEquals("Path should end at the target", t, path[path.length - 1]);
+            for (int i = 1; i < path.length; i++) {
+                assertTrue("Path should follow edges",
+                        nodes.get(path[i - 1]).isConnected(nodes.get(path[i])));
+            }
+        }
+    }
+}
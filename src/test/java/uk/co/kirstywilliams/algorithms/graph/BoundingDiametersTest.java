@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the bounding diameters eccentricity computation.
+ *
+ * @author kirsty
+ */
+public class BoundingDiametersTest {
+
+    /**
+     * Test the diameter, radius, center and periphery of the tree.
+     */
+    @Test
+    public void shouldReturnTheDiameterRadiusCenterAndPeripheryOfTheTree() {
+        List<INode> tree = GraphFixtures.tree();
+        BoundingDiameters diameters = new BoundingDiameters(new CompactGraph(tree));
+
+        assertEquals("Diameter", 4, diameters.getDiameter());
+        assertEquals("Radius", 2, diameters.getRadius());
+        assertEquals("Center", 1, diameters.getCenter().size());
+        assertTrue("Node 5 is the center", diameters.getCenter().contains(tree.get(5)));
+        assertEquals("Periphery", 2, diameters.getPeriphery().size());
+        assertTrue("Node 0 is on the periphery", diameters.getPeriphery().contains(tree.get(0)));
+        assertTrue("Node 3 is on the periphery", diameters.getPeriphery().contains(tree.get(3)));
+
+        for (int n = 0; n < tree.size(); n++) {
+            assertEquals("Node " + n + " eccentricity", tree.get(n).getEccentricity(), diameters.getEccentricity(n));
+        }
+    }
+
+    /**
+     * Test on a random undirected graph with several components
+     * that every eccentricity is exact, using fewer searches
+     * than one per node.
+     */
+    @Test
+    public void eccentricitiesShouldBeExactOnARandomUndirectedGraph() {
+        int numNodes = 1500;
+        CompactGraph graph = new CompactGraph(GraphFixtures.randomUndirected(5, numNodes));
+        BoundingDiameters diameters = new BoundingDiameters(graph);
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+
+        int diameter = 0;
+        for (int n = 0; n < numNodes; n++) {
+            int ecc = bfs.getEccentricity(n);
+            diameter = Math.max(diameter, ecc);
+            assertEquals("Node " + n + " eccentricity", ecc, diameters.getEccentricity(n));
+        }
+        assertEquals("Diameter", diameter, diameters.getDiameter());
+        assertTrue("Searches should be pruned", diameters.getNumSearches() < numNodes);
+    }
+}
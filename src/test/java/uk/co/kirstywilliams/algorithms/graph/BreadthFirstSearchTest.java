@@ -170,4 +170,50 @@ public class BreadthFirstSearchTest {
         assertEquals("Node 6 should have max depth of 3", bfs6.getMaxDepth(), 3);
 
     }
+
+    /**
+     * Test that one search, reused for every node, finds the
+     * same eccentricities as a new search for each.
+     */
+    @Test
+    public void reusedSearchShouldMatchANewSearchForEachNode() {
+
+        BreadthFirstSearch reused = new BreadthFirstSearch();
+        for (INode n : tree) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch();
+            bfs.findAll(n);
+            assertEquals("Reused search for node " + n.getLabel(), bfs.getMaxDepth(), reused.getEccentricity(n));
+            assertEquals("Node eccentricity for node " + n.getLabel(), bfs.getMaxDepth(), n.getEccentricity());
+        }
+
+        assertEquals("An isolated node has eccentricity 0", 0, reused.getEccentricity(new Node(1)));
+    }
+
+    /**
+     * Test that the reused search still gives the right
+     * eccentricities after a search too large to clear.
+     */
+    @Test
+    public void reusedSearchShouldRecoverFromALargeSearch() {
+
+        // a path longer than the reuse limit
+        int size = 10000;
+        INode[] path = new INode[size];
+        for (int i = 0; i < size; i++) {
+            path[i] = new Node(2);
+        }
+        for (int i = 1; i < size; i++) {
+            path[i - 1].addEdge(new Edge(path[i - 1], path[i]));
+            path[i].addEdge(new Edge(path[i], path[i - 1]));
+        }
+
+        BreadthFirstSearch reused = new BreadthFirstSearch();
+        assertEquals("End of the path", size - 1, reused.getEccentricity(path[0]));
+        assertEquals("Middle of the path", size / 2, reused.getEccentricity(path[size / 2]));
+        assertEquals("Node 0 after the path", 4, reused.getEccentricity(tree.get(0)));
+        assertEquals("Depth of node 6", 3, reused.getDepth(tree.get(6)));
+        assertEquals("Path nodes are gone", Integer.MIN_VALUE, reused.getDepth(path[1]));
+        assertEquals("Node eccentricity after the path", size - 1, path[size - 1].getEccentricity());
+        assertEquals("Node 3 after the path", 4, tree.get(3).getEccentricity());
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import gnu.trove.map.TObjectIntMap;
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the direction-optimizing breadth first search.
+ *
+ * @author kirsty
+ */
+public class DirectionOptimizingBreadthFirstSearchTest {
+
+    /**
+     * Test that the search reports the same depth map and
+     * max depth as the original search for each node in the tree.
+     */
+    @Test
+    public void depthsShouldMatchTheOriginalSearchForEachNodeInTheTree() {
+        List<INode> tree = GraphFixtures.tree();
+        DirectionOptimizingBreadthFirstSearch search =
+                new DirectionOptimizingBreadthFirstSearch(new CompactGraph(tree));
+
+        for (INode n : tree) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch();
+            assertEquals("Node " + n.getLabel() + " reachable nodes", bfs.findAll(n), search.findAll(n));
+            assertEquals("Node " + n.getLabel() + " max depth", bfs.getMaxDepth(), search.getMaxDepth());
+            assertEquals("Node " + n.getLabel() + " depth map", bfs.getDepth(), search.getDepth());
+        }
+    }
+
+    /**
+     * Test on a random directed graph, large and dense enough for
+     * the middle levels to be searched bottom-up, that the depths
+     * match a plain top-down search.
+     */
+    @Test
+    public void depthsShouldMatchATopDownSearchOnARandomDirectedGraph() {
+        int numNodes = 3000;
+        CompactGraph graph = new CompactGraph(GraphFixtures.randomDirected(42, numNodes, 12));
+        DirectionOptimizingBreadthFirstSearch search = new DirectionOptimizingBreadthFirstSearch(graph);
+        IndexedBreadthFirstSearch topDown = new IndexedBreadthFirstSearch(graph);
+
+        for (int source = 0; source < numNodes; source += 97) {
+            int reached = topDown.search(source);
+            assertEquals("Nodes reached from " + source, reached, search.search(source));
+            assertEquals("Max depth from " + source, topDown.getMaxDepth(), search.getMaxDepth());
+            for (int n = 0; n < numNodes; n++) {
+                assertEquals("Depth of " + n + " from " + source, topDown.getDepth(n), search.getDepth(n));
+            }
+        }
+    }
+}
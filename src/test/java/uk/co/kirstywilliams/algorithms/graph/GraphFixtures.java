@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import uk.co.kirstywilliams.algorithms.graph.utils.IEdge;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Edge;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graphs shared by the graph algorithm tests.
+ *
+ * @author kirsty
+ */
+final class GraphFixtures {
+
+    private GraphFixtures() {
+    }
+
+    /**
+     * Build the seven node undirected graph used by the
+     * breadth first search tests, with max depths from
+     * nodes 0 to 6 of 4, 3, 3, 4, 3, 2 and 3.
+     *
+     * @return the nodes, in label order.
+     */
+    static List<INode> tree() {
+
+        final List<INode> tree = new ArrayList<>();
+        // create nodes
+        INode node0 = new Node(1);
+        node0.setLabel("0");
+        INode node1 = new Node(3);
+        node1.setLabel("1");
+        INode node2 = new Node(3);
+        node2.setLabel("2");
+        INode node3 = new Node(2);
+        node3.setLabel("3");
+        INode node4 = new Node(2);
+        node4.setLabel("4");
+        INode node5 = new Node(3);
+        node5.setLabel("5");
+        INode node6 = new Node(2);
+        node6.setLabel("6");
+
+        // create edges
+        IEdge edge1 = new Edge(node0, node1);
+        IEdge edge1b = new Edge(node1, node0);
+        IEdge edge2 = new Edge(node1, node4);
+        IEdge edge2b = new Edge(node4, node1);
+        IEdge edge3 = new Edge(node1, node5);
+        IEdge edge3b = new Edge(node5, node1);
+        IEdge edge4 = new Edge(node2, node3);
+        IEdge edge4b = new Edge(node3, node2);
+        IEdge edge5 = new Edge(node2, node4);
+        IEdge edge5b = new Edge(node4, node2);
+        IEdge edge6 = new Edge(node2, node5);
+        IEdge edge6b = new Edge(node5, node2);
+        IEdge edge7 = new Edge(node3, node6);
+        IEdge edge7b = new Edge(node6, node3);
+        IEdge edge8 = new Edge(node5, node6);
+        IEdge edge8b = new Edge(node6, node5);
+
+        // add the edges to the nodes
+        node0.addEdge(edge1);
+        node1.addEdge(edge1b);
+        node1.addEdge(edge2);
+        node1.addEdge(edge3);
+        node2.addEdge(edge4);
+        node2.addEdge(edge5);
+        node2.addEdge(edge6);
+        node3.addEdge(edge4b);
+        node3.addEdge(edge7);
+        node4.addEdge(edge2b);
+        node4.addEdge(edge5b);
+        node5.addEdge(edge3b);
+        node5.addEdge(edge6b);
+        node5.addEdge(edge8);
+        node6.addEdge(edge7b);
+        node6.addEdge(edge8b);
+
+        // add the nodes to the tree
+        tree.add(node0);
+        tree.add(node1);
+        tree.add(node2);
+        tree.add(node3);
+        tree.add(node4);
+        tree.add(node5);
+        tree.add(node6);
+
+        return tree;
+    }
+
+    /**
+     * Build a random directed graph, in which each node has
+     * edges to between 0 and maxDegree - 1 nodes picked at
+     * random, possibly itself or the same node twice.
+     *
+     * @param seed the random seed.
+     * @param numNodes the number of nodes.
+     * @param maxDegree the bound on each node's out degree.
+     * @return the nodes.
+     */
+    static List<INode> randomDirected(final long seed, final int numNodes, final int maxDegree) {
+        final Random random = new Random(seed);
+        final List<INode> nodes = new ArrayList<>(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            nodes.add(new Node(maxDegree));
+        }
+        for (INode n : nodes) {
+            final int degree = random.nextInt(maxDegree);
+            for (int i = 0; i < degree; i++) {
+                n.addEdge(new Edge(n, nodes.get(random.nextInt(numNodes))));
+            }
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Build a random undirected graph, in which each node is
+     * joined to one node picked at random, unless that is
+     * itself or a node it is already joined to.
+     *
+     * @param seed the random seed.
+     * @param numNodes the number of nodes.
+     * @return the nodes.
+     */
+    static List<INode> randomUndirected(final long seed, final int numNodes) {
+        final Random random = new Random(seed);
+        final List<INode> nodes = new ArrayList<>(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            nodes.add(new Node(4));
+        }
+        for (INode n : nodes) {
+            final INode m = nodes.get(random.nextInt(numNodes));
+            if (n != m && !n.isConnected(m)) {
+                n.addEdge(new Edge(n, m));
+                m.addEdge(new Edge(m, n));
+            }
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.Graph;
+import uk.co.kirstywilliams.algorithms.graph.utils.GraphSnapshot;
+import uk.co.kirstywilliams.algorithms.graph.utils.IIndexedGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the reusable int-indexed breadth first search.
+ *
+ * @author kirsty
+ */
+public class IndexedBreadthFirstSearchTest {
+
+    private static final int[] MAX_DEPTHS = {4, 3, 3, 4, 3, 2, 3};
+
+    List<INode> tree;
+    CompactGraph graph;
+
+    @Before
+    public void setupTree() {
+        tree = GraphFixtures.tree();
+        graph = new CompactGraph(tree);
+    }
+
+    /**
+     * Test that one search object, reused for every node,
+     * computes the same max depths as a fresh search.
+     */
+    @Test
+    public void reusedSearchShouldReturnACorrectMaxDepthForEachNodeInTheTree() {
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+
+        // twice round, so every node is searched from a dirty state
+        for (int round = 0; round < 2; round++) {
+            for (int n = 0; n < tree.size(); n++) {
+                assertEquals("Node " + n + " should reach every node", tree.size(), bfs.search(n));
+                assertEquals("Node " + n + " should have max depth of " + MAX_DEPTHS[n],
+                        MAX_DEPTHS[n], bfs.getMaxDepth());
+                assertEquals("Node " + n + " eccentricity", MAX_DEPTHS[n], bfs.getEccentricity(n));
+            }
+        }
+    }
+
+    /**
+     * Test that a graph other than a compact graph gives the
+     * same max depths.
+     */
+    @Test
+    public void searchShouldWorkOnAnyIndexedGraph() {
+        IIndexedGraph wrapped = new IIndexedGraph() {
+            public int getNumNodes() { return graph.getNumNodes(); }
+            public int getDegree(int n) { return graph.getDegree(n); }
+            public int getNeighbour(int n, int i) { return graph.getNeighbour(n, i); }
+            public INode getNode(int n) { return graph.getNode(n); }
+            public int getIndex(INode n) { return graph.getIndex(n); }
+        };
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(wrapped);
+
+        for (int n = 0; n < tree.size(); n++) {
+            assertEquals("Node " + n + " eccentricity", MAX_DEPTHS[n], bfs.getEccentricity(n));
+        }
+    }
+
+    /**
+     * Test that nodes are reached in non-decreasing depth order
+     * and that depths match the original search.
+     */
+    @Test
+    public void depthsShouldMatchTheOriginalSearch() {
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+        bfs.search(0);
+
+        assertEquals("Source is reached first", 0, bfs.getReached(0));
+        for (int i = 1; i < bfs.getNumReached(); i++) {
+            assertTrue("Depths should not decrease",
+                    bfs.getDepth(bfs.getReached(i - 1)) <= bfs.getDepth(bfs.getReached(i)));
+        }
+
+        // 0 -> 1 -> {4, 5} -> {2, 6} -> 3
+        int[] expected = {0, 1, 3, 4, 2, 2, 3};
+        for (int n = 0; n < expected.length; n++) {
+            assertEquals("Depth of node " + n, expected[n], bfs.getDepth(n));
+        }
+    }
+
+    /**
+     * Test that the depth limit stops the search, and that
+     * nodes from an earlier search are not counted as reached.
+     */
+    @Test
+    public void depthLimitShouldStopTheSearch() {
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+        bfs.search(0);
+
+        assertEquals("Node 0 within depth 2 reaches 0, 1, 4 and 5", 4, bfs.search(0, 2));
+        assertEquals("Max depth should be the limit", 2, bfs.getMaxDepth());
+        assertFalse("Node 3 should not be reached", bfs.isReached(3));
+        assertEquals("Unreached node depth", -1, bfs.getDepth(3));
+
+        assertEquals("findAll should agree", 4, bfs.findAll(tree.get(0), 2).size());
+        assertEquals("findAll with no limit", tree.size(), bfs.findAll(tree.get(0)).size());
+    }
+
+    /**
+     * Test that the searches by index reject a source out
+     * of range or at a free id.
+     */
+    @Test
+    public void searchesShouldRejectSourcesThatAreNotNodes() {
+        Graph g = new Graph();
+        INode a = g.createNode(2);
+        g.createBidirectionalEdge(a, g.createNode(2));
+        g.deleteNode(g.createNode(2));
+        GraphSnapshot snapshot = g.commit();
+
+        IndexedBreadthFirstSearch indexed = new IndexedBreadthFirstSearch(snapshot);
+        DirectionOptimizingBreadthFirstSearch directionOptimizing =
+                new DirectionOptimizingBreadthFirstSearch(snapshot, snapshot);
+        ParallelBreadthFirstSearch parallel = new ParallelBreadthFirstSearch(snapshot);
+        assertEquals("A live source", 2, indexed.search(0));
+
+        for (int source : new int[]{-1, 2, 3}) {
+            try {
+                indexed.search(source);
+                fail("Indexed search should reject source " + source);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+            try {
+                directionOptimizing.search(source);
+                fail("Direction-optimizing search should reject source " + source);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+            try {
+                parallel.search(source);
+                fail("Parallel search should reject source " + source);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the multi-source breadth first search.
+ *
+ * @author kirsty
+ */
+public class MultiSourceBreadthFirstSearchTest {
+
+    /**
+     * Test that searching from every node of the tree at once
+     * gives each node's eccentricity.
+     */
+    @Test
+    public void searchAllShouldReturnTheEccentricityOfEachNodeInTheTree() {
+        List<INode> tree = GraphFixtures.tree();
+        MultiSourceBreadthFirstSearch msbfs = new MultiSourceBreadthFirstSearch(new CompactGraph(tree));
+        msbfs.searchAll();
+
+        for (int n = 0; n < tree.size(); n++) {
+            assertEquals("Node " + n + " eccentricity", tree.get(n).getEccentricity(), msbfs.getEccentricity(n));
+            assertEquals("Node " + n + " reaches every node", tree.size(), msbfs.getNumReached(n));
+        }
+
+        // node 5: 1, 2, 6 at depth 1; 0, 3, 4 at depth 2
+        assertEquals("Node 5 depth sum", 9, msbfs.getDepthSum(5));
+        assertEquals("Node 5 closeness", 6 / 9.0, msbfs.getCloseness(5), 0.0);
+    }
+
+    /**
+     * Test on a random directed graph, with batches of one and
+     * two words, that every source matches a single source search.
+     */
+    @Test
+    public void resultsShouldMatchSingleSourceSearchesOnARandomDirectedGraph() {
+        int numNodes = 300;
+        List<INode> nodes = GraphFixtures.randomDirected(11, numNodes, 4);
+
+        CompactGraph graph = new CompactGraph(nodes);
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(graph);
+        for (int words = 1; words <= 2; words++) {
+            MultiSourceBreadthFirstSearch msbfs = new MultiSourceBreadthFirstSearch(graph, words);
+            msbfs.searchAll();
+
+            for (int n = 0; n < numNodes; n++) {
+                int reached = bfs.search(n);
+                long depthSum = 0;
+                for (int i = 0; i < reached; i++) {
+                    depthSum += bfs.getDepth(bfs.getReached(i));
+                }
+
+                assertEquals("Node " + n + " eccentricity", bfs.getMaxDepth(), msbfs.getEccentricity(n));
+                assertEquals("Node " + n + " reached", reached, msbfs.getNumReached(n));
+                assertEquals("Node " + n + " depth sum", depthSum, msbfs.getDepthSum(n));
+            }
+        }
+    }
+}
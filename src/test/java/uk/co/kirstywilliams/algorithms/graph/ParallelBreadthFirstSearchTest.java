@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the parallel level-synchronous breadth first search.
+ *
+ * @author kirsty
+ */
+public class ParallelBreadthFirstSearchTest {
+
+    List<INode> nodes;
+    CompactGraph graph;
+    ParallelBreadthFirstSearch search;
+
+    @Before
+    public void setupGraph() {
+        int numNodes = 5000;
+        nodes = GraphFixtures.randomDirected(7, numNodes, 8);
+
+        graph = new CompactGraph(nodes);
+        // a small cutoff so that the levels really are split across threads
+        search = new ParallelBreadthFirstSearch(graph, 4, 16);
+    }
+
+    @After
+    public void shutdown() {
+        search.shutdown();
+    }
+
+    /**
+     * Test that the search finds the same nodes as the original
+     * search for each node in the tree.
+     */
+    @Test
+    public void findAllShouldMatchTheOriginalSearchForEachNodeInTheTree() {
+        List<INode> tree = GraphFixtures.tree();
+        ParallelBreadthFirstSearch treeSearch = new ParallelBreadthFirstSearch(new CompactGraph(tree));
+
+        for (INode n : tree) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch();
+            assertEquals("Node " + n.getLabel() + " reachable nodes",
+                    bfs.findAll(n, 2, tree.size()), treeSearch.findAll(n, 2));
+            assertEquals("Node " + n.getLabel() + " reachable nodes",
+                    bfs.findAll(n, Integer.MAX_VALUE, tree.size()), treeSearch.findAll(n));
+            assertEquals("Node " + n.getLabel() + " max depth", bfs.getMaxDepth(), treeSearch.getMaxDepth());
+            assertEquals("Node " + n.getLabel() + " depth map", bfs.getDepth(), treeSearch.getDepth());
+        }
+    }
+
+    /**
+     * Test that with a depth limit the search finds the same
+     * nodes and depths as the original search, but reports
+     * the depth of the deepest node reached rather than the
+     * first depth past the limit.
+     */
+    @Test
+    public void limitedSearchShouldStopTheMaxDepthAtTheLimit() {
+        List<INode> tree = GraphFixtures.tree();
+        CompactGraph treeGraph = new CompactGraph(tree);
+        ParallelBreadthFirstSearch treeSearch = new ParallelBreadthFirstSearch(treeGraph);
+        IndexedBreadthFirstSearch indexed = new IndexedBreadthFirstSearch(treeGraph);
+        int depthLimit = 2;
+
+        for (INode n : tree) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch();
+            assertEquals("Node " + n.getLabel() + " reachable nodes",
+                    bfs.findAll(n, depthLimit, tree.size()), treeSearch.findAll(n, depthLimit));
+            assertEquals("Node " + n.getLabel() + " depth map", bfs.getDepth(), treeSearch.getDepth());
+            assertEquals("Node " + n.getLabel() + " max depth",
+                    Math.min(bfs.getMaxDepth(), depthLimit), treeSearch.getMaxDepth());
+
+            indexed.findAll(n, depthLimit);
+            assertEquals("Node " + n.getLabel() + " indexed max depth", treeSearch.getMaxDepth(), indexed.getMaxDepth());
+        }
+
+        // node 0 has nodes beyond the limit
+        BreadthFirstSearch bfs = new BreadthFirstSearch();
+        bfs.findAll(tree.get(0), depthLimit, tree.size());
+        treeSearch.findAll(tree.get(0), depthLimit);
+        assertEquals("Original search reports the first depth past the limit", depthLimit + 1, bfs.getMaxDepth());
+        assertEquals("Parallel search stops at the limit", depthLimit, treeSearch.getMaxDepth());
+    }
+
+    /**
+     * Test on a random directed graph that repeated searches
+     * match a sequential search.
+     */
+    @Test
+    public void depthsShouldMatchASequentialSearchOnARandomDirectedGraph() {
+        IndexedBreadthFirstSearch sequential = new IndexedBreadthFirstSearch(graph);
+
+        for (int source = 0; source < graph.getNumNodes(); source += 101) {
+            for (int depthLimit : new int[]{3, Integer.MAX_VALUE}) {
+                int reached = sequential.search(source, depthLimit);
+                assertEquals("Nodes reached from " + source, reached, search.search(source, depthLimit));
+                assertEquals("Max depth from " + source, sequential.getMaxDepth(), search.getMaxDepth());
+                for (int n = 0; n < graph.getNumNodes(); n++) {
+                    assertEquals("Depth of " + n + " from " + source, sequential.getDepth(n), search.getDepth(n));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that findAll returns the same nodes as the original search.
+     */
+    @Test
+    public void findAllShouldMatchTheOriginalSearch() {
+        INode source = nodes.get(0);
+        assertEquals("Reachable nodes",
+                new BreadthFirstSearch().findAll(source, 4, nodes.size()), search.findAll(source, 4));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the concurrent graph.
+ *
+ * @author kirsty
+ */
+public class ConcurrentGraphTest {
+
+    /**
+     * Tests the single threaded behaviour.
+     */
+    @Test
+    public void shouldCreateAndDeleteEdges() {
+        ConcurrentGraph graph = new ConcurrentGraph(3);
+        assertEquals("Stripes round up", 4, graph.getNumStripes());
+
+        INode a = graph.createNode(0, 0);
+        INode b = graph.createNode(1, 0);
+        INode c = graph.createNode(2, 0);
+        assertTrue("Bidirectional edge", graph.createBidirectionalEdge(a, b));
+        graph.createDirectedEdge(b, c);
+        assertEquals("Edges", 3, graph.getNumEdges());
+        assertEquals("Reachable from a", 3, graph.getReachable(a).size());
+        assertEquals("Reachable from c", 1, graph.getReachable(c).size());
+
+        assertTrue("Delete a-b", graph.deleteEdge(a, b));
+        assertFalse("Already deleted", graph.deleteEdge(a, b));
+        assertTrue("Delete b", graph.deleteNode(b));
+        assertEquals("No edges left", 0, graph.getNumEdges());
+        assertEquals("c has no incoming edges", 0, c.getInDegree());
+        assertNull("Deleted nodes take no edges", graph.createDirectedEdge(a, b));
+    }
+
+    /**
+     * Tests that edges and nodes changed by many threads at
+     * once leave the graph consistent.
+     */
+    @Test
+    public void concurrentChangesShouldLeaveTheGraphConsistent() throws Exception {
+        final ConcurrentGraph graph = new ConcurrentGraph(8);
+        final int numNodes = 200;
+        final List<INode> nodes = new ArrayList<>();
+        for (int i = 0; i < numNodes; i++) {
+            nodes.add(graph.createNode(i, i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final long seed = t;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int step = 0; step < 20000; step++) {
+                    INode n = nodes.get(random.nextInt(numNodes));
+                    INode m = nodes.get(random.nextInt(numNodes));
+                    int op = random.nextInt(10);
+                    if (op < 5) {
+                        graph.createBidirectionalEdge(n, m);
+                    } else if (op < 8) {
+                        graph.deleteEdge(n, m);
+                    } else if (op < 9) {
+                        graph.getReachable(n);
+                    } else if (step % 50 == 0) {
+                        graph.deleteNode(n);
+                        graph.addNode(n);
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        int numEdges = 0;
+        for (INode n : nodes) {
+            assertTrue("Node is in the graph", graph.contains(n));
+            numEdges += n.getDegree();
+            for (IEdge e : n.getEdges()) {
+                INode m = e.getTargetNode();
+                assertEquals("Incoming edge matches", e, m.getIncomingEdge(n));
+                assertTrue("Edges are bidirectional", m.isConnected(n));
+            }
+        }
+        assertEquals("Edge count", numEdges, graph.getNumEdges());
+    }
+
+    /**
+     * Tests that the neighbour procedure may call back into
+     * the graph while other threads change it.
+     */
+    @Test(timeout = 10000)
+    public void neighbourProceduresShouldNotHoldLocks() throws Exception {
+        final ConcurrentGraph graph = new ConcurrentGraph(2);
+        final INode a = graph.createNode(0, 0);
+        final INode b = graph.createNode(1, 0);
+        final INode c = graph.createNode(2, 0);
+        graph.createDirectedEdge(b, c);
+
+        graph.forEachNeighbour(b, m -> graph.createDirectedEdge(m, b) != null);
+        assertTrue("Procedure changed the graph", c.isConnected(b));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<?> reader = pool.submit(() -> {
+            for (int i = 0; i < 20000; i++) {
+                graph.forEachNeighbour(b, m -> graph.getDegree(a) >= 0);
+            }
+        });
+        Future<?> writer = pool.submit(() -> {
+            for (int i = 0; i < 20000; i++) {
+                graph.createDirectedEdge(a, b);
+                graph.deleteEdge(a, b);
+            }
+        });
+        reader.get();
+        writer.get();
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the disjoint-set forest.
+ *
+ * @author kirsty
+ */
+public class DisjointSetTest {
+
+    /**
+     * Tests that unions merge sets and are counted.
+     */
+    @Test
+    public void unionShouldMergeSets() {
+        DisjointSet set = new DisjointSet(2);
+        for (int i = 0; i < 6; i++) {
+            assertEquals("Elements are numbered in order", i, set.add());
+        }
+        assertEquals("Each element starts in its own set", 6, set.getNumSets());
+
+        assertTrue("0 and 1 are merged", set.union(0, 1));
+        assertTrue("2 and 3 are merged", set.union(2, 3));
+        assertTrue("1 and 3 are merged", set.union(1, 3));
+        assertFalse("0 and 2 are already merged", set.union(0, 2));
+
+        assertEquals("Sets after merging", 3, set.getNumSets());
+        assertTrue("0 and 3 are connected", set.isConnected(0, 3));
+        assertFalse("0 and 4 are not connected", set.isConnected(0, 4));
+        assertEquals("One root per set", set.find(0), set.find(2));
+    }
+
+    /**
+     * Tests random unions against a naive labelling.
+     */
+    @Test
+    public void randomUnionsShouldMatchANaiveLabelling() {
+        Random random = new Random(1);
+        int n = 500;
+        DisjointSet set = new DisjointSet();
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            set.add();
+            label[i] = i;
+        }
+
+        int numSets = n;
+        for (int k = 0; k < 400; k++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            boolean merged = label[x] != label[y];
+            if (merged) {
+                int old = label[y];
+                for (int i = 0; i < n; i++) {
+                    if (label[i] == old) {
+                        label[i] = label[x];
+                    }
+                }
+                numSets--;
+            }
+            assertEquals("Union of " + x + " and " + y, merged, set.union(x, y));
+        }
+
+        assertEquals("Number of sets", numSets, set.getNumSets());
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j += 7) {
+                assertEquals("Connected " + i + " " + j, label[i] == label[j], set.isConnected(i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the fully dynamic connectivity structure.
+ *
+ * @author kirsty
+ */
+public class DynamicConnectivityTest {
+
+    /**
+     * Tests that deleting a cycle edge keeps the cycle connected,
+     * and deleting a bridge splits it.
+     */
+    @Test
+    public void deletingATreeEdgeShouldFindAReplacement() {
+        DynamicConnectivity dc = new DynamicConnectivity();
+        for (int i = 0; i < 5; i++) {
+            dc.addVertex();
+        }
+
+        // a cycle 0-1-2-3-0 and a bridge 3-4
+        assertTrue("0-1 joins components", dc.addEdge(0, 1));
+        assertTrue("1-2 joins components", dc.addEdge(1, 2));
+        assertTrue("2-3 joins components", dc.addEdge(2, 3));
+        assertFalse("3-0 closes a cycle", dc.addEdge(3, 0));
+        assertTrue("3-4 joins components", dc.addEdge(3, 4));
+        assertEquals("One component", 1, dc.getNumComponents());
+
+        assertFalse("Removing a cycle edge does not split", dc.removeEdge(1, 2));
+        assertTrue("1 and 2 are still connected", dc.isConnected(1, 2));
+        assertEquals("Component size", 5, dc.getComponentSize(2));
+
+        assertTrue("Removing the bridge splits", dc.removeEdge(4, 3));
+        assertFalse("4 is cut off", dc.isConnected(0, 4));
+        assertEquals("Two components", 2, dc.getNumComponents());
+        assertEquals("Same representative", dc.componentOf(0), dc.componentOf(2));
+    }
+
+    /**
+     * Tests that parallel edges must all be removed to disconnect.
+     */
+    @Test
+    public void parallelEdgesShouldBeCounted() {
+        DynamicConnectivity dc = new DynamicConnectivity();
+        int u = dc.addVertex();
+        int v = dc.addVertex();
+
+        dc.addEdge(u, v);
+        dc.addEdge(v, u);
+        assertFalse("One copy remains", dc.removeEdge(u, v));
+        assertTrue("Still connected", dc.isConnected(u, v));
+        assertTrue("Last copy removed", dc.removeEdge(u, v));
+        assertFalse("No longer connected", dc.isConnected(u, v));
+    }
+
+    /**
+     * Tests a long random sequence of inserts, deletes and vertex
+     * removals against a disjoint set rebuilt after every change.
+     */
+    @Test
+    public void randomUpdatesShouldMatchARebuiltDisjointSet() {
+        Random random = new Random(2015);
+        int n = 200;
+        DynamicConnectivity dc = new DynamicConnectivity();
+        for (int i = 0; i < n; i++) {
+            dc.addVertex();
+        }
+        boolean[] removed = new boolean[n];
+        List<int[]> present = new ArrayList<>();
+
+        for (int step = 0; step < 6000; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || present.isEmpty()) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if (u != v && !removed[u] && !removed[v] && !dc.hasEdge(u, v)) {
+                    dc.addEdge(u, v);
+                    present.add(new int[]{u, v});
+                }
+            } else if (op < 9) {
+                int[] e = present.remove(random.nextInt(present.size()));
+                dc.removeEdge(e[0], e[1]);
+            } else {
+                // remove a vertex and add it back with no edges
+                int v = random.nextInt(n);
+                if (!removed[v]) {
+                    dc.removeVertex(v);
+                    present.removeIf(e -> e[0] == v || e[1] == v);
+                    assertEquals("Freed ids are reused", v, dc.addVertex());
+                }
+            }
+
+            if (step % 50 == 0) {
+                DisjointSet expected = new DisjointSet(n);
+                for (int i = 0; i < n; i++) {
+                    expected.add();
+                }
+                for (int[] e : present) {
+                    expected.union(e[0], e[1]);
+                }
+
+                assertEquals("Components at step " + step, expected.getNumSets(), dc.getNumComponents());
+                for (int k = 0; k < 100; k++) {
+                    int u = random.nextInt(n);
+                    int v = random.nextInt(n);
+                    assertEquals("Connected " + u + " " + v + " at step " + step,
+                            expected.isConnected(u, v), dc.isConnected(u, v));
+                    assertEquals("Representatives " + u + " " + v + " at step " + step,
+                            expected.isConnected(u, v), dc.componentOf(u) == dc.componentOf(v));
+                }
+            }
+        }
+    }
+}
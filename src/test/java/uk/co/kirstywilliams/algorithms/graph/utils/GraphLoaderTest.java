@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the edge list loader.
+ *
+ * @author kirsty
+ */
+public class GraphLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests loading a small text file with comments,
+     * blank lines and optional weights.
+     */
+    @Test
+    public void shouldLoadTextEdgeLists() throws IOException {
+        Path input = write("# a comment\n0 1 2.5\r\n1\t2\n\n% another\n3,0,-1e-2\n2 2 7");
+
+        CompactGraph directed = new GraphLoader(GraphLoader.Format.TEXT, false).loadCompact(input);
+        assertEquals("Nodes", 4, directed.getNumNodes());
+        assertEquals("Edges", 4, directed.getNumEdges());
+        assertEquals("Target of 0", 1, directed.getNeighbour(0, 0));
+        assertEquals("Weight of 0-1", 2.5, directed.getWeight(0, 0), 0.0);
+        assertEquals("Unweighted edge", 0.0, directed.getWeight(1, 0), 0.0);
+        assertEquals("Exponent weight", -0.01, directed.getWeight(3, 0), 0.0);
+        assertEquals("Self loop", 2, directed.getNeighbour(2, 0));
+
+        CompactGraph undirected = new GraphLoader(GraphLoader.Format.TEXT, true).loadCompact(input);
+        assertEquals("Undirected edges", 7, undirected.getNumEdges());
+        assertEquals("Degree of 0", 2, undirected.getDegree(0));
+
+        Graph graph = new GraphLoader(GraphLoader.Format.TEXT, true).load(input);
+        assertEquals("Graph nodes", 4, graph.getNumNodes());
+        assertEquals("Graph edges without the self loop", 6, graph.getNumEdges());
+        assertEquals("Graph is connected", 1, graph.getNumComponents());
+    }
+
+    /**
+     * Tests that text and binary files of the same random
+     * edges load the same, with chunks small enough that
+     * lines and records straddle chunk boundaries.
+     */
+    @Test
+    public void textAndBinaryShouldMatch() throws IOException {
+        Random random = new Random(2015);
+        int numEdges = 5000;
+        StringBuilder text = new StringBuilder();
+        ByteBuffer binary = ByteBuffer.allocate(16 * numEdges);
+        for (int i = 0; i < numEdges; i++) {
+            int s = random.nextInt(1000);
+            int t = random.nextInt(1000);
+            double w = random.nextInt(100000) / 100.0;
+            text.append(s).append(' ').append(t).append(' ').append(w).append('\n');
+            binary.putInt(s).putInt(t).putDouble(w);
+        }
+        Path textFile = write(text.toString());
+        Path binaryFile = folder.newFile().toPath();
+        Files.write(binaryFile, binary.array());
+
+        CompactGraph fromText = new GraphLoader(GraphLoader.Format.TEXT, true, 64).loadCompact(textFile);
+        CompactGraph fromBinary = new GraphLoader(GraphLoader.Format.WEIGHTED_BINARY, true, 100).loadCompact(binaryFile);
+        assertEquals("Nodes", fromText.getNumNodes(), fromBinary.getNumNodes());
+        assertEquals("Edges", fromText.getNumEdges(), fromBinary.getNumEdges());
+        for (int n = 0; n < fromText.getNumNodes(); n++) {
+            assertEquals("Degree of " + n, fromText.getDegree(n), fromBinary.getDegree(n));
+            for (int i = 0; i < fromText.getDegree(n); i++) {
+                assertEquals("Neighbour", fromText.getNeighbour(n, i), fromBinary.getNeighbour(n, i));
+                assertEquals("Weight", fromText.getWeight(n, i), fromBinary.getWeight(n, i), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Tests that malformed lines are reported.
+     */
+    @Test
+    public void malformedLinesShouldFail() throws IOException {
+        for (String bad : new String[]{"0 1\n1 x\n", "0 -1\n", "0 1 2 3\n", "0 1 2.5q\n"}) {
+            try {
+                new GraphLoader(GraphLoader.Format.TEXT, false).loadCompact(write(bad));
+                fail("Should reject " + bad);
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    private Path write(String text) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.BoundingDiameters;
+import uk.co.kirstywilliams.algorithms.graph.IndexedBreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.NearestNeighbourTSP;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for committed graph versions.
+ *
+ * @author kirsty
+ */
+public class GraphSnapshotTest {
+
+    /**
+     * Tests that a version keeps its topology while the
+     * graph changes.
+     */
+    @Test
+    public void versionsShouldNotSeeLaterChanges() {
+        Graph graph = new Graph();
+        INode[] nodes = new INode[5];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.createNode(2);
+        }
+        for (int i = 1; i < nodes.length; i++) {
+            graph.createWeightedBidirectionalEdge(nodes[i - 1], nodes[i], i);
+        }
+        assertEquals("Nothing committed yet", 0, graph.snapshot().getNumEdges());
+
+        GraphSnapshot path = graph.commit();
+        assertEquals("Version", 1, path.getVersion());
+        assertEquals("Edges", 8, path.getNumEdges());
+        assertEquals("Index of node 3", 3, path.getIndex(nodes[3]));
+        int i = path.getNeighbour(2, 0) == 1 ? 0 : 1;
+        assertEquals("Weight of 2 to 1", 2.0, path.getWeight(2, i), 0.0);
+
+        graph.deleteNode(nodes[2]);
+        INode reused = graph.createNode(2);
+        graph.createBidirectionalEdge(nodes[0], nodes[4]);
+        GraphSnapshot cycle = graph.commit();
+
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(path);
+        bfs.search(0);
+        assertEquals("Old version is still a path", 4, bfs.getMaxDepth());
+        assertTrue("Old version has the old edge", path.isConnected(1, 2));
+        assertEquals("Old version has the old node", nodes[2], path.getNode(2));
+
+        bfs = new IndexedBreadthFirstSearch(cycle);
+        bfs.search(0);
+        assertEquals("New version reaches 0, 1, 3 and 4", 4, bfs.getNumReached());
+        assertFalse("New version lost the edge", cycle.isConnected(1, 2));
+        assertEquals("Id 2 was reused", reused, cycle.getNode(2));
+        assertEquals("Deleted node has no index", -1, cycle.getIndex(nodes[2]));
+        assertEquals("Reused node", 2, cycle.getIndex(reused));
+        assertEquals("Latest version", cycle, graph.snapshot());
+
+        graph.deleteEdges();
+        GraphSnapshot bare = graph.commit();
+        assertEquals("No edges", 0, bare.getNumEdges());
+        assertEquals("No degree", 0, bare.getDegree(0));
+        assertEquals("Previous version keeps its edges", 2, cycle.getDegree(0));
+
+        graph.empty();
+        GraphSnapshot empty = graph.commit();
+        assertEquals("Empty version", 0, empty.getNumLiveNodes());
+        assertNull("No nodes", empty.getNode(0));
+    }
+
+    /**
+     * Tests that algorithms over every index skip the ids
+     * of deleted nodes.
+     */
+    @Test
+    public void freeIdsShouldNotBeNodes() {
+        Graph graph = new Graph();
+        INode[] nodes = new INode[4];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.createNode(2);
+        }
+        for (int i = 1; i < nodes.length; i++) {
+            graph.createBidirectionalEdge(nodes[i - 1], nodes[i]);
+        }
+        graph.deleteNode(graph.createNode(2));
+
+        GraphSnapshot path = graph.commit();
+        assertEquals("Free id is an index", 5, path.getNumNodes());
+        assertFalse("Free id is not a node", path.hasNode(4));
+        assertTrue("Live id is a node", path.hasNode(3));
+
+        BoundingDiameters bd = new BoundingDiameters(path);
+        assertEquals("Radius", 2, bd.getRadius());
+        assertEquals("Diameter", 3, bd.getDiameter());
+        assertEquals("Center", new HashSet<>(Arrays.asList(nodes[1], nodes[2])), bd.getCenter());
+        assertEquals("No eccentricity for the free id", -1, bd.getEccentricity(4));
+
+        NearestNeighbourTSP tsp = new NearestNeighbourTSP(path, new int[]{3, 0, 2}, 1);
+        assertEquals("Route over the pinned version", Arrays.asList(1, 2, 0), tsp.execute());
+        graph.deleteEdge(nodes[1], nodes[2]);
+        graph.commit();
+        assertEquals("Pinned version is unchanged", 2, path.getDegree(2));
+    }
+
+    /**
+     * Tests that a route over a snapshot only accepts
+     * distinct hubs that are nodes, and fails when the
+     * hubs do not all reach each other.
+     */
+    @Test
+    public void routesShouldNeedDistinctConnectedHubs() {
+        Graph graph = new Graph();
+        INode[] nodes = new INode[4];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.createNode(2);
+        }
+        graph.createBidirectionalEdge(nodes[0], nodes[1]);
+        graph.createBidirectionalEdge(nodes[2], nodes[3]);
+        graph.deleteNode(graph.createNode(2));
+        GraphSnapshot split = graph.commit();
+
+        for (int[] hubs : new int[][]{{0, 4}, {0, 5}, {-1, 0}, {0, 1, 0}}) {
+            try {
+                new NearestNeighbourTSP(split, hubs, 0);
+                fail("Should reject hubs " + Arrays.toString(hubs));
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+        try {
+            new NearestNeighbourTSP(split, new int[]{0, 1}, 2);
+            fail("Should reject a source outside the hubs");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        assertEquals("Connected hubs", Arrays.asList(0, 1), new NearestNeighbourTSP(split, new int[]{0, 1}, 0).execute());
+        try {
+            new NearestNeighbourTSP(split, new int[]{0, 1, 2}, 0).execute();
+            fail("Should not route between components");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that a reader thread always sees a committed
+     * topology while the writer changes the graph.
+     */
+    @Test
+    public void readersShouldSeeWholeCommits() throws Exception {
+        final Graph graph = new Graph();
+        final INode hub = graph.createNode(2);
+        final INode[] spokes = new INode[50];
+        for (int i = 0; i < spokes.length; i++) {
+            spokes[i] = graph.createNode(2);
+        }
+        graph.commit();
+
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted() && failure.get() == null) {
+                // every commit adds or removes all the spokes at once
+                GraphSnapshot s = graph.snapshot();
+                int degree = s.getDegree(s.getIndex(hub));
+                if (degree != 0 && degree != spokes.length) {
+                    failure.set("Saw a partial commit of degree " + degree);
+                }
+            }
+        });
+        reader.start();
+
+        for (int round = 0; round < 200; round++) {
+            for (INode spoke : spokes) {
+                graph.createDirectedEdge(hub, spoke);
+            }
+            graph.commit();
+            graph.clearNodeEdges(hub);
+            graph.commit();
+        }
+        reader.interrupt();
+        reader.join();
+
+        assertNull(failure.get(), failure.get());
+        assertEquals("Versions", 401, graph.snapshot().getVersion());
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.CompactGraph;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Edge;
+import uk.co.kirstywilliams.algorithms.graph.utils.impl.Node;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the graph's node ids and connected components.
+ *
+ * @author kirsty
+ */
+public class GraphTest {
+
+    Graph graph;
+    INode[] nodes;
+
+    /**
+     * Set up a graph of six unconnected nodes.
+     */
+    @Before
+    public void setup() {
+        graph = new Graph();
+        nodes = new INode[6];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.createNode(2);
+        }
+    }
+
+    /**
+     * Tests that new edges merge components.
+     */
+    @Test
+    public void creatingEdgesShouldMergeComponents() {
+        assertEquals("Each node starts in its own component", 6, graph.getNumComponents());
+        assertFalse("Graph is not connected", graph.isConnected());
+
+        graph.createBidirectionalEdge(nodes[0], nodes[1]);
+        graph.createDirectedEdge(nodes[1], nodes[2]);
+        graph.createWeightedBidirectionalEdge(nodes[3], nodes[4], 2.0);
+
+        assertEquals("Components after adding edges", 3, graph.getNumComponents());
+        assertEquals("0 and 2 share a component", graph.componentOf(nodes[0]), graph.componentOf(nodes[2]));
+        assertNotEquals("0 and 3 do not", graph.componentOf(nodes[0]), graph.componentOf(nodes[3]));
+        assertTrue("3 and 4 are connected", graph.isConnected(nodes[3], nodes[4]));
+        assertEquals("Component sets", 3, graph.getComponents().size());
+
+        graph.createDirectedEdge(nodes[2], nodes[3]);
+        graph.createDirectedEdge(nodes[5], nodes[0]);
+        assertTrue("Graph is connected", graph.isConnected());
+
+        INode late = graph.createNode(2);
+        assertFalse("A new node is not connected", graph.isConnected());
+        assertEquals("Not in the graph", -1, graph.componentOf(new Node(1)));
+        graph.createBidirectionalEdge(late, nodes[5]);
+        assertTrue("Graph is connected again", graph.isConnected());
+    }
+
+    /**
+     * Tests that deletions split components.
+     */
+    @Test
+    public void deletingEdgesShouldSplitComponents() {
+        for (int i = 1; i < nodes.length; i++) {
+            graph.createBidirectionalEdge(nodes[i - 1], nodes[i]);
+        }
+        assertTrue("Path graph is connected", graph.isConnected());
+
+        graph.deleteEdge(nodes[2], nodes[3]);
+        assertEquals("Deleting an edge splits the path", 2, graph.getNumComponents());
+        assertFalse("2 and 3 are no longer connected", graph.isConnected(nodes[2], nodes[3]));
+
+        graph.deleteNode(nodes[4]);
+        assertEquals("Deleting a node splits the path again", 3, graph.getNumComponents());
+
+        graph.createBidirectionalEdge(nodes[3], nodes[5]);
+        graph.createBidirectionalEdge(nodes[0], nodes[5]);
+        assertTrue("Graph is connected again", graph.isConnected());
+
+        graph.deleteEdges();
+        assertEquals("Deleting all edges", 5, graph.getNumComponents());
+    }
+
+    /**
+     * Tests that ids are dense and stable, and that freed ids
+     * are reused.
+     */
+    @Test
+    public void idsShouldBeDenseAndReused() {
+        assertEquals("Id bound", 6, graph.getIdBound());
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals("Id of node " + i, i, graph.idOf(nodes[i]));
+            assertEquals("Node with id " + i, nodes[i], graph.nodeAt(i));
+        }
+
+        graph.deleteNode(nodes[2]);
+        assertEquals("Deleted node has no id", -1, graph.idOf(nodes[2]));
+        assertEquals("Free id has no node", null, graph.nodeAt(2));
+        assertEquals("Other ids are unchanged", 3, graph.idOf(nodes[3]));
+
+        graph.createBidirectionalEdge(nodes[1], nodes[3]);
+        CompactGraph frozen = graph.freeze();
+        assertEquals("Frozen by id", graph.getIdBound(), frozen.getNumNodes());
+        assertFalse("Free id is not a frozen node", frozen.hasNode(2));
+        assertEquals("Free id has no edges", 0, frozen.getDegree(2));
+        for (int i : new int[]{0, 1, 3, 4, 5}) {
+            assertEquals("Frozen index is the id", graph.idOf(nodes[i]), frozen.getIndex(nodes[i]));
+        }
+        assertEquals("Frozen edge by id", 3, frozen.getNeighbour(1, 0));
+
+        INode n = graph.createNode(2);
+        assertEquals("Freed id is reused", 2, graph.idOf(n));
+        assertEquals("Id bound is unchanged", 6, graph.getIdBound());
+        assertEquals("Out of range", null, graph.nodeAt(6));
+
+        graph.empty();
+        assertEquals("Empty graph has no ids", 0, graph.getIdBound());
+        assertEquals("Ids start again", 0, graph.idOf(graph.createNode(2)));
+        for (int i = 1; i < 40; i++) {
+            assertEquals("Id of new node", i, graph.idOf(graph.createNode(2)));
+        }
+        assertEquals("Components after growing", 40, graph.getNumComponents());
+    }
+
+    /**
+     * Tests that coordinate lookups follow nodes as they are
+     * added, moved and deleted.
+     */
+    @Test
+    public void coordinateLookupsShouldFollowChanges() {
+        for (int i = 0; i < nodes.length; i++) {
+            graph.setLocation(nodes[i], i, 2 * i);
+        }
+
+        assertEquals("Exact lookup", nodes[3], graph.getNode(3.0, 6.0));
+        assertEquals("Missing lookup", null, graph.getNode(3.0, 3.0));
+        assertEquals("Tolerance lookup", nodes[2], graph.getNode(new Coordinate(2.1, 4.1), 0.5));
+        assertEquals("Outside tolerance", null, graph.getNode(new Coordinate(2.5, 5.0), 0.5));
+        assertEquals("Rectangle", 3, graph.getNodes(new Rectangle2D.Double(1.0, 2.0, 2.5, 5.0)).size());
+        assertEquals("Radius", 3, graph.getNodes(new Coordinate(2.0, 4.0), 2.5).size());
+        assertEquals("Nearest", Arrays.asList(nodes[5], nodes[4]), graph.getNearestNodes(new Coordinate(5.0, 9.0), 2));
+
+        graph.setLocation(nodes[3], new Coordinate(100.0, 100.0));
+        assertEquals("Old location", null, graph.getNode(3.0, 6.0));
+        assertEquals("New location", nodes[3], graph.getNode(100.0, 100.0));
+
+        graph.deleteNode(nodes[4]);
+        assertEquals("Deleted node", null, graph.getNode(4.0, 8.0));
+
+        INode n = graph.addNode(new Node(7.0, 7.0, 2));
+        assertEquals("Added node", n, graph.getNode(7.0, 7.0));
+
+        nodes[5].setLocation(-1.0, -1.0);
+        assertEquals("Moved by the node", nodes[5], graph.getNode(-1.0, -1.0));
+        assertEquals("Left its old location", null, graph.getNode(5.0, 10.0));
+
+        graph.deleteNode(nodes[5]);
+        nodes[5].setLocation(8.0, 8.0);
+        assertEquals("Deleted nodes are not tracked", null, graph.getNode(8.0, 8.0));
+    }
+
+    /**
+     * Tests that a node in two graphs keeps both graphs'
+     * coordinate lookups up to date.
+     */
+    @Test
+    public void sharedNodesShouldMoveInEveryGraph() {
+        Graph other = new Graph();
+        other.addNode(nodes[0]);
+        graph.setLocation(nodes[0], 1.0, 1.0);
+        assertEquals("First graph", nodes[0], graph.getNode(1.0, 1.0));
+        assertEquals("Second graph", nodes[0], other.getNode(1.0, 1.0));
+
+        nodes[0].setLocation(2.0, 2.0);
+        assertEquals("Moved in the first graph", nodes[0], graph.getNode(2.0, 2.0));
+        assertEquals("Moved in the second graph", nodes[0], other.getNode(2.0, 2.0));
+
+        other.deleteNode(nodes[0]);
+        nodes[0].setLocation(3.0, 3.0);
+        assertEquals("Still moved in the first graph", nodes[0], graph.getNode(3.0, 3.0));
+        assertEquals("Left its old location", null, graph.getNode(2.0, 2.0));
+        assertEquals("Not in the second graph", null, other.getNode(3.0, 3.0));
+    }
+
+    /**
+     * Tests that deleting nodes removes their incoming as well
+     * as their outgoing edges.
+     */
+    @Test
+    public void deletingNodesShouldRemoveIncidentEdges() {
+        graph.createDirectedEdge(nodes[0], nodes[1]);
+        graph.createDirectedEdge(nodes[2], nodes[1]);
+        graph.createBidirectionalEdge(nodes[1], nodes[3]);
+        graph.createDirectedEdge(nodes[3], nodes[4]);
+        graph.createDirectedEdge(nodes[4], nodes[5]);
+        assertEquals("In-degree of 1", 3, nodes[1].getInDegree());
+        assertEquals("Incoming edge", nodes[0].getEdge(nodes[1]), nodes[1].getIncomingEdge(nodes[0]));
+
+        graph.deleteNode(nodes[1]);
+        assertEquals("Edges after deleting 1", 2, graph.getNumEdges());
+        assertEquals("0 has no edges", 0, nodes[0].getDegree());
+        assertEquals("3 has no incoming edges", 0, nodes[3].getInDegree());
+        assertEquals("Components after deleting 1", 3, graph.getNumComponents());
+
+        graph.deleteNodes(Arrays.asList(nodes[4], nodes[5], nodes[1]));
+        assertEquals("No edges left", 0, graph.getNumEdges());
+        assertEquals("3 has no edges", 0, nodes[3].getDegree());
+        assertEquals("Nodes left", 3, graph.getNumNodes());
+        assertEquals("Components left", 3, graph.getNumComponents());
+
+        graph.deleteEdge(nodes[0], nodes[2]);
+        graph.createDirectedEdge(nodes[0], nodes[2]);
+        nodes[0].clearEdges();
+        assertEquals("Clearing edges updates the target", 0, nodes[2].getInDegree());
+    }
+
+    /**
+     * Tests that new nodes and their edges come from the
+     * graph's node factory.
+     */
+    @Test
+    public void createdNodesShouldComeFromTheFactory() {
+        final int[] made = new int[1];
+        graph.setNodeFactory((x, y, cacheSize) -> {
+            made[0]++;
+            Node n = new Node(x, y, cacheSize);
+            n.setEdgeFactory((source, target) -> new FactoryEdge(source, target));
+            return n;
+        });
+
+        INode a = graph.createNode(1, 2, 2);
+        INode b = graph.createNode(new Coordinate(3, 4), 2);
+        assertEquals("Nodes made", 2, made[0]);
+        assertEquals("x", 1.0, a.getLocation().getxCoord(), 0.0);
+        assertEquals("y", 4.0, b.getLocation().getyCoord(), 0.0);
+
+        graph.createDirectedEdge(a, b);
+        assertTrue("Edge from the factory", a.getEdge(b) instanceof FactoryEdge);
+    }
+
+    /**
+     * An edge type made by a factory.
+     */
+    private static final class FactoryEdge extends Edge {
+
+        FactoryEdge(final INode source, final INode target) {
+            super(source, target);
+        }
+    }
+}
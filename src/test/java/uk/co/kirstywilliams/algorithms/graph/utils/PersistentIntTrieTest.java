@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the persistent int trie.
+ *
+ * @author kirsty
+ */
+public class PersistentIntTrieTest {
+
+    /**
+     * Tests that old versions are unchanged by new ones.
+     */
+    @Test
+    public void oldVersionsShouldBeUnchanged() {
+        PersistentIntTrie<String> empty = PersistentIntTrie.empty();
+        PersistentIntTrie<String> one = empty.with(5, "five");
+        PersistentIntTrie<String> two = one.with(Integer.MAX_VALUE, "max");
+        PersistentIntTrie<String> three = two.with(5, null);
+
+        assertNull("Empty", empty.get(5));
+        assertEquals("One", "five", one.get(5));
+        assertNull("One has no max", one.get(Integer.MAX_VALUE));
+        assertEquals("Two", "max", two.get(Integer.MAX_VALUE));
+        assertEquals("Two keeps five", "five", two.get(5));
+        assertNull("Three removed five", three.get(5));
+        assertEquals("Sizes", 0 + 1 + 2 + 1, empty.size() + one.size() + two.size() + three.size());
+        assertNull("Negative keys are never set", three.get(-1));
+    }
+
+    /**
+     * Tests random updates against a hash map, keeping
+     * every version.
+     */
+    @Test
+    public void randomUpdatesShouldMatchAHashMap() {
+        Random random = new Random(2015);
+        PersistentIntTrie<Integer> trie = PersistentIntTrie.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentIntTrie<Integer> halfway = null;
+        Map<Integer, Integer> expectedHalfway = null;
+
+        for (int step = 0; step < 20000; step++) {
+            int key = random.nextBoolean() ? random.nextInt(2000) : random.nextInt(Integer.MAX_VALUE);
+            if (random.nextInt(3) == 0) {
+                trie = trie.with(key, null);
+                expected.remove(key);
+            } else {
+                trie = trie.with(key, step);
+                expected.put(key, step);
+            }
+            if (step == 10000) {
+                halfway = trie;
+                expectedHalfway = new HashMap<>(expected);
+            }
+        }
+
+        assertEquals("Size", expected.size(), trie.size());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            assertEquals("Value of " + e.getKey(), e.getValue(), trie.get(e.getKey()));
+        }
+        for (Map.Entry<Integer, Integer> e : expectedHalfway.entrySet()) {
+            assertEquals("Halfway value of " + e.getKey(), e.getValue(), halfway.get(e.getKey()));
+        }
+        assertEquals("Halfway size", expectedHalfway.size(), halfway.size());
+    }
+}
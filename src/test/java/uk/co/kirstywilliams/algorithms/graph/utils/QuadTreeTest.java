@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.junit.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the quadtree.
+ *
+ * @author kirsty
+ */
+public class QuadTreeTest {
+
+    /**
+     * Tests that many points at one location are kept.
+     */
+    @Test
+    public void equalPointsShouldBeKept() {
+        QuadTree tree = new QuadTree();
+        for (int id = 0; id < 100; id++) {
+            tree.insert(id, 3.0, 4.0);
+        }
+
+        assertEquals("Size", 100, tree.size());
+        assertTrue("Found", tree.find(3.0, 4.0) >= 0);
+        assertEquals("Not found", -1, tree.find(4.0, 3.0));
+
+        TIntArrayList found = new TIntArrayList();
+        tree.findWithin(0.0, 0.0, 5.0, found);
+        assertEquals("All within radius", 100, found.size());
+
+        for (int id = 0; id < 100; id++) {
+            assertTrue("Removed " + id, tree.remove(id));
+        }
+        assertFalse("Removed twice", tree.remove(0));
+        assertEquals("Empty", -1, tree.findNearest(3.0, 4.0));
+    }
+
+    /**
+     * Tests random inserts, moves and removals against a
+     * linear scan of the points.
+     */
+    @Test
+    public void queriesShouldMatchALinearScan() {
+        Random random = new Random(2015);
+        int n = 500;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        boolean[] present = new boolean[n];
+        QuadTree tree = new QuadTree();
+
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(n);
+            if (random.nextInt(4) == 0) {
+                assertEquals("Remove " + id, present[id], tree.remove(id));
+                present[id] = false;
+            } else {
+                // spread points over a wide range, with some on a coarse grid
+                xs[id] = random.nextBoolean() ? random.nextInt(20) : (random.nextDouble() - 0.3) * 1000;
+                ys[id] = random.nextBoolean() ? random.nextInt(20) : (random.nextDouble() - 0.7) * 1000;
+                tree.insert(id, xs[id], ys[id]);
+                present[id] = true;
+            }
+
+            if (step % 100 != 0) {
+                continue;
+            }
+
+            int size = 0;
+            for (boolean p : present) {
+                size += p ? 1 : 0;
+            }
+            assertEquals("Size at step " + step, size, tree.size());
+
+            double x = (random.nextDouble() - 0.5) * 1000;
+            double y = (random.nextDouble() - 0.5) * 1000;
+            double radius = random.nextDouble() * 300;
+            Rectangle2D area = new Rectangle2D.Double(x, y, random.nextDouble() * 400, random.nextDouble() * 400);
+
+            TIntArrayList inRadius = new TIntArrayList();
+            TIntArrayList inArea = new TIntArrayList();
+            double[] distances = new double[size];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (!present[i]) {
+                    continue;
+                }
+                double d = Math.hypot(xs[i] - x, ys[i] - y);
+                distances[k++] = d;
+                if (d <= radius) {
+                    inRadius.add(i);
+                }
+                if (area.contains(xs[i], ys[i])) {
+                    inArea.add(i);
+                }
+            }
+            Arrays.sort(distances);
+
+            TIntArrayList found = new TIntArrayList();
+            tree.findWithin(x, y, radius, found);
+            found.sort();
+            assertEquals("Radius query at step " + step, inRadius, found);
+
+            found = new TIntArrayList();
+            tree.findWithin(area, found);
+            found.sort();
+            assertEquals("Rectangle query at step " + step, inArea, found);
+
+            int[] nearest = tree.findNearest(x, y, 10);
+            double[] nearestDistances = new double[nearest.length];
+            for (int i = 0; i < nearest.length; i++) {
+                nearestDistances[i] = Math.hypot(xs[nearest[i]] - x, ys[nearest[i]] - y);
+            }
+            assertArrayEquals("Nearest at step " + step,
+                    Arrays.copyOf(distances, Math.min(10, size)), nearestDistances, 1e-9);
+
+            int some = inArea.isEmpty() ? -1 : inArea.get(0);
+            if (some >= 0) {
+                int at = tree.find(xs[some], ys[some]);
+                assertTrue("Exact at step " + step, xs[at] == xs[some] && ys[at] == ys[some]);
+            }
+        }
+    }
+}
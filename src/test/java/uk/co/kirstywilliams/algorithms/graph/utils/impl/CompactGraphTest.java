@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.utils.Graph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the compressed sparse row graph.
+ *
+ * @author kirsty
+ */
+public class CompactGraphTest {
+
+    Graph graph;
+    INode a;
+    INode b;
+    INode c;
+
+    /**
+     * Set up a weighted graph: a to b (1.5), a to c (2.5),
+     * b to c (4.0), and c to a and back (3.0).
+     */
+    @Before
+    public void setup() {
+        graph = new Graph();
+        a = graph.createNode(2);
+        b = graph.createNode(2);
+        c = graph.createNode(2);
+        graph.createWeightedDirectedEdge(a, b, 1.5);
+        graph.createWeightedDirectedEdge(a, c, 2.5);
+        graph.createWeightedDirectedEdge(b, c, 4.0);
+        graph.createWeightedBidirectionalEdge(c, a, 3.0);
+    }
+
+    /**
+     * Tests that the frozen graph has the same edges and weights.
+     */
+    @Test
+    public void freezeShouldCopyTheEdgesAndWeights() {
+        CompactGraph compact = graph.freeze();
+
+        assertEquals("Nodes", 3, compact.getNumNodes());
+        assertEquals("Edges", graph.getNumEdges(), compact.getNumEdges());
+        for (int n = 0; n < compact.getNumNodes(); n++) {
+            INode node = compact.getNode(n);
+            assertEquals("Index of node " + n, n, compact.getIndex(node));
+            assertEquals("Degree of node " + n, node.getDegree(), compact.getDegree(n));
+            for (int i = 0; i < compact.getDegree(n); i++) {
+                INode m = compact.getNode(compact.getNeighbour(n, i));
+                assertEquals("Weight of edge", node.getEdge(m).getWeight(), compact.getWeight(n, i), 0.0);
+            }
+        }
+        assertEquals("Not in the graph", -1, compact.getIndex(new Node(1)));
+    }
+
+    /**
+     * Tests that the transpose reverses every edge, keeping its weight.
+     */
+    @Test
+    public void transposeShouldReverseEveryEdge() {
+        CompactGraph compact = graph.freeze();
+        CompactGraph transpose = compact.transpose();
+
+        assertEquals("Edges", compact.getNumEdges(), transpose.getNumEdges());
+        assertEquals("In degree of c", 2, transpose.getDegree(compact.getIndex(c)));
+        for (int n = 0; n < transpose.getNumNodes(); n++) {
+            INode node = transpose.getNode(n);
+            for (int i = 0; i < transpose.getDegree(n); i++) {
+                INode m = transpose.getNode(transpose.getNeighbour(n, i));
+                assertEquals("Weight of reversed edge", m.getEdge(node).getWeight(), transpose.getWeight(n, i), 0.0);
+            }
+        }
+    }
+}
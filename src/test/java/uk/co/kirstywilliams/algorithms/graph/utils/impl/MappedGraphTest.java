@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.kirstywilliams.algorithms.graph.IndexedBreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.utils.Graph;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the memory mapped graph file.
+ *
+ * @author kirsty
+ */
+public class MappedGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that a written graph reads back the same.
+     */
+    @Test
+    public void shouldReadBackWhatWasWritten() throws IOException {
+        Graph graph = new Graph();
+        INode[] nodes = new INode[5];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.addNode(new Node(i, -2.5 * i, 2));
+            nodes[i].setWeight(i / 4.0);
+        }
+        nodes[1].setLabel("one");
+        nodes[3].setLabel("tr\u00e9s");
+        for (int i = 1; i < nodes.length; i++) {
+            graph.createWeightedBidirectionalEdge(nodes[i - 1], nodes[i], 10 + i);
+        }
+
+        CompactGraph compact = graph.freeze();
+        Path path = folder.newFile().toPath();
+        MappedGraph.write(compact, path);
+        MappedGraph mapped = MappedGraph.open(path);
+
+        assertEquals("Nodes", compact.getNumNodes(), mapped.getNumNodes());
+        assertEquals("Edges", compact.getNumEdges(), mapped.getNumEdges());
+        for (int n = 0; n < compact.getNumNodes(); n++) {
+            INode node = compact.getNode(n);
+            assertEquals("x", node.getLocation().getxCoord(), mapped.getX(n), 0.0);
+            assertEquals("y", node.getLocation().getyCoord(), mapped.getY(n), 0.0);
+            assertEquals("Node weight", node.getWeight(), mapped.getNodeWeight(n), 0.0);
+            assertEquals("Label", node.getLabel(), mapped.getLabel(n));
+            assertEquals("Degree", compact.getDegree(n), mapped.getDegree(n));
+            for (int i = 0; i < compact.getDegree(n); i++) {
+                assertEquals("Neighbour", compact.getNeighbour(n, i), mapped.getNeighbour(n, i));
+                assertEquals("Edge weight", compact.getWeight(n, i), mapped.getWeight(n, i), 0.0);
+            }
+        }
+
+        int end = compact.getIndex(nodes[0]);
+        IndexedBreadthFirstSearch bfs = new IndexedBreadthFirstSearch(mapped);
+        bfs.search(end);
+        assertEquals("Path length", 4, bfs.getMaxDepth());
+        assertEquals("Node objects round trip", end, mapped.getIndex(mapped.getNode(end)));
+        assertEquals("Labels on node objects", "one", mapped.getNode(compact.getIndex(nodes[1])).getLabel());
+        assertNull("Missing labels", mapped.getLabel(end));
+    }
+
+    /**
+     * Tests that other files are rejected.
+     */
+    @Test
+    public void shouldRejectOtherFiles() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[100]);
+        try {
+            MappedGraph.open(path);
+            fail("Should reject a file of zeroes");
+        } catch (IOException expected) {
+            // expected
+        }
+
+        MappedGraph.write(new Graph(), path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[7] = 99;
+        Files.write(path, bytes);
+        try {
+            MappedGraph.open(path);
+            fail("Should reject a later version");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015. Kirsty Williams <kirsty@kirstywilliams.co.uk>
+ */
+
+package uk.co.kirstywilliams.algorithms.graph.utils.impl;
+
+import org.junit.Test;
+import uk.co.kirstywilliams.algorithms.graph.BreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.IndexedBreadthFirstSearch;
+import uk.co.kirstywilliams.algorithms.graph.utils.IEdge;
+import uk.co.kirstywilliams.algorithms.graph.utils.INode;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the off-heap graph.
+ *
+ * @author kirsty
+ */
+public class OffHeapGraphTest {
+
+    /**
+     * Build a 4 x 4 grid with edges in both directions.
+     */
+    private static OffHeapGraph grid(final boolean incoming) {
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder();
+        for (int i = 0; i < 16; i++) {
+            builder.addNode(i % 4, i / 4);
+        }
+        for (int i = 0; i < 16; i++) {
+            if (i % 4 < 3) {
+                builder.addBidirectionalEdge(i, i + 1, 1 + i);
+            }
+            if (i < 12) {
+                builder.addBidirectionalEdge(i, i + 4, 100 + i);
+            }
+        }
+        return builder.build(incoming);
+    }
+
+    /**
+     * Tests that the flyweights navigate the stored edges.
+     */
+    @Test
+    public void flyweightsShouldNavigateTheGraph() {
+        OffHeapGraph graph = grid(false);
+        assertEquals("Nodes", 16, graph.getNumNodes());
+        assertEquals("Edges", 48, graph.getNumEdges());
+
+        INode corner = graph.getNode(0);
+        assertEquals("Flyweights are equal", corner, graph.getNode(0));
+        assertEquals("Index", 0, graph.getIndex(corner));
+        assertEquals("Degree", 2, corner.getDegree());
+        assertEquals("Location", 2.0, graph.getNode(6).getLocation().getxCoord(), 0.0);
+        assertTrue("Connected", corner.isConnected(graph.getNode(1)));
+        assertFalse("Not connected", corner.isConnected(graph.getNode(5)));
+        assertNull("No edge", corner.getEdge(graph.getNode(5)));
+
+        IEdge e = corner.getEdge(graph.getNode(4));
+        assertEquals("Edge weight", 100.0, e.getWeight(), 0.0);
+        assertEquals("Edge target", graph.getNode(4), e.getTargetNode());
+        e.setWeight(7);
+        assertEquals("Edge weight set", 7.0, graph.getNode(0).getEdge(graph.getNode(4)).getWeight(), 0.0);
+
+        Set<INode> neighbours = new HashSet<>(graph.getNode(5).getNeighbours());
+        assertEquals("Neighbours", 4, neighbours.size());
+        assertTrue("Neighbour contains", graph.getNode(5).getNeighbours().contains(graph.getNode(9)));
+
+        BreadthFirstSearch bfs = new BreadthFirstSearch();
+        assertEquals("Reachable", 16, bfs.findAll(corner).size());
+        assertEquals("Eccentricity", 6, corner.getEccentricity());
+
+        IndexedBreadthFirstSearch indexed = new IndexedBreadthFirstSearch(graph);
+        indexed.search(0);
+        assertEquals("Indexed depth", 6, indexed.getMaxDepth());
+        assertTrue("Off-heap", graph.sizeInBytes() > 0);
+    }
+
+    /**
+     * Tests that incoming edges are kept only if asked for,
+     * and that the edges cannot be changed.
+     */
+    @Test
+    public void incomingEdgesShouldBeOptional() {
+        OffHeapGraph graph = grid(true);
+        INode n = graph.getNode(5);
+        assertEquals("In degree", 4, n.getInDegree());
+        for (IEdge e : n.getIncomingEdges()) {
+            assertEquals("Incoming target", n, e.getTargetNode());
+            assertTrue("Incoming source", e.getSourceNode().isConnected(n));
+        }
+        assertEquals("Incoming edge", graph.getNode(1), n.getIncomingEdge(graph.getNode(1)).getSourceNode());
+
+        try {
+            grid(false).getNode(5).getInDegree();
+            fail("Incoming edges were not kept");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            n.addEdge(graph.getNode(0));
+            fail("Edges are fixed");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+}